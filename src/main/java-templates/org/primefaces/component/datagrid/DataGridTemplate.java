@@ -31,10 +31,9 @@ import org.primefaces.util.Constants;
         if(model != null && model instanceof LazyDataModel) {            
             LazyDataModel lazyModel = (LazyDataModel) model;
 
-            List<?> data = lazyModel.load(getFirst(), getRows(), null, null, null);
+            List<?> data = lazyModel.load(getFirst(), lazyModel.getLoadSize(getRows()), null, null, null);
             
-            lazyModel.setPageSize(getRows());
-            lazyModel.setWrappedData(data);
+            lazyModel.setLoadedPage(getFirst(), getRows(), data);
 
             //Update paginator for callback
             if(this.isPaginator()) {
@@ -42,6 +41,10 @@ import org.primefaces.util.Constants;
 
                 if(requestContext != null) {
                     requestContext.addCallbackParam("totalRecords", lazyModel.getRowCount());
+                    
+                    if(lazyModel.isRowCountEstimated()) {
+                        requestContext.addCallbackParam("rowCountEstimated", true);
+                    }
                 }
             }
         }
@@ -142,10 +142,9 @@ import org.primefaces.model.LazyDataModel;
         if(model != null && model instanceof LazyDataModel) {            
             LazyDataModel lazyModel = (LazyDataModel) model;
 
-            List<?> data = lazyModel.load(getFirst(), getRows(), null, null, null);
+            List<?> data = lazyModel.load(getFirst(), lazyModel.getLoadSize(getRows()), null, null, null);
             
-            lazyModel.setPageSize(getRows());
-            lazyModel.setWrappedData(data);
+            lazyModel.setLoadedPage(getFirst(), getRows(), data);
 
             //Update paginator for callback
             if(this.isPaginator()) {
@@ -153,6 +152,10 @@ import org.primefaces.model.LazyDataModel;
 
                 if(requestContext != null) {
                     requestContext.addCallbackParam("totalRecords", lazyModel.getRowCount());
+                    
+                    if(lazyModel.isRowCountEstimated()) {
+                        requestContext.addCallbackParam("rowCountEstimated", true);
+                    }
                 }
             }
         }
@@ -23,6 +23,8 @@ import java.util.Map;
 import java.util.Iterator;
 import java.util.HashMap;
 import org.primefaces.model.LazyDataModel;
+import org.primefaces.model.KeysetCursor;
+import org.primefaces.model.RowKeyIndex;
 import java.lang.StringBuilder;
 import java.util.List;
 import javax.el.ValueExpression;
@@ -30,6 +32,8 @@ import javax.faces.event.FacesEvent;
 import javax.faces.event.AjaxBehaviorEvent;
 import javax.faces.event.PhaseId;
 import org.primefaces.util.Constants;
+import org.primefaces.util.RowKeySet;
+import java.util.Set;
 import org.primefaces.event.RowEditEvent;
 import org.primefaces.event.CellEditEvent;
 import org.primefaces.event.SelectEvent;
@@ -360,25 +364,24 @@ import org.primefaces.component.datatable.feature.*;
         if(model != null && model instanceof LazyDataModel) {            
             LazyDataModel lazyModel = (LazyDataModel) model;
             
+            int first = getFirst();
+            int rows = getRows();
+            KeysetCursor cursor = createKeysetCursor(lazyModel, first, rows);
+            int loadSize = lazyModel.getLoadSize(rows);
             List<?> data = null;
             
             if(this.isMultiSort()) {
-                data = lazyModel.load(getFirst(), getRows(), getMultiSortMeta(), getFilters());
+                data = lazyModel.loadPage(first, loadSize, getMultiSortMeta(), getFilters(), cursor);
             }
             else {
-                data = lazyModel.load(getFirst(), getRows(), (String) getSortBy(), convertSortOrder(), getFilters());
+                data = lazyModel.loadPage(first, loadSize, (String) getSortBy(), convertSortOrder(), getFilters(), cursor);
             }
             
-            lazyModel.setPageSize(getRows());
-            lazyModel.setWrappedData(data);
+            lazyModel.setLoadedPage(first, rows, data);
 
             //Update paginator for callback
             if(this.isPaginator()) {
-                RequestContext requestContext = RequestContext.getCurrentInstance();
-
-                if(requestContext != null) {
-                    requestContext.addCallbackParam("totalRecords", lazyModel.getRowCount());
-                }
+                addRowCountCallbackParams(lazyModel);
             }
         }
     }
@@ -389,27 +392,66 @@ import org.primefaces.component.datatable.feature.*;
         if(model != null && model instanceof LazyDataModel) {            
             LazyDataModel lazyModel = (LazyDataModel) model;
             
+            KeysetCursor cursor = createKeysetCursor(lazyModel, offset, rows);
+            int loadSize = lazyModel.getLoadSize(rows);
             List<?> data = null;
             
             if(this.isMultiSort()) {
-                data = lazyModel.load(offset, rows, getMultiSortMeta(), getFilters());
+                data = lazyModel.loadPage(offset, loadSize, getMultiSortMeta(), getFilters(), cursor);
             }
             else {
-                data = lazyModel.load(offset, rows, (String) getSortBy(), convertSortOrder(), getFilters());
+                data = lazyModel.loadPage(offset, loadSize, (String) getSortBy(), convertSortOrder(), getFilters(), cursor);
             }
             
-            lazyModel.setPageSize(rows);
-            lazyModel.setWrappedData(data);
+            lazyModel.setLoadedPage(offset, rows, data);
 
             //Update paginator for callback
             if(this.isPaginator()) {
-                RequestContext requestContext = RequestContext.getCurrentInstance();
+                addRowCountCallbackParams(lazyModel);
+            }
+        }
+    }
+        
+    /**
+     * Passes the row count to the paginator, an estimated count is flagged so the client replaces it once refined.
+     */
+    protected void addRowCountCallbackParams(LazyDataModel lazyModel) {
+        RequestContext requestContext = RequestContext.getCurrentInstance();
 
-                if(requestContext != null) {
-                    requestContext.addCallbackParam("totalRecords", lazyModel.getRowCount());
+        if(requestContext != null) {
+            requestContext.addCallbackParam("totalRecords", lazyModel.getRowCount());
+            
+            if(lazyModel.isRowCountEstimated()) {
+                requestContext.addCallbackParam("rowCountEstimated", true);
+            }
+        }
+    }
+    
+    /**
+     * Creates the cursor of the page at first from the page the lazy model holds, sort fields are the keyset
+     * and sort plus filters identify the query.
+     */
+    protected KeysetCursor createKeysetCursor(LazyDataModel lazyModel, int first, int rows) {
+        List<String> sortFields = new ArrayList<String>();
+        StringBuilder query = new StringBuilder();
+        
+        if(this.isMultiSort()) {
+            List<SortMeta> multiSortMeta = getMultiSortMeta();
+            if(multiSortMeta != null) {
+                for(SortMeta sortMeta : multiSortMeta) {
+                    sortFields.add(sortMeta.getSortField());
+                    query.append(sortMeta.getSortField()).append(" ").append(sortMeta.getSortOrder()).append(",");
                 }
             }
         }
+        else if(getSortBy() != null) {
+            sortFields.add((String) getSortBy());
+            query.append(getSortBy()).append(" ").append(convertSortOrder()).append(",");
+        }
+        
+        query.append(getFilters());
+        
+        return KeysetCursor.create(lazyModel, first, rows, sortFields, query.toString());
     }
         
     protected String resolveSortField() {
@@ -604,20 +646,12 @@ import org.primefaces.component.datatable.feature.*;
         boolean hasRowKeyVe = this.getValueExpression("rowKey") != null;
         
         if(hasRowKeyVe) {
-            Map<String,Object> requestMap = getFacesContext().getExternalContext().getRequestMap();
-            String var = this.getVar();
             Collection data = (Collection) getDataModel().getWrappedData();
-
-            for(Iterator it = data.iterator(); it.hasNext();) {
-                Object object = it.next();
-                requestMap.put(var, object);
-
-                if(String.valueOf(this.getRowKey()).equals(rowKey)) {
-                    return object;
-                }
+            if(data == null) {
+                return null;
             }
             
-            return null;
+            return getRowKeyIndex(data).getRowData(rowKey);
         } 
         else {
             DataModel model = getDataModel();
@@ -628,12 +662,47 @@ import org.primefaces.component.datatable.feature.*;
             return ((SelectableDataModel) getDataModel()).getRowData(rowKey);
         }
     }
+    
+    private final static String ROW_KEY_INDEX_SUFFIX = "_rowKeyIndex";
+    
+    /**
+     * The index lives in the FacesContext attributes for the current request only, rows replaced or
+     * reordered in place by the application are seen by the next request.
+     */
+    protected RowKeyIndex getRowKeyIndex(Collection data) {
+        FacesContext context = getFacesContext();
+        final Map<String,Object> requestMap = context.getExternalContext().getRequestMap();
+        final String var = this.getVar();
+        Object oldVar = requestMap.get(var);
+        
+        try {
+            return RowKeyIndex.get(context.getAttributes(), this.getClientId(context) + ROW_KEY_INDEX_SUFFIX, data, new RowKeyIndex.KeyResolver() {
+                
+                public String getRowKey(Object row) {
+                    requestMap.put(var, row);
+                    
+                    return String.valueOf(DataTable.this.getRowKey());
+                }
+            });
+        }
+        finally {
+            if(oldVar == null)
+                requestMap.remove(var);
+            else
+                requestMap.put(var, oldVar);
+        }
+    }
+    
+    public void clearRowKeyIndex() {
+        FacesContext context = getFacesContext();
+        context.getAttributes().remove(this.getClientId(context) + ROW_KEY_INDEX_SUFFIX);
+    }
 
-    private List<Object> selectedRowKeys = new ArrayList<Object>();
+    private RowKeySet selectedRowKeys = new RowKeySet();
 
     protected void findSelectedRowKeys() {
         Object selection = this.getSelection();
-        selectedRowKeys = new ArrayList<Object>();
+        selectedRowKeys = new RowKeySet();
         boolean hasRowKeyVe = this.getValueExpression("rowKey") != null;
         String var = this.getVar();
         Map<String,Object> requestMap = getFacesContext().getExternalContext().getRequestMap();
@@ -670,21 +739,12 @@ import org.primefaces.component.datatable.feature.*;
         }
     }
 
-    protected List<Object> getSelectedRowKeys() {
+    protected Set<Object> getSelectedRowKeys() {
         return selectedRowKeys;
     }
 
     protected String getSelectedRowKeysAsString() {
-        StringBuilder builder = new StringBuilder();
-        for(Iterator<Object> iter = getSelectedRowKeys().iterator(); iter.hasNext();) {
-            builder.append(iter.next());
-
-            if(iter.hasNext()) {
-                builder.append(",");
-            }
-        }
-
-        return builder.toString();
+        return selectedRowKeys.getKeysAsString();
     }
 
     public SummaryRow getSummaryRow() {
@@ -8,12 +8,20 @@
     public final static String CANCEL_BUTTON_CLASS = "ui-fileupload-cancel";
 
     public void broadcast(javax.faces.event.FacesEvent event) throws javax.faces.event.AbortProcessingException {
-		super.broadcast(event);
-		
-		FacesContext facesContext = getFacesContext();
-		MethodExpression me = getFileUploadListener();
-		
-		if (me != null && event instanceof org.primefaces.event.FileUploadEvent) {
-			me.invoke(facesContext.getELContext(), new Object[] {event});
+		try {
+			super.broadcast(event);
+			
+			FacesContext facesContext = getFacesContext();
+			MethodExpression me = getFileUploadListener();
+			
+			if (me != null && event instanceof org.primefaces.event.FileUploadEvent) {
+				me.invoke(facesContext.getELContext(), new Object[] {event});
+			}
+		}
+		finally {
+			//files assembled from chunks are only kept for the listeners
+			if (event instanceof org.primefaces.event.FileUploadEvent) {
+				ChunkedUpload.release(((org.primefaces.event.FileUploadEvent) event).getFile());
+			}
 		}
 	}
\ No newline at end of file
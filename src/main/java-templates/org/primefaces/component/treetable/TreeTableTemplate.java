@@ -187,6 +187,34 @@ import java.lang.StringBuilder;
         return value == null ? "0,0" : value;
     }
 
+    public final static String VISIBLE_NODES_SUFFIX = "_visibleNodes";
+
+    public boolean isVirtualScroll() {
+        return isScrollable() && isLiveScroll() && getScrollRows() > 0;
+    }
+
+    public boolean isScrollRequest(FacesContext context) {
+        return context.getExternalContext().getRequestParameterMap().containsKey(this.getClientId(context) + "_scrolling");
+    }
+
+    /**
+     * @return the visible node index kept in the view, rebuilt when it belongs to another root, was restored from a
+     * serialized view or rebuild is set.
+     */
+    public VisibleNodes getVisibleNodes(FacesContext context, boolean rebuild) {
+        Map<String,Object> viewMap = context.getViewRoot().getViewMap();
+        String key = this.getClientId(context) + VISIBLE_NODES_SUFFIX;
+        TreeNode root = this.getValue();
+        VisibleNodes visibleNodes = (VisibleNodes) viewMap.get(key);
+
+        if(rebuild || visibleNodes == null || visibleNodes.getRoot() != root) {
+            visibleNodes = new VisibleNodes(root);
+            viewMap.put(key, visibleNodes);
+        }
+
+        return visibleNodes;
+    }
+
     public boolean isCheckboxSelection() {
         String selectionMode = this.getSelectionMode();
         
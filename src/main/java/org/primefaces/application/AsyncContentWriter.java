@@ -0,0 +1,294 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.application;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.faces.context.ExternalContext;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.primefaces.model.AsyncStreamedContent;
+import org.primefaces.util.DaemonThreadFactory;
+
+/**
+ * Writes {@link AsyncStreamedContent} on a bounded pool with the request in Servlet 3 asynchronous mode, so slow content
+ * does not hold a request thread. The FacesServlet must be mapped with async-supported. A content that does not
+ * fit in the queue is rejected and served on the request thread, the counters tell how often that happens along with
+ * timeouts and failures.
+ */
+public class AsyncContentWriter {
+
+    private final static Logger logger = Logger.getLogger(AsyncContentWriter.class.getName());
+
+    private final static int BUFFER_SIZE = 8192;
+
+    private ThreadPoolExecutor executor;
+    private long defaultTimeout;
+
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    /**
+     * @param threads number of writer threads.
+     * @param queueSize maximum number of contents waiting for a thread.
+     * @param defaultTimeout milliseconds a content may take unless it defines its own timeout.
+     */
+    public AsyncContentWriter(int threads, int queueSize, long defaultTimeout) {
+        this.defaultTimeout = defaultTimeout;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(Math.max(queueSize, 1)), new DaemonThreadFactory("primefaces-dynamic-content"));
+    }
+
+    /**
+     * Puts the request into asynchronous mode and queues the content, response headers must already be set.
+     * @return false if the request does not support asynchronous mode or the queue is full, the content must then be
+     * written on the request thread.
+     */
+    public boolean write(ExternalContext externalContext, AsyncStreamedContent content) {
+        Object request = externalContext.getRequest();
+        Object response = externalContext.getResponse();
+
+        if(!(request instanceof HttpServletRequest) || !(response instanceof HttpServletResponse) || !((HttpServletRequest) request).isAsyncSupported()) {
+            return false;
+        }
+
+        if(executor.getQueue().remainingCapacity() == 0) {
+            rejectedCount.incrementAndGet();
+            return false;
+        }
+
+        AsyncContext asyncContext = ((HttpServletRequest) request).startAsync((HttpServletRequest) request, (HttpServletResponse) response);
+        asyncContext.setTimeout(content.getTimeout() > 0 ? content.getTimeout() : defaultTimeout);
+
+        WriteTask task = new WriteTask(asyncContext, content);
+        asyncContext.addListener(task);
+        submittedCount.incrementAndGet();
+
+        try {
+            task.future = executor.submit(task);
+        }
+        catch(RejectedExecutionException e) {
+            //the queue filled up in the meantime, the request is already asynchronous so write it right here
+            rejectedCount.incrementAndGet();
+            task.run();
+        }
+
+        return true;
+    }
+
+    /**
+     * @return number of contents being written.
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * @return number of contents waiting for a writer thread.
+     */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    public long getSubmittedCount() {
+        return submittedCount.get();
+    }
+
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    /**
+     * @return number of contents served on the request thread because the queue was full.
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncContentWriter[active=" + getActiveCount() + ", queued=" + getQueuedCount() + ", submitted=" + getSubmittedCount()
+                + ", completed=" + getCompletedCount() + ", rejected=" + getRejectedCount() + ", timeouts=" + getTimeoutCount()
+                + ", failed=" + getFailedCount() + ", bytes=" + getBytesWritten() + "]";
+    }
+
+    protected class WriteTask implements Runnable, AsyncListener {
+
+        private AsyncContext asyncContext;
+        private AsyncStreamedContent content;
+        private AtomicBoolean finished = new AtomicBoolean(false);
+        private volatile boolean writing;
+        private volatile Future<?> future;
+
+        public WriteTask(AsyncContext asyncContext, AsyncStreamedContent content) {
+            this.asyncContext = asyncContext;
+            this.content = content;
+        }
+
+        public void run() {
+            if(finished.get()) {
+                return;
+            }
+
+            InputStream inputStream = null;
+            try {
+                HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+                inputStream = content.getStream();
+                OutputStream outputStream = response.getOutputStream();
+                byte[] buffer = new byte[BUFFER_SIZE];
+
+                int read;
+                while(!finished.get() && (read = inputStream.read(buffer)) != -1) {
+                    //a timeout from now on leaves the response as it is, see onTimeout
+                    writing = true;
+                    if(finished.get()) {
+                        break;
+                    }
+
+                    outputStream.write(buffer, 0, read);
+                    bytesWritten.addAndGet(read);
+                }
+
+                if(!finished.get()) {
+                    outputStream.flush();
+                    completedCount.incrementAndGet();
+                }
+            }
+            catch(Exception e) {
+                //writes after a timeout are expected to fail
+                if(!finished.get()) {
+                    failedCount.incrementAndGet();
+                    logger.log(Level.SEVERE, "Error in streaming asynchronous dynamic resource. {0}", new Object[]{e.getMessage()});
+                    sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                }
+            }
+            finally {
+                if(inputStream != null) {
+                    try {
+                        inputStream.close();
+                    }
+                    catch(IOException e) {
+                        logger.log(Level.FINE, "Could not close dynamic content stream.", e);
+                    }
+                }
+
+                finish();
+            }
+        }
+
+        /**
+         * Stops the worker, a 503 is only sent if no content has been written yet as it would corrupt a partial response.
+         */
+        public void onTimeout(AsyncEvent event) throws IOException {
+            if(finished.compareAndSet(false, true)) {
+                timeoutCount.incrementAndGet();
+                logger.log(Level.WARNING, "Asynchronous dynamic content {0} timed out.", content.getName());
+
+                if(!writing) {
+                    sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                }
+
+                cancel();
+                complete();
+            }
+        }
+
+        public void onError(AsyncEvent event) throws IOException {
+            if(finished.compareAndSet(false, true)) {
+                cancel();
+                complete();
+            }
+        }
+
+        public void onComplete(AsyncEvent event) throws IOException {
+            finished.set(true);
+        }
+
+        public void onStartAsync(AsyncEvent event) throws IOException {
+
+        }
+
+        private void sendError(int status) {
+            HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+
+            if(!response.isCommitted()) {
+                try {
+                    response.sendError(status);
+                }
+                catch(IOException e) {
+                    logger.log(Level.FINE, "Could not send error status.", e);
+                }
+                catch(IllegalStateException e) {
+                    logger.log(Level.FINE, "Could not send error status.", e);
+                }
+            }
+        }
+
+        private void cancel() {
+            if(future != null) {
+                future.cancel(true);
+            }
+        }
+
+        private void finish() {
+            if(finished.compareAndSet(false, true)) {
+                complete();
+            }
+        }
+
+        private void complete() {
+            try {
+                asyncContext.complete();
+            }
+            catch(IllegalStateException e) {
+                //already completed by the container
+            }
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.application;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of dynamic content bytes served by PrimeResourceHandler. Entries are evicted in least recently used
+ * order once the total size of the cached bytes exceeds the limit, and dropped after their time to live.
+ * Bytes are kept on the heap or in direct buffers outside of it. Only content rendered with serverCache is cached,
+ * content of the "session" scope is keyed by the session id so users never share it.
+ */
+public class DynamicContentCache {
+
+    public final static String APPLICATION_SCOPE = "application";
+
+    public final static String SESSION_SCOPE = "session";
+
+    private long maxSize;
+    private long maxEntrySize;
+    private long ttl;
+    private boolean direct;
+    private long size;
+    private LinkedHashMap<String,Entry> entries = new LinkedHashMap<String,Entry>(16, 0.75f, true);
+
+    private AtomicLong hits = new AtomicLong();
+    private AtomicLong misses = new AtomicLong();
+    private AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxSize maximum number of cached bytes.
+     * @param ttl milliseconds an entry is served from the cache.
+     * @param direct true to keep the bytes in direct buffers.
+     */
+    public DynamicContentCache(long maxSize, long ttl, boolean direct) {
+        this(maxSize, maxSize, ttl, direct);
+    }
+
+    /**
+     * @param maxSize maximum number of cached bytes.
+     * @param maxEntrySize maximum number of bytes of a single entry.
+     * @param ttl milliseconds an entry is served from the cache.
+     * @param direct true to keep the bytes in direct buffers.
+     */
+    public DynamicContentCache(long maxSize, long maxEntrySize, long ttl, boolean direct) {
+        this.maxSize = maxSize;
+        this.maxEntrySize = Math.min(maxEntrySize, maxSize);
+        this.ttl = ttl;
+        this.direct = direct;
+    }
+
+    /**
+     * @return the cached entry or null if it is missing or expired.
+     */
+    public Entry get(String key) {
+        Entry entry;
+
+        synchronized(this) {
+            entry = entries.get(key);
+
+            if(entry != null && System.currentTimeMillis() - entry.created > ttl) {
+                entries.remove(key);
+                size -= entry.getLength();
+                entry = null;
+            }
+        }
+
+        if(entry == null)
+            misses.incrementAndGet();
+        else
+            hits.incrementAndGet();
+
+        return entry;
+    }
+
+    /**
+     * Caches the content, contents larger than an entry may be are ignored.
+     */
+    public void put(String key, byte[] bytes, int length, String contentType, String contentEncoding) {
+        store(key, bytes, length, contentType, contentEncoding);
+    }
+
+    /**
+     * Reads and caches the content if it fits into an entry. Larger content is copied to out once the entry size is
+     * exceeded, so no more than one entry is held in memory per request.
+     *
+     * @return the cached entry to be written by the caller, null if the content was copied to out.
+     */
+    public Entry put(String key, InputStream in, String contentType, String contentEncoding, OutputStream out) throws IOException {
+        int limit = (int) Math.min(maxEntrySize, Integer.MAX_VALUE - 8);
+        byte[] bytes = new byte[Math.min(8192, limit + 1)];
+        int length = 0;
+
+        int read;
+        while((read = in.read(bytes, length, bytes.length - length)) != -1) {
+            length += read;
+
+            if(length == bytes.length) {
+                if(length > limit) {
+                    out.write(bytes, 0, length);
+                    while((read = in.read(bytes)) != -1) {
+                        out.write(bytes, 0, read);
+                    }
+                    return null;
+                }
+
+                byte[] grown = new byte[(int) Math.min(bytes.length * 2L, limit + 1L)];
+                System.arraycopy(bytes, 0, grown, 0, length);
+                bytes = grown;
+            }
+        }
+
+        return store(key, bytes, length, contentType, contentEncoding);
+    }
+
+    private Entry store(String key, byte[] bytes, int length, String contentType, String contentEncoding) {
+        if(length > maxEntrySize) {
+            return null;
+        }
+
+        ByteBuffer buffer;
+        if(direct) {
+            buffer = ByteBuffer.allocateDirect(length);
+            buffer.put(bytes, 0, length);
+            buffer.flip();
+        }
+        else {
+            byte[] copy = new byte[length];
+            System.arraycopy(bytes, 0, copy, 0, length);
+            buffer = ByteBuffer.wrap(copy);
+        }
+
+        Entry entry = new Entry(buffer, contentType, contentEncoding);
+
+        synchronized(this) {
+            Entry previous = entries.put(key, entry);
+            if(previous != null) {
+                size -= previous.getLength();
+            }
+            size += length;
+
+            for(Iterator<Entry> it = entries.values().iterator(); size > maxSize && it.hasNext();) {
+                Entry eldest = it.next();
+                it.remove();
+                size -= eldest.getLength();
+                evictions.incrementAndGet();
+            }
+        }
+
+        return entry;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * @return number of cached bytes.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public long getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    public static class Entry {
+
+        private ByteBuffer buffer;
+        private String contentType;
+        private String contentEncoding;
+        private long created;
+
+        Entry(ByteBuffer buffer, String contentType, String contentEncoding) {
+            this.buffer = buffer;
+            this.contentType = contentType;
+            this.contentEncoding = contentEncoding;
+            this.created = System.currentTimeMillis();
+        }
+
+        public int getLength() {
+            return buffer.limit();
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getContentEncoding() {
+            return contentEncoding;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            //each writer gets its own position on the shared bytes
+            ByteBuffer view = buffer.duplicate();
+
+            if(view.hasArray()) {
+                out.write(view.array(), view.arrayOffset(), view.limit());
+            }
+            else {
+                WritableByteChannel channel = Channels.newChannel(out);
+                while(view.hasRemaining()) {
+                    channel.write(view);
+                }
+            }
+        }
+    }
+
+    /**
+     * The scope is encrypted along with the expression so a client can not choose it, any scope but application
+     * caches the content per session.
+     *
+     * @return id of a dynamic content cached in the given scope.
+     */
+    public static String createContentId(String expression, String scope) {
+        return (APPLICATION_SCOPE.equals(scope) ? APPLICATION_SCOPE : SESSION_SCOPE) + ":" + expression;
+    }
+
+    /**
+     * @return scope of a decrypted content id, null if its content is not cached.
+     */
+    public static String getScope(String contentId) {
+        if(contentId.startsWith(APPLICATION_SCOPE + ":"))
+            return APPLICATION_SCOPE;
+        else if(contentId.startsWith(SESSION_SCOPE + ":"))
+            return SESSION_SCOPE;
+        else
+            return null;
+    }
+
+    /**
+     * @return expression of a decrypted content id.
+     */
+    public static String getExpression(String contentId) {
+        String scope = getScope(contentId);
+
+        return (scope == null) ? contentId : contentId.substring(scope.length() + 1);
+    }
+
+    /**
+     * @param sessionId id of the session the content belongs to, null for content shared by all users.
+     * @return key of a dynamic content made of its session, its expression and the request parameters rendered from UIParameter children.
+     */
+    public static String createKey(String expression, String sessionId, Map<String,String> params, String... ignoredParams) {
+        StringBuilder builder = new StringBuilder();
+        TreeMap<String,String> sorted = new TreeMap<String,String>(params);
+
+        if(sessionId != null) {
+            builder.append(sessionId).append('\u0000');
+        }
+        builder.append(expression);
+
+        for(String ignored : ignoredParams) {
+            sorted.remove(ignored);
+        }
+
+        for(Map.Entry<String,String> param : sorted.entrySet()) {
+            builder.append('\u0000').append(param.getKey()).append('=').append(param.getValue());
+        }
+
+        return builder.toString();
+    }
+}
@@ -15,8 +15,13 @@
  */
 package org.primefaces.application;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Collections;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -27,9 +32,14 @@ import javax.faces.application.ResourceHandler;
 import javax.faces.application.ResourceHandlerWrapper;
 import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
+import org.primefaces.component.export.ExportJob;
+import org.primefaces.component.export.ExportJobManager;
 import org.primefaces.context.RequestContext;
+import org.primefaces.model.AsyncStreamedContent;
+import org.primefaces.model.FileStreamedContent;
 import org.primefaces.model.StreamedContent;
 import org.primefaces.util.Constants;
+import org.primefaces.util.StreamedContentWriter;
 import org.primefaces.util.StringEncrypter;
 
 public class PrimeResourceHandler extends ResourceHandlerWrapper {
@@ -65,21 +75,50 @@ public class PrimeResourceHandler extends ResourceHandlerWrapper {
         String library = params.get("ln");
         String dynamicContentId = (String) params.get(Constants.DYNAMIC_CONTENT_PARAM);
         String nocache = params.get(Constants.DYNAMIC_CONTENT_NOCACHE_PARAM);
+        String exportJobId = params.get(Constants.EXPORT_JOB_PARAM);
         StringEncrypter strEn = RequestContext.getCurrentInstance().getEncrypter();
         
         if(dynamicContentId != null && library != null && library.equals("primefaces")) {
-            StreamedContent streamedContent = null;
-            
             try {
-                String dynamicContentEL = strEn.decrypt(dynamicContentId);                
+                String contentId = strEn.decrypt(dynamicContentId);
+                String dynamicContentEL = (contentId == null) ? null : DynamicContentCache.getExpression(contentId);
                 ExternalContext externalContext = context.getExternalContext();
                  
-                if(dynamicContentEL != null) {
+                //only content rendered with serverCache is cached, cache="false" content never is,
+                //the scope is taken from the encrypted id so a request can not move session content to the application
+                String serverCache = (contentId == null) ? null : DynamicContentCache.getScope(contentId);
+                DynamicContentCache cache = (nocache == null && serverCache != null) ? RequestContext.getCurrentInstance().getApplicationContext().getDynamicContentCache() : null;
+                String sessionId = null;
+                String cacheKey = null;
+                DynamicContentCache.Entry cachedContent = null;
+                
+                if(cache != null && !serverCache.equals(DynamicContentCache.APPLICATION_SCOPE)) {
+                    sessionId = externalContext.getSessionId(false);
+                    if(sessionId == null || sessionId.length() == 0) {
+                        cache = null;
+                    }
+                }
+                
+                if(dynamicContentEL != null && cache != null) {
+                    cacheKey = DynamicContentCache.createKey(dynamicContentEL, sessionId, params, "ln", "v", Constants.DYNAMIC_CONTENT_PARAM);
+                    cachedContent = cache.get(cacheKey);
+                }
+                 
+                if(cachedContent != null) {
+                    externalContext.setResponseStatus(200);
+                    externalContext.setResponseContentType(cachedContent.getContentType());
+                    if(cachedContent.getContentEncoding() != null) {
+                        externalContext.setResponseHeader("Content-Encoding", cachedContent.getContentEncoding());
+                    }
+                    externalContext.setResponseContentLength(cachedContent.getLength());
+                    
+                    cachedContent.writeTo(externalContext.getResponseOutputStream());
+                }
+                else if(dynamicContentEL != null) {
                     ELContext eLContext = context.getELContext();
                     ValueExpression ve = context.getApplication().getExpressionFactory().createValueExpression(context.getELContext(), dynamicContentEL, StreamedContent.class);
-                    streamedContent = (StreamedContent) ve.getValue(eLContext);
+                    StreamedContent streamedContent = (StreamedContent) ve.getValue(eLContext);
 
-                    externalContext.setResponseStatus(200);
                     externalContext.setResponseContentType(streamedContent.getContentType());
                     
                     if(nocache != null) {
@@ -92,12 +131,18 @@ public class PrimeResourceHandler extends ResourceHandlerWrapper {
                         externalContext.setResponseHeader("Content-Encoding", streamedContent.getContentEncoding());
                     }
 
-                    byte[] buffer = new byte[2048];
+                    //slow content is written by a worker thread, this request thread is released right away
+                    AsyncContentWriter asyncWriter = (streamedContent instanceof AsyncStreamedContent) ? RequestContext.getCurrentInstance().getApplicationContext().getAsyncContentWriter() : null;
+                    if(asyncWriter != null && asyncWriter.write(externalContext, (AsyncStreamedContent) streamedContent)) {
+                        context.responseComplete();
+                        return;
+                    }
 
-                    int length;
-                    InputStream inputStream = streamedContent.getStream();
-                    while ((length = (inputStream.read(buffer))) >= 0) {
-                        externalContext.getResponseOutputStream().write(buffer, 0, length);
+                    if(cache != null && !(streamedContent instanceof FileStreamedContent)) {
+                        writeAndCache(externalContext, streamedContent, cache, cacheKey);
+                    }
+                    else {
+                        StreamedContentWriter.write(externalContext, streamedContent);
                     }
                 }
 
@@ -108,15 +153,92 @@ public class PrimeResourceHandler extends ResourceHandlerWrapper {
                 logger.log(Level.SEVERE, "Error in streaming dynamic resource. {0}", new Object[]{e.getMessage()});
                 throw new IOException(e);
             }
-            finally {
-                //cleanup
-                if(streamedContent != null) {
-                    streamedContent.getStream().close();
-                }
-            }
+        }
+        else if(exportJobId != null && library != null && library.equals("primefaces")) {
+            handleExportJobRequest(context, exportJobId, params.containsKey(Constants.EXPORT_JOB_PROGRESS_PARAM));
         }
         else {
            super.handleResourceRequest(context); 
         }
     }
+    
+    /**
+     * Caches the content while writing it, content larger than a cache entry is streamed without being cached.
+     */
+    protected void writeAndCache(ExternalContext externalContext, StreamedContent streamedContent, DynamicContentCache cache, String cacheKey) throws IOException {
+        InputStream inputStream = streamedContent.getStream();
+        
+        try {
+            externalContext.setResponseStatus(200);
+            OutputStream outputStream = externalContext.getResponseOutputStream();
+            DynamicContentCache.Entry entry = cache.put(cacheKey, inputStream, streamedContent.getContentType(), streamedContent.getContentEncoding(), outputStream);
+            
+            if(entry != null) {
+                externalContext.setResponseContentLength(entry.getLength());
+                entry.writeTo(outputStream);
+            }
+        }
+        finally {
+            inputStream.close();
+        }
+    }
+    
+    /**
+     * Responds with the progress of an asynchronous export as json or with the exported file once the job is done.
+     */
+    protected void handleExportJobRequest(FacesContext context, String exportJobId, boolean progress) throws IOException {
+        ExternalContext externalContext = context.getExternalContext();
+        ExportJobManager manager = RequestContext.getCurrentInstance().getApplicationContext().getExportJobManager();
+        ExportJob job = (manager == null) ? null : manager.getJob(exportJobId, externalContext.getSessionId(false));
+        
+        if(job == null) {
+            externalContext.responseSendError(404, "Unknown export job");
+        }
+        else if(progress) {
+            externalContext.setResponseContentType("application/json");
+            externalContext.setResponseHeader("Cache-Control", "no-cache, no-store, must-revalidate");
+            externalContext.setResponseHeader("Pragma", "no-cache");
+            
+            Writer writer = externalContext.getResponseOutputWriter();
+            writer.write("{\"status\":\"" + job.getStatus().name().toLowerCase() + "\",\"rowsWritten\":" + job.getRowsWritten() + ",\"totalRows\":" + job.getTotalRows() + "}");
+            writer.flush();
+        }
+        else {
+            File file = job.getFile();
+            
+            if(job.getStatus() != ExportJob.Status.DONE || file == null) {
+                externalContext.responseSendError(409, "Export job is " + job.getStatus().name().toLowerCase());
+            }
+            else {
+                externalContext.setResponseContentType(job.getContentType());
+                externalContext.setResponseHeader("Expires", "0");
+                externalContext.setResponseHeader("Cache-Control","must-revalidate, post-check=0, pre-check=0");
+                externalContext.setResponseHeader("Pragma", "public");
+                externalContext.setResponseHeader("Content-disposition", "attachment;filename=" + job.getFileName() + "." + job.getType().name().toLowerCase());
+                externalContext.addResponseCookie(Constants.DOWNLOAD_COOKIE, "true", Collections.<String, Object>emptyMap());
+                if(file.length() <= Integer.MAX_VALUE) {
+                    externalContext.setResponseContentLength((int) file.length());
+                }
+                
+                InputStream inputStream = new FileInputStream(file);
+                try {
+                    OutputStream outputStream = externalContext.getResponseOutputStream();
+                    byte[] buffer = new byte[8192];
+                    int length;
+                    while((length = inputStream.read(buffer)) >= 0) {
+                        outputStream.write(buffer, 0, length);
+                    }
+                }
+                finally {
+                    inputStream.close();
+                }
+                
+                //the file is served once, a failed download has to be exported again
+                manager.remove(exportJobId);
+            }
+        }
+        
+        externalContext.responseFlushBuffer();
+        context.responseComplete();
+    }
 }
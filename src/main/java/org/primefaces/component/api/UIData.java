@@ -38,6 +38,7 @@ import javax.faces.render.Renderer;
 import org.primefaces.component.column.Column;
 import org.primefaces.component.columngroup.ColumnGroup;
 import org.primefaces.component.columns.Columns;
+import org.primefaces.model.LazyDataModel;
 import org.primefaces.util.ComponentUtils;
 
 public class UIData extends javax.faces.component.UIData {
@@ -190,6 +191,25 @@ public class UIData extends javax.faces.component.UIData {
         return (int) Math.ceil(this.getRowCount() * 1d / this.getRowsToRender());
     }
     
+    /**
+     * @return false if the value is a lazy model that does not count its rows, the row count then ends one row after the
+     * loaded page as long as there are more rows.
+     */
+    public boolean isRowCountKnown() {
+        DataModel model = getDataModel();
+        
+        return !(model instanceof LazyDataModel) || ((LazyDataModel) model).isRowCountKnown();
+    }
+    
+    /**
+     * @return true if the value is a lazy model whose row count is an estimate.
+     */
+    public boolean isRowCountEstimated() {
+        DataModel model = getDataModel();
+        
+        return (model instanceof LazyDataModel) && ((LazyDataModel) model).isRowCountEstimated();
+    }
+    
     public int getRowsToRender() {
         int rows = this.getRows();
         
@@ -17,6 +17,7 @@ package org.primefaces.component.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -35,11 +36,18 @@ import javax.faces.event.AbortProcessingException;
 import javax.faces.event.FacesEvent;
 import javax.faces.event.PhaseId;;
 import org.primefaces.model.TreeNode;
+import org.primefaces.model.TreeNodeChildren;
 
 public abstract class UITree extends UIComponentBase implements NamingContainer {
     
     public final static String SEPARATOR = "_";
     
+    private final static char SEPARATOR_CHAR = '_';
+    
+    private final static int MAX_CHILD_INDEX = Integer.MAX_VALUE / 10;
+    
+    private final static String ROW_KEY_INDEX_SUFFIX = "_rowKeyIndex";
+    
     private String rowKey;
    
     private TreeNode rowNode;
@@ -148,28 +156,148 @@ public abstract class UITree extends UIComponentBase implements NamingContainer
             return this.getValue();
         }
         
-		String[] paths = rowKey.split(SEPARATOR);
-		
-		if(paths.length == 0)
-			return null;
-		
-		int childIndex = Integer.parseInt(paths[0]);
-        if(childIndex >= searchRoot.getChildren().size()) 
-            return null;
+        RowKeyIndex index = getRowKeyIndex(searchRoot);
+        TreeNode node = (index == null) ? null : index.nodes.get(rowKey);
         
-		searchRoot = searchRoot.getChildren().get(childIndex);
-
-		if(paths.length == 1) {
-			return searchRoot;
-		} 
-		else {
-			String relativeRowKey = rowKey.substring(rowKey.indexOf(SEPARATOR) + 1);
-				
-			return findTreeNode(searchRoot, relativeRowKey);
-		}
+        if(node == null) {
+            node = resolveTreeNode(searchRoot, rowKey);
+            
+            if(node != null && index != null) {
+                index.put(rowKey, node);
+            }
+        }
+        
+        return node;
 	}
+    
+    /**
+     * Walks down from searchRoot along the child indexes of the row key, reading the indexes in place.
+     */
+    protected TreeNode resolveTreeNode(TreeNode searchRoot, String rowKey) {
+        TreeNode node = searchRoot;
+        int length = rowKey.length();
+        int childIndex = 0;
+        boolean digits = false;
+        
+        for(int i = 0; i <= length; i++) {
+            char c = (i == length) ? SEPARATOR_CHAR : rowKey.charAt(i);
+            
+            if(c == SEPARATOR_CHAR) {
+                if(!digits) {
+                    return null;
+                }
+                
+                List<TreeNode> children = node.getChildren();
+                if(children == null || childIndex >= children.size()) {
+                    return null;
+                }
+                
+                node = children.get(childIndex);
+                childIndex = 0;
+                digits = false;
+            }
+            else if(c >= '0' && c <= '9' && childIndex < MAX_CHILD_INDEX) {
+                childIndex = childIndex * 10 + (c - '0');
+                digits = true;
+            }
+            else {
+                return null;
+            }
+        }
+        
+        return node;
+    }
+    
+    /**
+     * Remembers the node of a row key for the rest of the current phase.
+     */
+    protected void indexRowKey(String rowKey, TreeNode node) {
+        RowKeyIndex index = getRowKeyIndex(getValue());
+        
+        if(index != null) {
+            index.put(rowKey, node);
+        }
+    }
+    
+    /**
+     * @return row key to node index of the root kept in the FacesContext attributes for the current phase, null if
+     * changes to the tree since its row keys were updated can not be ruled out.
+     */
+    private RowKeyIndex getRowKeyIndex(TreeNode root) {
+        FacesContext context = getFacesContext();
+        String key = getClientId(context) + ROW_KEY_INDEX_SUFFIX;
+        List<TreeNode> children = (root == null) ? null : root.getChildren();
+        
+        if(root == null || root.getParent() != null || !(children instanceof TreeNodeChildren) || ((TreeNodeChildren) children).isDirty()) {
+            context.getAttributes().remove(key);
+            return null;
+        }
+        
+        //application code running between phases may replace parts of the tree without the root noticing
+        RowKeyIndex index = (RowKeyIndex) context.getAttributes().get(key);
+        if(index == null || index.root != root || index.phaseId != context.getCurrentPhaseId()) {
+            index = new RowKeyIndex(root, context.getCurrentPhaseId());
+            context.getAttributes().put(key, index);
+        }
+        
+        return index.tracked ? index : null;
+    }
+    
+    /**
+     * Drops the row key index, e.g. after listeners that may have modified the tree.
+     */
+    protected void clearRowKeyIndex() {
+        FacesContext context = getFacesContext();
+        
+        context.getAttributes().remove(getClientId(context) + ROW_KEY_INDEX_SUFFIX);
+    }
+    
+    private static class RowKeyIndex {
+        
+        private TreeNode root;
+        private PhaseId phaseId;
+        private Map<String,TreeNode> nodes = new HashMap<String,TreeNode>();
+        private boolean tracked = true;
+        
+        RowKeyIndex(TreeNode root, PhaseId phaseId) {
+            this.root = root;
+            this.phaseId = phaseId;
+        }
+        
+        /**
+         * Changes in children lists other than TreeNodeChildren are not seen by the root, such trees are not indexed.
+         */
+        void put(String rowKey, TreeNode node) {
+            List<TreeNode> children = node.getChildren();
+            
+            if(children != null && !(children instanceof TreeNodeChildren)) {
+                tracked = false;
+                nodes.clear();
+            }
+            else if(tracked) {
+                nodes.put(rowKey, node);
+            }
+        }
+    }
         
     public void buildRowKeys(TreeNode node) {
+        TreeNodeChildren.updateRowKeys(node);
+        collectPreselection(node);
+    }
+    
+    /**
+     * Assigns row keys to the nodes added, moved or removed since the keys were built, the model only marks the
+     * changed subtrees when it is modified.
+     */
+    public void updateRowKeys() {
+        TreeNode root = getValue();
+        
+        if(root != null && root.getRowKey() != null) {
+            TreeNodeChildren.updateRowKeys(root);
+        }
+    }
+    
+    private void collectPreselection(TreeNode node) {
         int childCount = node.getChildCount();
         if(childCount > 0) {
             for(int i = 0; i < childCount; i++) {
@@ -178,9 +306,7 @@ public abstract class UITree extends UIComponentBase implements NamingContainer
                     addToPreselection(childNode);
                 }
                 
-                String childRowKey = (node.getParent() == null) ? String.valueOf(i) : node.getRowKey() + "_" + i;
-                childNode.setRowKey(childRowKey);
-                buildRowKeys(childNode);
+                collectPreselection(childNode);
             }
         }
     }
@@ -268,6 +394,7 @@ public abstract class UITree extends UIComponentBase implements NamingContainer
     public void broadcast(FacesEvent event) throws AbortProcessingException {
         if(!(event instanceof WrapperEvent)) {
             super.broadcast(event);
+            clearRowKeyIndex();
             return;
         }
         
@@ -277,6 +404,7 @@ public abstract class UITree extends UIComponentBase implements NamingContainer
         setRowKey(wrapperEvent.getRowKey());
         
         originalSource.broadcast(originalEvent);
+        clearRowKeyIndex();
     }
     
     @Override
@@ -362,6 +490,10 @@ public abstract class UITree extends UIComponentBase implements NamingContainer
         
         TreeNode root = getValue();
         if(root != null) {
+            if(root.getParent() == null) {
+                TreeNodeChildren.updateRowKeys(root);
+            }
+            
             processNode(context, phaseId, root, null);
 		}
 
@@ -369,6 +501,10 @@ public abstract class UITree extends UIComponentBase implements NamingContainer
     }
     
     protected void processNode(FacesContext context, PhaseId phaseId, TreeNode treeNode, String rowKey) {
+        if(rowKey != null) {
+            indexRowKey(rowKey, treeNode);
+        }
+        
         processColumnChildren(context, phaseId, rowKey);
         
         //process child nodes if node is expanded or node itself is the root
@@ -620,6 +756,10 @@ public abstract class UITree extends UIComponentBase implements NamingContainer
     }
     
     protected boolean visitNode(VisitContext context, VisitCallback callback, TreeNode treeNode, String rowKey) {
+        if(rowKey != null) {
+            indexRowKey(rowKey, treeNode);
+        }
+        
         if(visitColumns(context, callback, rowKey)) {
             return true;
         }
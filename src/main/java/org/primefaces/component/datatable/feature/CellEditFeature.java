@@ -51,6 +51,9 @@ public class CellEditFeature implements DataTableFeature {
         
         table.setRowIndex(rowIndex);
         
+        //edited values are stale in the filter cache
+        ((FilterFeature) table.getFeature(DataTableFeatureKey.FILTER)).clearValueCache(context, table);
+        
         column.getCellEditor().getFacet("output").encodeAll(context);
     }
 
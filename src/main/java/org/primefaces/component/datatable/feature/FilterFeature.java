@@ -17,22 +17,25 @@ package org.primefaces.component.datatable.feature;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import javax.el.ELContext;
 import javax.el.ValueExpression;
 import javax.faces.FacesException;
 import org.primefaces.component.api.UIColumn;
 import javax.faces.component.UIComponent;
 import javax.faces.component.UINamingContainer;
 import javax.faces.context.FacesContext;
+import javax.faces.model.DataModel;
 import org.primefaces.component.api.DynamicColumn;
 import org.primefaces.component.column.Column;
 import org.primefaces.component.columngroup.ColumnGroup;
 import org.primefaces.component.datatable.DataTable;
 import org.primefaces.component.datatable.DataTableRenderer;
 import org.primefaces.component.row.Row;
+import org.primefaces.context.ApplicationContext;
 import org.primefaces.context.RequestContext;
+import org.primefaces.model.ColumnAccessor;
 import org.primefaces.model.filter.*;
 import org.primefaces.util.ComponentUtils;
 
@@ -45,6 +48,8 @@ public class FilterFeature implements DataTableFeature {
     private final static String CONTAINS_MATCH_MODE = "contains";
     private final static String EXACT_MATCH_MODE = "exact";
     
+    private final static String VALUE_CACHE_SUFFIX = "_filterValueCache";
+    
     final static Map<String,FilterConstraint> FILTER_CONSTRAINTS;
     
     static {
@@ -108,49 +113,36 @@ public class FilterFeature implements DataTableFeature {
         List filteredData = new ArrayList();
         boolean hasGlobalFilter = params.containsKey(globalFilterParam);
         String globalFilter = hasGlobalFilter ? params.get(globalFilterParam).toLowerCase() : null;
-        String var = table.getVar();
-        ELContext elContext = context.getELContext();
+        Object value = table.getValue();
+        Object[] rows = getRows(table, value);
+        Object source = (value instanceof DataModel) ? ((DataModel) value).getWrappedData() : value;
+        ExecutorService executor = getParallelExecutor(rows.length);
+        FilterValueCache cache = getValueCache(context, table);
+        int columnCount = filterMetadata.size();
+        String[][] columnValues = new String[columnCount][];
+        String[] filterValues = new String[columnCount];
+        FilterConstraint[] filterConstraints = new FilterConstraint[columnCount];
         
-        for(int i = 0; i < table.getRowCount(); i++) {
-            table.setRowIndex(i);
-            boolean localMatch = true;
-            boolean globalMatch = false;
-
-            for(FilterMeta filterMeta : filterMetadata) {
-                String filterParam = filterMeta.getFilterParam();
-                UIColumn column = filterMeta.getColumn();
-                ValueExpression filterByVE = filterMeta.getFilterByVE();
-                String filterParamValue = params.containsKey(filterParam) ? params.get(filterParam).toLowerCase() : null;
-                
-                /*if(column instanceof DynamicColumn) {
-                    ((DynamicColumn) column).applyStatelessModel();
-                }*/
-                
-                String columnValue = String.valueOf(filterByVE.getValue(elContext));
-                FilterConstraint filterConstraint = this.getFilterConstraint(column);
-
-                if(hasGlobalFilter && !globalMatch) {
-                    if(columnValue != null && columnValue.toLowerCase().contains(globalFilter))
-                        globalMatch = true;
-                }
-
-                if(ComponentUtils.isValueBlank(filterParamValue)) {
-                    localMatch = true;
-                }
-                else if(columnValue == null || !filterConstraint.applies(columnValue.toLowerCase(), filterParamValue)) {
-                    localMatch = false;
-                    break;
-                }
-            }
-
-            boolean matches = localMatch;
-            if(hasGlobalFilter) {
-                matches = localMatch && globalMatch;
-            }
+        for(int j = 0; j < columnCount; j++) {
+            FilterMeta filterMeta = filterMetadata.get(j);
+            String filterParam = filterMeta.getFilterParam();
+            String filterParamValue = params.containsKey(filterParam) ? params.get(filterParam).toLowerCase() : null;
 
-            if(matches) {
-                filteredData.add(table.getRowData());
-            }
+            columnValues[j] = cache.getColumnValues(context, filterMeta.getFilterByAccessor(), source, rows);
+            filterValues[j] = ComponentUtils.isValueBlank(filterParamValue) ? null : filterParamValue;
+            filterConstraints[j] = this.getFilterConstraint(filterMeta.getColumn());
+        }
+        
+        String[] fields = new String[columnCount];
+        for(int j = 0; j < columnCount; j++) {
+            fields[j] = filterMetadata.get(j).getFilterByAccessor().getField();
+        }
+        
+        FilterValueCache.FilterState currentFilter = new FilterValueCache.FilterState(fields, filterValues, filterConstraints, globalFilter);
+        BitSet matchedRows = cache.match(currentFilter, new RowMatcher(columnValues, filterValues, filterConstraints, globalFilter), rows.length, executor);
+        
+        for(int i = matchedRows.nextSetBit(0); i >= 0; i = matchedRows.nextSetBit(i + 1)) {
+            filteredData.add(rows[i]);
         }
 
         //Metadata for callback
@@ -168,6 +160,77 @@ public class FilterFeature implements DataTableFeature {
         table.setRowIndex(-1);  //reset datamodel
     }
     
+    /**
+     * Rows of the unfiltered value, read from the wrapped list directly so the row cursor of the table is not moved.
+     */
+    private Object[] getRows(DataTable table, Object value) {
+        if(value == null) {
+            return new Object[0];
+        }
+        else if(value instanceof Collection) {
+            return ((Collection) value).toArray();
+        }
+        else if(value instanceof DataModel && ((DataModel) value).getWrappedData() instanceof Collection) {
+            return ((Collection) ((DataModel) value).getWrappedData()).toArray();
+        }
+        else if(value instanceof Object[]) {
+            return (Object[]) value;
+        }
+        else {
+            List<Object> rows = new ArrayList<Object>();
+            for(int i = 0; i < table.getRowCount(); i++) {
+                table.setRowIndex(i);
+                rows.add(table.getRowData());
+            }
+            table.setRowIndex(-1);
+            
+            return rows.toArray();
+        }
+    }
+    
+    private ExecutorService getParallelExecutor(int size) {
+        RequestContext requestContext = RequestContext.getCurrentInstance();
+        
+        if(requestContext != null) {
+            ApplicationContext applicationContext = requestContext.getApplicationContext();
+            int threshold = applicationContext.getConfig().getParallelFilterThreshold();
+            
+            if(threshold > 0 && size >= threshold) {
+                return applicationContext.getParallelExecutor();
+            }
+        }
+        
+        return null;
+    }
+    
+    private FilterValueCache getValueCache(FacesContext context, DataTable table) {
+        Map<String,Object> viewMap = context.getViewRoot().getViewMap();
+        String key = table.getClientId(context) + VALUE_CACHE_SUFFIX;
+        FilterValueCache cache = (FilterValueCache) viewMap.get(key);
+        
+        if(cache == null) {
+            cache = new FilterValueCache();
+            viewMap.put(key, cache);
+        }
+        
+        return cache;
+    }
+    
+    /**
+     * Drops the cached column values, to be called when rows of the unfiltered value are reordered or edited in place.
+     */
+    public void clearValueCache(FacesContext context, DataTable table) {
+        Map<String,Object> viewMap = context.getViewRoot().getViewMap(false);
+        
+        if(viewMap != null) {
+            FilterValueCache cache = (FilterValueCache) viewMap.get(table.getClientId(context) + VALUE_CACHE_SUFFIX);
+            
+            if(cache != null) {
+                cache.clear();
+            }
+        }
+    }
+    
     public void updateFilteredValue(FacesContext context, DataTable table, List<?> value) {
         table.setSelectableDataModelWrapper(null);
         ValueExpression ve = table.getValueExpression("filteredValue");
@@ -234,7 +297,7 @@ public class FilterFeature implements DataTableFeature {
                             
                             if(filterBy != null) {
                                 String filterId = column.getClientId(context) + separator + "filter";
-                                filterMetadata.add(new FilterMeta(column, createFilterByVE(context, var, filterBy), filterId));
+                                filterMetadata.add(new FilterMeta(column, new ColumnAccessor(var, filterBy), filterId));
                             }
                         }
                     }
@@ -246,14 +309,14 @@ public class FilterFeature implements DataTableFeature {
                 if(column instanceof Column && column.getFilterBy() != null) {
                     String filterId = column.getClientId(context) + separator + "filter";
 
-                    filterMetadata.add(new FilterMeta(column, createFilterByVE(context, var, column.getFilterBy()), filterId));
+                    filterMetadata.add(new FilterMeta(column, new ColumnAccessor(var, column.getFilterBy()), filterId));
                 }
                 else if(column instanceof DynamicColumn && column.getValueExpression("filterBy") != null) {
                     DynamicColumn dynamicColumn = (DynamicColumn) column;
                     dynamicColumn.applyStatelessModel();
                     String filterId = dynamicColumn.getContainerClientId(context) + separator + "filter";
                     
-                    filterMetadata.add(new FilterMeta(column, createFilterByVE(context, var, column.getFilterBy()), filterId));
+                    filterMetadata.add(new FilterMeta(column, new ColumnAccessor(var, column.getFilterBy()), filterId));
                 }
             }
         }
@@ -288,20 +351,15 @@ public class FilterFeature implements DataTableFeature {
         return filterConstraint;
     }
     
-    private ValueExpression createFilterByVE(FacesContext context, String var, Object filterBy) {
-        ELContext elContext = context.getELContext();
-        return context.getApplication().getExpressionFactory().createValueExpression(elContext, "#{" + var + "." + filterBy + "}", Object.class);
-    }
-    
     private class FilterMeta {
         
         private UIColumn column;
-        private ValueExpression filterByVE;
+        private ColumnAccessor filterByAccessor;
         private String filterParam;
 
-        public FilterMeta(UIColumn column, ValueExpression filterByVE, String filterParam) {
+        public FilterMeta(UIColumn column, ColumnAccessor filterByAccessor, String filterParam) {
             this.column = column;
-            this.filterByVE = filterByVE;
+            this.filterByAccessor = filterByAccessor;
             this.filterParam = filterParam;
         }
 
@@ -309,8 +367,8 @@ public class FilterFeature implements DataTableFeature {
             return column;
         }
 
-        public ValueExpression getFilterByVE() {
-            return filterByVE;
+        public ColumnAccessor getFilterByAccessor() {
+            return filterByAccessor;
         }
 
         public String getFilterParam() {
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.component.datatable.feature;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import javax.faces.context.FacesContext;
+import org.primefaces.model.ColumnAccessor;
+import org.primefaces.model.filter.ContainsFilterConstraint;
+import org.primefaces.model.filter.EndsWithFilterConstraint;
+import org.primefaces.model.filter.FilterConstraint;
+import org.primefaces.model.filter.StartsWithFilterConstraint;
+
+/**
+ * Lower cased string values of the filtered columns, kept in view scope between filter requests.
+ * Values are only valid for the list instance they were read from, so a new value list or a
+ * change in its size drops them. Nothing is serialized, a restored view simply starts empty.
+ * Values are read on the request thread as row getters may not be thread safe, only matching them runs in parallel.
+ */
+class FilterValueCache implements Serializable {
+
+    private final static FilterConstraint GLOBAL_FILTER_CONSTRAINT = new ContainsFilterConstraint();
+
+    private transient Object value;
+    private transient int size;
+    private transient Map<String,String[]> columns;
+    private transient FilterState lastFilter;
+
+    /**
+     * @return cached values of the column, read from the rows once if the cache is empty or outdated.
+     */
+    public String[] getColumnValues(FacesContext context, ColumnAccessor accessor, Object value, Object[] rows) {
+        if(columns == null || this.value != value || this.size != rows.length) {
+            this.columns = new HashMap<String,String[]>();
+            this.lastFilter = null;
+            this.value = value;
+            this.size = rows.length;
+        }
+
+        String[] values = columns.get(accessor.getField());
+        if(values == null) {
+            values = readValues(context, accessor, rows);
+            columns.put(accessor.getField(), values);
+        }
+
+        return values;
+    }
+
+    public void clear() {
+        this.value = null;
+        this.columns = null;
+        this.lastFilter = null;
+    }
+
+    /**
+     * @return parameters and matching rows of the previous filter request on the same rows, null if unknown.
+     */
+    public FilterState getLastFilter() {
+        return lastFilter;
+    }
+
+    /**
+     * Matches the rows against the filter, only the matches of the previous filter are scanned again when the
+     * filter narrows it. The filter and its matches are kept as the previous filter of the next request.
+     *
+     * @return the matching rows.
+     */
+    public BitSet match(FilterState filter, RowMatcher matcher, int rowCount, ExecutorService executor) {
+        //rows not matching the previous filter cannot match a narrower one, e.g. typing "abcd" after "abc"
+        BitSet candidates = (lastFilter != null && lastFilter.isNarrowedBy(filter)) ? lastFilter.getMatches() : null;
+
+        filter.matches = matcher.match(rowCount, candidates, executor);
+        lastFilter = filter;
+
+        return filter.matches;
+    }
+
+    private String[] readValues(FacesContext context, ColumnAccessor accessor, Object[] rows) {
+        String[] values = new String[rows.length];
+
+        for(int i = 0; i < rows.length; i++) {
+            values[i] = String.valueOf(accessor.getValue(context, rows[i])).toLowerCase();
+        }
+
+        return values;
+    }
+
+    static class FilterState {
+
+        private String[] fields;
+        private String[] filterValues;
+        private FilterConstraint[] filterConstraints;
+        private String globalFilter;
+        private BitSet matches;
+
+        public FilterState(String[] fields, String[] filterValues, FilterConstraint[] filterConstraints, String globalFilter) {
+            this.fields = fields;
+            this.filterValues = filterValues;
+            this.filterConstraints = filterConstraints;
+            this.globalFilter = globalFilter;
+        }
+
+        public BitSet getMatches() {
+            return matches;
+        }
+
+        /**
+         * @return true if every row matching the given filter also matched this one, e.g. "abcd" after "abc" for contains.
+         */
+        public boolean isNarrowedBy(FilterState filter) {
+            if(!Arrays.equals(fields, filter.fields)) {
+                return false;
+            }
+
+            for(int j = 0; j < fields.length; j++) {
+                if(filterValues[j] != null && filterConstraints[j] != filter.filterConstraints[j]) {
+                    return false;
+                }
+                if(!isNarrowedBy(filterConstraints[j], filterValues[j], filter.filterValues[j])) {
+                    return false;
+                }
+            }
+
+            return isNarrowedBy(GLOBAL_FILTER_CONSTRAINT, globalFilter, filter.globalFilter);
+        }
+
+        private boolean isNarrowedBy(FilterConstraint constraint, String previous, String current) {
+            if(previous == null) {
+                return true;
+            }
+            else if(current == null) {
+                return false;
+            }
+            else if(current.equals(previous)) {
+                return true;
+            }
+            else if(constraint instanceof ContainsFilterConstraint) {
+                return current.contains(previous);
+            }
+            else if(constraint instanceof StartsWithFilterConstraint) {
+                return current.startsWith(previous);
+            }
+            else if(constraint instanceof EndsWithFilterConstraint) {
+                return current.endsWith(previous);
+            }
+            else {
+                return false;
+            }
+        }
+    }
+}
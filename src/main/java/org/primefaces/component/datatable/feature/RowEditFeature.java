@@ -37,6 +37,9 @@ public class RowEditFeature implements DataTableFeature {
         int editedRowId = Integer.parseInt(params.get(clientId + "_rowEditIndex"));
         String action = params.get(clientId + "_rowEditAction");
         table.setRowIndex(editedRowId);
+        
+        //edited values are stale in the filter cache
+        ((FilterFeature) table.getFeature(DataTableFeatureKey.FILTER)).clearValueCache(context, table);
 
         if(action.equals("cancel")) {
             for(UIColumn column : table.getColumns()) {
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.component.datatable.feature;
+
+import java.util.BitSet;
+import java.util.concurrent.ExecutorService;
+import org.primefaces.model.filter.FilterConstraint;
+import org.primefaces.util.ParallelRange;
+
+/**
+ * Matches rows by their cached lower cased column values, the values are read beforehand so matching only compares
+ * strings and can run on worker threads.
+ */
+class RowMatcher {
+    
+    private String[][] columnValues;
+    private String[] filterValues;
+    private FilterConstraint[] filterConstraints;
+    private String globalFilter;
+
+    public RowMatcher(String[][] columnValues, String[] filterValues, FilterConstraint[] filterConstraints, String globalFilter) {
+        this.columnValues = columnValues;
+        this.filterValues = filterValues;
+        this.filterConstraints = filterConstraints;
+        this.globalFilter = globalFilter;
+    }
+    
+    public boolean matches(int row) {
+        boolean globalMatch = false;
+        
+        for(int j = 0; j < columnValues.length; j++) {
+            String columnValue = columnValues[j][row];
+            
+            if(globalFilter != null && !globalMatch && columnValue.contains(globalFilter)) {
+                globalMatch = true;
+            }
+            
+            if(filterValues[j] != null && !filterConstraints[j].applies(columnValue, filterValues[j])) {
+                return false;
+            }
+        }
+        
+        return (globalFilter == null) || globalMatch;
+    }
+
+    /**
+     * @param candidates rows to match, null to match all rows.
+     * @param executor splits the rows on its threads, null to match on the calling thread.
+     * @return the matching rows.
+     */
+    public BitSet match(int rowCount, final BitSet candidates, ExecutorService executor) {
+        final boolean[] matches = new boolean[rowCount];
+        
+        ParallelRange.run(executor, rowCount, new ParallelRange.Task() {
+            public void run(int from, int to) {
+                if(candidates == null) {
+                    for(int i = from; i < to; i++) {
+                        matches[i] = matches(i);
+                    }
+                }
+                else {
+                    for(int i = candidates.nextSetBit(from); i >= 0 && i < to; i = candidates.nextSetBit(i + 1)) {
+                        matches[i] = matches(i);
+                    }
+                }
+            }
+        });
+        
+        BitSet matchedRows = new BitSet(rowCount);
+        for(int i = 0; i < rowCount; i++) {
+            if(matches[i]) {
+                matchedRows.set(i);
+            }
+        }
+        
+        return matchedRows;
+    }
+}
@@ -17,13 +17,10 @@ package org.primefaces.component.datatable.feature;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import javax.el.ELContext;
 import javax.el.MethodExpression;
-import javax.el.ValueExpression;
 import javax.faces.FacesException;
 import javax.faces.context.FacesContext;
 import javax.faces.model.ListDataModel;
@@ -31,9 +28,10 @@ import org.primefaces.component.api.DynamicColumn;
 import org.primefaces.component.api.UIColumn;
 import org.primefaces.component.datatable.DataTable;
 import org.primefaces.component.datatable.DataTableRenderer;
+import org.primefaces.context.ApplicationContext;
 import org.primefaces.context.RequestContext;
-import org.primefaces.model.BeanPropertyComparator;
-import org.primefaces.model.ChainedBeanPropertyComparator;
+import org.primefaces.model.ColumnAccessor;
+import org.primefaces.model.KeyedListSorter;
 import org.primefaces.model.SortMeta;
 import org.primefaces.model.SortOrder;
 
@@ -105,18 +103,13 @@ public class SortFeature implements DataTableFeature {
         renderer.encodeTbody(context, table, true);
     }
         
-    private ValueExpression createValueExpression(FacesContext context, String var, Object sortBy) {
-        ELContext elContext = context.getELContext();
-        return context.getApplication().getExpressionFactory().createValueExpression(elContext, "#{" + var + "." + sortBy + "}", Object.class);
-    }
-    
     public void singleSort(FacesContext context, DataTable table) {
         Object value = table.getValue();
         if(value == null)
             return;
         
         Object sortBy = table.getSortBy();        
-        ValueExpression sortByVe = createValueExpression(context, table.getVar(), sortBy);
+        ColumnAccessor accessor = new ColumnAccessor(table.getVar(), sortBy);
         SortOrder sortOrder = SortOrder.valueOf(table.getSortOrder().toUpperCase(Locale.ENGLISH));
         MethodExpression sortFunction = table.getSortFunction();
         List list = null;
@@ -128,7 +121,11 @@ public class SortFeature implements DataTableFeature {
         else
             throw new FacesException("Data type should be java.util.List or javax.faces.model.ListDataModel instance to be sortable.");
         
-        Collections.sort(list, new BeanPropertyComparator(sortByVe, table.getVar(), sortOrder, sortFunction));
+        KeyedListSorter sorter = createSorter();
+        sorter.addKey(accessor, sortOrder, sortFunction);
+        sorter.sort(context, list);
+        table.clearRowKeyIndex();
+        clearFilterValueCache(context, table);
     }
     
     public void multiSort(FacesContext context, DataTable table) {
@@ -147,16 +144,42 @@ public class SortFeature implements DataTableFeature {
         else
             throw new FacesException("Data type should be java.util.List or javax.faces.model.ListDataModel instance to be sortable.");
 
-        ChainedBeanPropertyComparator chainedComparator = new ChainedBeanPropertyComparator();
+        KeyedListSorter sorter = createSorter();
         for(SortMeta meta : sortMeta) { 
-            BeanPropertyComparator comparator = null;
             UIColumn sortColumn = meta.getColumn();
-            ValueExpression sortByVe = createValueExpression(context, table.getVar(), meta.getSortField());            
-            comparator = new BeanPropertyComparator(sortByVe, table.getVar(), meta.getSortOrder(), sortColumn.getSortFunction());
-            chainedComparator.addComparator(comparator);
+            ColumnAccessor accessor = new ColumnAccessor(table.getVar(), meta.getSortField());
+            sorter.addKey(accessor, meta.getSortOrder(), sortColumn.getSortFunction());
+        }
+        
+        sorter.sort(context, list);
+        table.clearRowKeyIndex();
+        clearFilterValueCache(context, table);
+    }
+    
+    /**
+     * Sorting the unfiltered value reorders the rows the cached filter values were read from.
+     */
+    private void clearFilterValueCache(FacesContext context, DataTable table) {
+        if(table.getFilteredValue() == null) {
+            FilterFeature filterFeature = (FilterFeature) table.getFeature(DataTableFeatureKey.FILTER);
+            filterFeature.clearValueCache(context, table);
+        }
+    }
+    
+    private KeyedListSorter createSorter() {
+        KeyedListSorter sorter = new KeyedListSorter();
+        RequestContext requestContext = RequestContext.getCurrentInstance();
+        
+        if(requestContext != null) {
+            ApplicationContext applicationContext = requestContext.getApplicationContext();
+            int threshold = applicationContext.getConfig().getParallelSortThreshold();
+            
+            if(threshold > 0) {
+                sorter.setParallelism(applicationContext.getParallelExecutor(), threshold);
+            }
         }
         
-        Collections.sort(list, chainedComparator);
+        return sorter;
     }
 
     public boolean shouldDecode(FacesContext context, DataTable table) {
@@ -15,6 +15,7 @@
  */
 package org.primefaces.component.export;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.Writer;
@@ -33,22 +34,37 @@ import org.primefaces.util.Constants;
 
 public class CSVExporter extends Exporter {
 
+    private final static int FLUSH_INTERVAL = 1000;
+    
     @Override
-	public void export(FacesContext context, DataTable table, String filename, boolean pageOnly, boolean selectionOnly, String encodingType, MethodExpression preProcessor, MethodExpression postProcessor) throws IOException {
-		ExternalContext externalContext = context.getExternalContext();
+	public void export(final FacesContext context, DataTable table, String filename, boolean pageOnly, boolean selectionOnly, String encodingType, MethodExpression preProcessor, MethodExpression postProcessor) throws IOException {
+		final ExternalContext externalContext = context.getExternalContext();
         configureResponse(externalContext, filename);
-        Writer writer = externalContext.getResponseOutputWriter();
+        final Writer writer = new BufferedWriter(externalContext.getResponseOutputWriter(), 8192);
     	
     	addColumnFacets(writer, table, ColumnType.HEADER);
+        
+        final List<ExportColumn> plan = ExportColumn.createPlan(context, table.getColumns(), table.getVar());
+        RowHandler handler = new RowHandler() {
+            
+            private int count = 0;
+            
+            public void handleRow(Object row, int rowIndex) throws IOException {
+                addRow(context, writer, plan, row);
+                
+                //push the rows written so far to the client instead of buffering the whole file
+                if(++count % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                    externalContext.responseFlushBuffer();
+                }
+            }
+        };
     	
-        if(pageOnly) {
-            exportPageOnly(context, table, writer);
-        }
-        else if(selectionOnly) {
-            exportSelectionOnly(context, table, writer);
+        if(selectionOnly && !pageOnly) {
+            streamSelection(context, table, handler);
         }
         else {
-            exportAll(context, table, writer);
+            streamRows(context, table, pageOnly, handler);
         }
         
         if(table.hasFooterColumn()) {
@@ -61,6 +77,37 @@ public class CSVExporter extends Exporter {
         externalContext.responseFlushBuffer();
 	}
     
+    protected void addRow(FacesContext context, Writer writer, List<ExportColumn> plan, Object row) throws IOException {
+        for(int i = 0; i < plan.size(); i++) {
+            if(i > 0) {
+                writer.write(',');
+            }
+            
+            writeQuoted(writer, plan.get(i).getText(context, row));
+        }
+        
+        writer.write('\n');
+    }
+    
+    /**
+     * Writes the value between double quotes, escaping the quotes inside without building an intermediate string.
+     */
+    protected static void writeQuoted(Writer writer, String value) throws IOException {
+        writer.write('"');
+        
+        int start = 0;
+        for(int i = 0; i < value.length(); i++) {
+            if(value.charAt(i) == '"') {
+                writer.write(value, start, i - start + 1);
+                writer.write('"');
+                start = i + 1;
+            }
+        }
+        writer.write(value, start, value.length() - start);
+        
+        writer.write('"');
+    }
+    
     protected void addColumnFacets(Writer writer, DataTable table, ColumnType columnType) throws IOException {
         boolean firstCellWritten = false;
         
@@ -16,11 +16,14 @@
 package org.primefaces.component.export;
 
 import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.el.ELContext;
 import javax.el.MethodExpression;
 import javax.el.ValueExpression;
 import javax.faces.FacesException;
+import javax.faces.application.Resource;
 import javax.faces.component.StateHolder;
 import javax.faces.component.UIComponent;
 import javax.faces.context.FacesContext;
@@ -28,9 +31,13 @@ import javax.faces.event.ActionEvent;
 import javax.faces.event.ActionListener;
 
 import org.primefaces.component.datatable.DataTable;
+import org.primefaces.context.RequestContext;
 import org.primefaces.expression.SearchExpressionFacade;
+import org.primefaces.util.Constants;
 
 public class DataExporter implements ActionListener, StateHolder {
+    
+    private final static Logger logger = Logger.getLogger(DataExporter.class.getName());
 
 	private ValueExpression target;
 	
@@ -48,9 +55,15 @@ public class DataExporter implements ActionListener, StateHolder {
 	
 	private MethodExpression postProcessor;
 	
+	private ValueExpression async;
+	
 	public DataExporter() {}
 
 	public DataExporter(ValueExpression target, ValueExpression type, ValueExpression fileName, ValueExpression pageOnly, ValueExpression selectionOnly, ValueExpression encoding, MethodExpression preProcessor, MethodExpression postProcessor) {
+		this(target, type, fileName, pageOnly, selectionOnly, encoding, preProcessor, postProcessor, null);
+	}
+
+	public DataExporter(ValueExpression target, ValueExpression type, ValueExpression fileName, ValueExpression pageOnly, ValueExpression selectionOnly, ValueExpression encoding, MethodExpression preProcessor, MethodExpression postProcessor, ValueExpression async) {
 		this.target = target;
 		this.type = type;
 		this.fileName = fileName;
@@ -59,6 +72,7 @@ public class DataExporter implements ActionListener, StateHolder {
 		this.preProcessor = preProcessor;
 		this.postProcessor = postProcessor;
 		this.encoding = encoding;
+		this.async = async;
 	}
 
 	public void processAction(ActionEvent event){
@@ -84,6 +98,11 @@ public class DataExporter implements ActionListener, StateHolder {
 			isSelectionOnly = selectionOnly.isLiteralText() ? Boolean.valueOf(selectionOnly.getValue(context.getELContext()).toString()) : (Boolean) selectionOnly.getValue(context.getELContext());
 		}
 		
+		boolean isAsync = false;
+		if(async != null) {
+			isAsync = async.isLiteralText() ? Boolean.valueOf(async.getValue(context.getELContext()).toString()) : (Boolean) async.getValue(context.getELContext());
+		}
+		
 		try {
 			Exporter exporter = ExporterFactory.getExporterForType(exportAs);
             
@@ -94,6 +113,20 @@ public class DataExporter implements ActionListener, StateHolder {
             }
             
 			DataTable table = (DataTable) component;
+            
+            if(isAsync && !isSelectionOnly && RequestContext.getCurrentInstance().getApplicationContext().getExportJobManager() != null) {
+                ExporterType exporterType = ExporterType.valueOf(exportAs.toUpperCase());
+                
+                ExportJob job = ExportJob.isSupported(context, table, exporterType) ? ExportJob.create(context, table, exporterType, outputFileName, isPageOnly, encodingType) : null;
+                
+                if(job != null) {
+                    submitJob(context, job);
+                    return;
+                }
+                
+                logger.log(Level.FINE, "Exporting {0} synchronously, its columns need EL or converters or its lazy model cannot be detached.", table.getClientId(context));
+            }
+            
 			exporter.export(context, table, outputFileName, isPageOnly, isSelectionOnly, encodingType, preProcessor, postProcessor);
 			
 			context.responseComplete();
@@ -103,6 +136,20 @@ public class DataExporter implements ActionListener, StateHolder {
 		}
 	}
 
+    /**
+     * Starts the export in the background, the client polls the progress and downloads the file with the returned url.
+     */
+    protected void submitJob(FacesContext context, ExportJob job) {
+        RequestContext requestContext = RequestContext.getCurrentInstance();
+        requestContext.getApplicationContext().getExportJobManager().submit(job);
+        
+        Resource resource = context.getApplication().getResourceHandler().createResource("dynamiccontent.properties", "primefaces", job.getContentType());
+        String url = resource.getRequestPath() + "&" + Constants.EXPORT_JOB_PARAM + "=" + job.getId();
+        
+        requestContext.addCallbackParam("exportJobId", job.getId());
+        requestContext.addCallbackParam("exportJobURL", context.getExternalContext().encodeResourceURL(url));
+    }
+
 	private int[] resolveExcludedColumnIndexes(Object columnsToExclude) {
         if(columnsToExclude == null || columnsToExclude.equals("")) {
             return null;
@@ -138,10 +185,11 @@ public class DataExporter implements ActionListener, StateHolder {
 		preProcessor = (MethodExpression) values[5];
 		postProcessor = (MethodExpression) values[6];
 		encoding = (ValueExpression) values[7];
+		async = (ValueExpression) values[8];
 	}
 
 	public Object saveState(FacesContext context) {
-		Object values[] = new Object[8];
+		Object values[] = new Object[9];
 
 		values[0] = target;
 		values[1] = type;
@@ -151,6 +199,7 @@ public class DataExporter implements ActionListener, StateHolder {
 		values[5] = preProcessor;
 		values[6] = postProcessor;
 		values[7] = encoding;
+		values[8] = async;
 		
 		return ((Object[]) values);
 	}
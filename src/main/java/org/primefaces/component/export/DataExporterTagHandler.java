@@ -40,6 +40,7 @@ public class DataExporterTagHandler extends TagHandler {
 	private final TagAttribute preProcessor;
 	private final TagAttribute postProcessor;
 	private final TagAttribute encoding;
+	private final TagAttribute async;
 
 	public DataExporterTagHandler(TagConfig tagConfig) {
 		super(tagConfig);
@@ -51,6 +52,7 @@ public class DataExporterTagHandler extends TagHandler {
 		this.encoding = getAttribute("encoding");
 		this.preProcessor = getAttribute("preProcessor");
 		this.postProcessor = getAttribute("postProcessor");
+		this.async = getAttribute("async");
 	}
 
 	public void apply(FaceletContext faceletContext, UIComponent parent) throws IOException, FacesException, FaceletException, ELException {
@@ -63,6 +65,7 @@ public class DataExporterTagHandler extends TagHandler {
 			ValueExpression encodingVE = null;
 			MethodExpression preProcessorME = null;
 			MethodExpression postProcessorME = null;
+			ValueExpression asyncVE = null;
 			
 			if(encoding != null) {
 				encodingVE = encoding.getValueExpression(faceletContext, Object.class);
@@ -73,6 +76,9 @@ public class DataExporterTagHandler extends TagHandler {
 			if(selectionOnly != null) {
 				selectionOnlyVE = selectionOnly.getValueExpression(faceletContext, Object.class);
 			}
+			if(async != null) {
+				asyncVE = async.getValueExpression(faceletContext, Object.class);
+			}
 			if(preProcessor != null) {
 				preProcessorME = preProcessor.getMethodExpression(faceletContext, null, new Class[]{Object.class});
 			}
@@ -81,7 +87,7 @@ public class DataExporterTagHandler extends TagHandler {
 			}
 			
 			ActionSource actionSource = (ActionSource) parent;
-			actionSource.addActionListener(new DataExporter(targetVE, typeVE, fileNameVE, pageOnlyVE, selectionOnlyVE, encodingVE, preProcessorME, postProcessorME));
+			actionSource.addActionListener(new DataExporter(targetVE, typeVE, fileNameVE, pageOnlyVE, selectionOnlyVE, encodingVE, preProcessorME, postProcessorME, asyncVE));
 		}
 	}
 
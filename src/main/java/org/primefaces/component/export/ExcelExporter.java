@@ -17,16 +17,18 @@ package org.primefaces.component.export;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Calendar;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 
 import javax.el.MethodExpression;
 import javax.faces.component.UIComponent;
 import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
-import org.apache.poi.hssf.usermodel.HSSFRichTextString;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -38,10 +40,12 @@ import org.primefaces.util.Constants;
 
 public class ExcelExporter extends Exporter {
 
+    private CellStyle dateStyle;
+    
     @Override
-	public void export(FacesContext context, DataTable table, String filename, boolean pageOnly, boolean selectionOnly, String encodingType, MethodExpression preProcessor, MethodExpression postProcessor) throws IOException {    	
-    	Workbook wb = new HSSFWorkbook();
-    	Sheet sheet = wb.createSheet();
+	public void export(final FacesContext context, DataTable table, String filename, boolean pageOnly, boolean selectionOnly, String encodingType, MethodExpression preProcessor, MethodExpression postProcessor) throws IOException {    	
+    	Workbook wb = createWorkbook();
+    	final Sheet sheet = wb.createSheet();
         
     	if(preProcessor != null) {
     		preProcessor.invoke(context.getELContext(), new Object[]{wb});
@@ -49,14 +53,19 @@ public class ExcelExporter extends Exporter {
 
         addColumnFacets(table, sheet, ColumnType.HEADER);
         
-        if(pageOnly) {
-            exportPageOnly(context, table, sheet);
-        }
-        else if(selectionOnly) {
-            exportSelectionOnly(context, table, sheet);
+        final List<ExportColumn> plan = ExportColumn.createPlan(context, table.getColumns(), table.getVar());
+        RowHandler handler = new RowHandler() {
+            
+            public void handleRow(Object row, int rowIndex) {
+                addRow(context, sheet, plan, row);
+            }
+        };
+        
+        if(selectionOnly && !pageOnly) {
+            streamSelection(context, table, handler);
         }
         else {
-            exportAll(context, table, sheet);
+            streamRows(context, table, pageOnly, handler);
         }
         
         if(table.hasFooterColumn()) {
@@ -71,6 +80,50 @@ public class ExcelExporter extends Exporter {
     	
     	writeExcelToResponse(context.getExternalContext(), wb, filename);
 	}
+    
+    protected Workbook createWorkbook() {
+        return new HSSFWorkbook();
+    }
+    
+    protected void addRow(FacesContext context, Sheet sheet, List<ExportColumn> plan, Object row) {
+        Row sheetRow = sheet.createRow(sheet.getLastRowNum() + 1);
+        
+        for(int i = 0; i < plan.size(); i++) {
+            setCellValue(sheetRow.createCell(i), plan.get(i).getTypedValue(context, row));
+        }
+    }
+    
+    /**
+     * Numbers, dates and booleans are written as typed cells so they can be used in formulas and sorted in the sheet.
+     */
+    protected void setCellValue(Cell cell, Object value) {
+        if(value instanceof Number) {
+            cell.setCellValue(((Number) value).doubleValue());
+        }
+        else if(value instanceof Date) {
+            cell.setCellValue((Date) value);
+            cell.setCellStyle(getDateStyle(cell.getSheet().getWorkbook()));
+        }
+        else if(value instanceof Calendar) {
+            cell.setCellValue((Calendar) value);
+            cell.setCellStyle(getDateStyle(cell.getSheet().getWorkbook()));
+        }
+        else if(value instanceof Boolean) {
+            cell.setCellValue((Boolean) value);
+        }
+        else {
+            cell.setCellValue(value == null ? "" : value.toString());
+        }
+    }
+    
+    protected CellStyle getDateStyle(Workbook wb) {
+        if(dateStyle == null) {
+            dateStyle = wb.createCellStyle();
+            dateStyle.setDataFormat(wb.getCreationHelper().createDataFormat().getFormat("m/d/yy h:mm"));
+        }
+        
+        return dateStyle;
+    }
 	
     @Override
     protected void exportCells(DataTable table, Object document) {
@@ -117,7 +170,7 @@ public class ExcelExporter extends Exporter {
         Cell cell = row.createCell(cellIndex);
         String value = component == null ? "" : exportValue(FacesContext.getCurrentInstance(), component);
 
-        cell.setCellValue(new HSSFRichTextString(value));
+        cell.setCellValue(value);
     }
     
     protected void addColumnValue(Row row, List<UIComponent> components) {
@@ -135,7 +188,7 @@ public class ExcelExporter extends Exporter {
             }
 		}  
         
-        cell.setCellValue(new HSSFRichTextString(builder.toString()));
+        cell.setCellValue(builder.toString());
     }
     
     protected void writeExcelToResponse(ExternalContext externalContext, Workbook generatedExcel, String filename) throws IOException {
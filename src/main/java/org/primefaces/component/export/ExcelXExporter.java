@@ -0,0 +1,61 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.component.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import javax.faces.context.ExternalContext;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.primefaces.context.RequestContext;
+import org.primefaces.util.Constants;
+
+/**
+ * Exports to xlsx with a streaming workbook, only the last rows of the configured window are kept in memory
+ * and older rows are flushed to a temp file that is copied to the response at the end.
+ */
+public class ExcelXExporter extends ExcelExporter {
+
+    @Override
+    protected Workbook createWorkbook() {
+        int rowWindow = RequestContext.getCurrentInstance().getApplicationContext().getConfig().getXlsxRowWindow();
+        SXSSFWorkbook wb = new SXSSFWorkbook(rowWindow);
+        wb.setCompressTempFiles(true);
+
+        return wb;
+    }
+
+    @Override
+    protected void writeExcelToResponse(ExternalContext externalContext, Workbook generatedExcel, String filename) throws IOException {
+    	externalContext.setResponseContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+    	externalContext.setResponseHeader("Expires", "0");
+    	externalContext.setResponseHeader("Cache-Control","must-revalidate, post-check=0, pre-check=0");
+    	externalContext.setResponseHeader("Pragma", "public");
+    	externalContext.setResponseHeader("Content-disposition", "attachment;filename="+ filename + ".xlsx");
+    	externalContext.addResponseCookie(Constants.DOWNLOAD_COOKIE, "true", Collections.<String, Object>emptyMap());
+
+        try {
+            OutputStream out = externalContext.getResponseOutputStream();
+            generatedExcel.write(out);
+            externalContext.responseFlushBuffer();
+        }
+        finally {
+            //remove the temp files of the flushed rows
+            ((SXSSFWorkbook) generatedExcel).dispose();
+        }
+    }
+}
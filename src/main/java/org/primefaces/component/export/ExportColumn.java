@@ -0,0 +1,303 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.component.export;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.el.ELContext;
+import javax.el.ValueExpression;
+import javax.faces.component.EditableValueHolder;
+import javax.faces.component.UIComponent;
+import javax.faces.component.ValueHolder;
+import javax.faces.component.html.HtmlCommandLink;
+import javax.faces.context.FacesContext;
+import javax.faces.convert.Converter;
+import org.primefaces.component.api.DynamicColumn;
+import org.primefaces.component.api.UIColumn;
+import org.primefaces.model.ColumnAccessor;
+
+/**
+ * Extraction plan of an exportable column, resolved once per export. Value expressions and converters of
+ * the cell components are looked up up front and values are read straight from the row object, without
+ * moving the row cursor of the table. Submitted values of editable components are exported as they are,
+ * like Exporter.exportValue does.
+ */
+public class ExportColumn {
+
+    private UIColumn column;
+    private List<Cell> cells;
+    private Map<Class<?>,Converter> converters = new HashMap<Class<?>,Converter>();
+
+    public ExportColumn(FacesContext context, UIColumn column, String var) {
+        this.column = column;
+        this.cells = new ArrayList<Cell>();
+
+        if(column instanceof DynamicColumn) {
+            ((DynamicColumn) column).applyStatelessModel();
+        }
+
+        for(UIComponent child : column.getChildren()) {
+            ValueExpression renderedVE = child.getValueExpression("rendered");
+            if(renderedVE == null && !child.isRendered()) {
+                continue;
+            }
+
+            cells.add(new Cell(child, renderedVE, var));
+        }
+    }
+
+    public UIColumn getColumn() {
+        return column;
+    }
+
+    /**
+     * Creates the plans of the rendered and exportable columns of the table.
+     */
+    public static List<ExportColumn> createPlan(FacesContext context, List<UIColumn> columns, String var) {
+        List<ExportColumn> plan = new ArrayList<ExportColumn>();
+
+        for(UIColumn column : columns) {
+            if(column instanceof DynamicColumn) {
+                ((DynamicColumn) column).applyStatelessModel();
+            }
+
+            if(column.isRendered() && column.isExportable()) {
+                plan.add(new ExportColumn(context, column, var));
+            }
+        }
+
+        return plan;
+    }
+
+    /**
+     * @return true if a rendered and exportable column holds an editable component, its submitted value depends on
+     * the row cursor of the table.
+     */
+    public static boolean hasEditableValueHolder(List<UIColumn> columns) {
+        for(UIColumn column : columns) {
+            if(column.isRendered() && column.isExportable()) {
+                for(UIComponent child : column.getChildren()) {
+                    if(child instanceof EditableValueHolder) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return the raw values of the rendered cell components for the row, var of the table must already point to the row.
+     */
+    public List<Object> getValues(FacesContext context, Object row) {
+        ELContext elContext = context.getELContext();
+        List<Object> values = new ArrayList<Object>(cells.size());
+
+        if(column instanceof DynamicColumn) {
+            ((DynamicColumn) column).applyStatelessModel();
+        }
+
+        for(Cell cell : cells) {
+            if(cell.renderedVE != null && !Boolean.TRUE.equals(cell.renderedVE.getValue(elContext))) {
+                continue;
+            }
+
+            String submittedValue = cell.getSubmittedValue();
+            values.add((submittedValue != null) ? submittedValue : cell.getValue(context, row));
+        }
+
+        return values;
+    }
+
+    /**
+     * @return the cells of the row converted to text and concatenated, like Exporter.exportValue does for a single component.
+     */
+    public String getText(FacesContext context, Object row) {
+        ELContext elContext = context.getELContext();
+        StringBuilder builder = new StringBuilder();
+
+        if(column instanceof DynamicColumn) {
+            ((DynamicColumn) column).applyStatelessModel();
+        }
+
+        for(Cell cell : cells) {
+            if(cell.renderedVE != null && !Boolean.TRUE.equals(cell.renderedVE.getValue(elContext))) {
+                continue;
+            }
+
+            String submittedValue = cell.getSubmittedValue();
+            if(submittedValue != null) {
+                builder.append(submittedValue);
+                continue;
+            }
+
+            Object value = cell.getValue(context, row);
+            if(value != null) {
+                builder.append(cell.plain ? value : format(context, cell, value));
+            }
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * @return the raw value when the column holds a single number, date or boolean without a converter so it can be
+     * exported as a typed cell, the text of the column otherwise.
+     */
+    public Object getTypedValue(FacesContext context, Object row) {
+        if(cells.size() == 1) {
+            Cell cell = cells.get(0);
+
+            if(!cell.plain && cell.converter == null) {
+                if(cell.renderedVE != null && !Boolean.TRUE.equals(cell.renderedVE.getValue(context.getELContext()))) {
+                    return "";
+                }
+
+                if(column instanceof DynamicColumn) {
+                    ((DynamicColumn) column).applyStatelessModel();
+                }
+
+                String submittedValue = cell.getSubmittedValue();
+                if(submittedValue != null) {
+                    return submittedValue;
+                }
+
+                Object value = cell.getValue(context, row);
+                if(value instanceof Number || value instanceof Date || value instanceof Calendar || value instanceof Boolean) {
+                    return value;
+                }
+                else {
+                    return (value == null) ? "" : format(context, cell, value);
+                }
+            }
+        }
+
+        return getText(context, row);
+    }
+
+    /**
+     * @return the accessor of a column made of a single always rendered, not editable value without a converter, such a column
+     * can be read without EL and FacesContext. Null for any other column.
+     */
+    public ColumnAccessor getDetachedAccessor() {
+        if(cells.size() == 1 && !(column instanceof DynamicColumn)) {
+            Cell cell = cells.get(0);
+
+            if(!cell.plain && !cell.editable && cell.converter == null && cell.renderedVE == null && cell.accessor != null && cell.accessor.isDirect()) {
+                return cell.accessor;
+            }
+        }
+
+        return null;
+    }
+
+    protected String format(FacesContext context, Cell cell, Object value) {
+        Converter converter = cell.converter;
+
+        if(converter == null) {
+            Class<?> valueType = value.getClass();
+            if(converters.containsKey(valueType)) {
+                converter = converters.get(valueType);
+            }
+            else {
+                converter = context.getApplication().createConverter(valueType);
+                converters.put(valueType, converter);
+            }
+        }
+
+        return (converter != null) ? converter.getAsString(context, cell.component, value) : value.toString();
+    }
+
+    protected static class Cell {
+
+        private UIComponent component;
+        private ValueExpression renderedVE;
+        private ValueExpression valueVE;
+        private ColumnAccessor accessor;
+        private Converter converter;
+        private boolean plain;
+        private boolean editable;
+
+        public Cell(UIComponent component, ValueExpression renderedVE, String var) {
+            this.component = component;
+            this.renderedVE = renderedVE;
+
+            if(component instanceof ValueHolder && !(component instanceof HtmlCommandLink)) {
+                this.editable = (component instanceof EditableValueHolder);
+                this.converter = ((ValueHolder) component).getConverter();
+                this.valueVE = component.getValueExpression("value");
+
+                if(valueVE != null) {
+                    String field = resolveField(valueVE.getExpressionString(), var);
+                    if(field != null) {
+                        this.accessor = new ColumnAccessor(var, field);
+                    }
+                }
+            }
+            else {
+                //command links, plain texts and other components are exported as before
+                this.plain = true;
+            }
+        }
+
+        public Object getValue(FacesContext context, Object row) {
+            if(plain) {
+                return Exporter.exportComponentValue(context, component);
+            }
+            else if(accessor != null && accessor.isDirect()) {
+                return accessor.getValue(context, row);
+            }
+            else if(valueVE != null) {
+                return valueVE.getValue(context.getELContext());
+            }
+            else {
+                return ((ValueHolder) component).getValue();
+            }
+        }
+
+        /**
+         * @return the submitted value of an editable component as text, null if there is none.
+         */
+        public String getSubmittedValue() {
+            if(editable) {
+                Object submittedValue = ((EditableValueHolder) component).getSubmittedValue();
+                if(submittedValue != null) {
+                    return submittedValue.toString();
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * @return "path" for an expression like #{var.path}, null for any other expression.
+         */
+        static String resolveField(String expression, String var) {
+            String prefix = "#{" + var + ".";
+
+            if(expression.startsWith(prefix) && expression.endsWith("}") && expression.indexOf('}') == expression.length() - 1) {
+                return expression.substring(prefix.length(), expression.length() - 1);
+            }
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.component.export;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.faces.FacesException;
+import javax.faces.application.Application;
+import javax.faces.context.FacesContext;
+import javax.faces.convert.Converter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.primefaces.component.api.UIColumn;
+import org.primefaces.component.datatable.DataTable;
+import org.primefaces.context.RequestContext;
+import org.primefaces.model.ColumnAccessor;
+import org.primefaces.model.LazyDataModel;
+import org.primefaces.model.SortMeta;
+import org.primefaces.model.SortOrder;
+
+/**
+ * Export of a DataTable running off the request thread into a temp file. Everything that needs the FacesContext
+ * (headers, column accessors, rows or the lazy load parameters) is captured when the job is created, so only
+ * tables whose exportable columns are plain #{var.field} values can be exported this way, see {@link #isSupported}.
+ * Values are written as the standard converters of JSF format them, see {@link #toText}.
+ * Lazy tables are loaded from a detached copy of their model, see {@link LazyDataModel#detach()}.
+ */
+public class ExportJob implements Runnable {
+
+    private final static Logger logger = Logger.getLogger(ExportJob.class.getName());
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        DONE,
+        FAILED
+    }
+
+    private String id;
+    private String sessionId;
+    private ExporterType type;
+    private String fileName;
+    private String encoding;
+    private int rowWindow;
+    private String[] headers;
+    private String[] footers;
+    private ColumnAccessor[] accessors;
+
+    //snapshot of the rows, either a copy of the current rows or the load parameters of a lazy model
+    private List<?> rows;
+    private LazyDataModel<?> lazyModel;
+    private int pageSize;
+    private String sortField;
+    private SortOrder sortOrder;
+    private List<SortMeta> multiSortMeta;
+    private HashMap<String,String> filters;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile int rowsWritten;
+    private volatile int totalRows;
+    private volatile long completedAt;
+    private volatile File file;
+    private volatile Throwable error;
+
+    /**
+     * @return the job, null if the table is lazy and its model cannot be detached for a background export.
+     */
+    public static ExportJob create(FacesContext context, DataTable table, ExporterType type, String fileName, boolean pageOnly, String encoding) {
+        LazyDataModel<?> detachedModel = null;
+
+        if(table.isLazy() && !pageOnly) {
+            detachedModel = ((LazyDataModel<?>) table.getValue()).detach();
+            if(detachedModel == null) {
+                return null;
+            }
+        }
+
+        return new ExportJob(context, table, type, fileName, pageOnly, encoding, detachedModel);
+    }
+
+    protected ExportJob(FacesContext context, DataTable table, ExporterType type, String fileName, boolean pageOnly, String encoding, LazyDataModel<?> detachedModel) {
+        this.id = UUID.randomUUID().toString();
+        this.sessionId = context.getExternalContext().getSessionId(false);
+        this.type = type;
+        this.fileName = fileName;
+        this.encoding = encoding;
+        this.rowWindow = RequestContext.getCurrentInstance().getApplicationContext().getConfig().getXlsxRowWindow();
+
+        List<ExportColumn> plan = ExportColumn.createPlan(context, table.getColumns(), table.getVar());
+        int columnCount = plan.size();
+        this.headers = new String[columnCount];
+        this.footers = table.hasFooterColumn() ? new String[columnCount] : null;
+        this.accessors = new ColumnAccessor[columnCount];
+
+        for(int i = 0; i < columnCount; i++) {
+            UIColumn column = plan.get(i).getColumn();
+            accessors[i] = plan.get(i).getDetachedAccessor();
+            headers[i] = Exporter.exportComponentValue(context, column.getFacet("header"));
+            if(footers != null) {
+                footers[i] = Exporter.exportComponentValue(context, column.getFacet("footer"));
+            }
+        }
+
+        if(detachedModel != null) {
+            //the table keeps loading pages from its own model on the request threads
+            this.lazyModel = detachedModel;
+            this.totalRows = ((LazyDataModel<?>) table.getValue()).getRowCount();
+            int fetchSize = RequestContext.getCurrentInstance().getApplicationContext().getConfig().getExportFetchSize();
+            this.pageSize = (fetchSize > 0) ? fetchSize : (table.getRows() > 0 ? table.getRows() : totalRows);
+            this.filters = new HashMap<String,String>(table.getFilters());
+
+            if(table.isMultiSort()) {
+                this.multiSortMeta = (table.getMultiSortMeta() == null) ? null : new ArrayList<SortMeta>(table.getMultiSortMeta());
+            }
+            else {
+                this.sortField = (String) table.getSortBy();
+                this.sortOrder = table.convertSortOrder();
+            }
+        }
+        else {
+            List<?> tableRows = Exporter.getRows(table, table.getValue());
+            int from = 0;
+            int to = tableRows.size();
+
+            if(pageOnly && !table.isLazy() && table.getRows() > 0) {
+                from = Math.min(table.getFirst(), to);
+                to = Math.min(from + table.getRows(), to);
+            }
+
+            this.rows = new ArrayList<Object>(tableRows.subList(from, to));
+            this.totalRows = rows.size();
+        }
+    }
+
+    /**
+     * Creates a job of rows that are already captured, the values are read from the rows with the accessors.
+     */
+    ExportJob(String sessionId, ExporterType type, String fileName, String encoding, String[] headers, String[] footers, ColumnAccessor[] accessors, List<?> rows) {
+        this.id = UUID.randomUUID().toString();
+        this.sessionId = sessionId;
+        this.type = type;
+        this.fileName = fileName;
+        this.encoding = encoding;
+        this.headers = headers;
+        this.footers = footers;
+        this.accessors = accessors;
+        this.rows = rows;
+        this.totalRows = rows.size();
+    }
+
+    /**
+     * @return true if all exportable columns of the table can be read off the request thread and the type can be written by a job.
+     * Values exported synchronously are formatted by the converter registered for their type, so tables of an application
+     * registering its own by-type converters are exported synchronously.
+     */
+    public static boolean isSupported(FacesContext context, DataTable table, ExporterType type) {
+        if(type != ExporterType.CSV && type != ExporterType.XLSX) {
+            return false;
+        }
+
+        Application application = context.getApplication();
+        for(Iterator<Class<?>> it = application.getConverterTypes(); it.hasNext();) {
+            Converter converter = application.createConverter(it.next());
+            if(converter != null && !converter.getClass().getName().startsWith("javax.faces.convert.")) {
+                return false;
+            }
+        }
+
+        for(ExportColumn column : ExportColumn.createPlan(context, table.getColumns(), table.getVar())) {
+            if(column.getDetachedAccessor() == null) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public void run() {
+        status = Status.RUNNING;
+        File tempFile = null;
+
+        try {
+            tempFile = File.createTempFile("primefaces-export", "." + type.name().toLowerCase());
+            OutputStream out = new BufferedOutputStream(new FileOutputStream(tempFile));
+
+            try {
+                if(type == ExporterType.CSV)
+                    writeCSV(out);
+                else
+                    writeXLSX(out);
+            }
+            finally {
+                out.close();
+            }
+
+            file = tempFile;
+            status = Status.DONE;
+        }
+        catch(Throwable e) {
+            logger.log(Level.SEVERE, "Export job " + id + " failed.", e);
+            error = e;
+            status = Status.FAILED;
+
+            if(tempFile != null) {
+                tempFile.delete();
+            }
+        }
+        finally {
+            completedAt = System.currentTimeMillis();
+        }
+    }
+
+    protected void writeCSV(OutputStream out) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, encoding));
+
+        writeCSVLine(writer, headers);
+        forEachRow(new RowWriter() {
+            public void write(Object[] values) throws IOException {
+                String[] texts = new String[values.length];
+                for(int i = 0; i < values.length; i++) {
+                    texts[i] = toText(values[i]);
+                }
+                writeCSVLine(writer, texts);
+            }
+        });
+        if(footers != null) {
+            writeCSVLine(writer, footers);
+        }
+
+        writer.flush();
+    }
+
+    private void writeCSVLine(Writer writer, String[] values) throws IOException {
+        for(int i = 0; i < values.length; i++) {
+            if(i > 0) {
+                writer.write(',');
+            }
+            CSVExporter.writeQuoted(writer, values[i]);
+        }
+        writer.write('\n');
+    }
+
+    protected void writeXLSX(OutputStream out) throws IOException {
+        SXSSFWorkbook wb = new SXSSFWorkbook(rowWindow);
+        wb.setCompressTempFiles(true);
+        final ExcelExporter cells = new ExcelXExporter();
+        final Sheet sheet = wb.createSheet();
+
+        try {
+            writeXLSXRow(cells, sheet.createRow(0), headers);
+            forEachRow(new RowWriter() {
+                public void write(Object[] values) {
+                    writeXLSXRow(cells, sheet.createRow(sheet.getLastRowNum() + 1), values);
+                }
+            });
+            if(footers != null) {
+                writeXLSXRow(cells, sheet.createRow(sheet.getLastRowNum() + 1), footers);
+            }
+
+            wb.write(out);
+        }
+        finally {
+            wb.dispose();
+        }
+    }
+
+    private void writeXLSXRow(ExcelExporter cells, Row row, Object[] values) {
+        for(int i = 0; i < values.length; i++) {
+            cells.setCellValue(row.createCell(i), (values[i] instanceof Enum) ? toText(values[i]) : values[i]);
+        }
+    }
+
+    /**
+     * @return the value as the standard by-type converters format it, they use toString() except EnumConverter writing the name.
+     */
+    static String toText(Object value) {
+        if(value == null) {
+            return "";
+        }
+        else if(value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        else {
+            return value.toString();
+        }
+    }
+
+    protected void forEachRow(final RowWriter writer) throws IOException {
+        if(lazyModel == null) {
+            for(Object row : rows) {
+                writeRow(writer, row);
+            }
+        }
+        else {
+            Exporter.streamLazyModel(lazyModel, totalRows, pageSize, sortField, sortOrder, multiSortMeta, filters, new Exporter.RowHandler() {
+                
+                public void handleRow(Object row, int rowIndex) throws IOException {
+                    writeRow(writer, row);
+                }
+            });
+        }
+    }
+
+    private void writeRow(RowWriter writer, Object row) throws IOException {
+        Object[] values = new Object[accessors.length];
+
+        for(int i = 0; i < accessors.length; i++) {
+            values[i] = accessors[i].getDirectValue(row);
+            if(values[i] == ColumnAccessor.UNRESOLVED) {
+                throw new FacesException("Cannot read \"" + accessors[i].getField() + "\" of " + row.getClass().getName() + " without EL.");
+            }
+        }
+
+        writer.write(values);
+        rowsWritten++;
+    }
+
+    /**
+     * Deletes the exported file, the job cannot be downloaded anymore.
+     */
+    public void dispose() {
+        File exported = file;
+        file = null;
+
+        if(exported != null) {
+            exported.delete();
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public ExporterType getType() {
+        return type;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public int getTotalRows() {
+        return totalRows;
+    }
+
+    /**
+     * @return time the job finished or failed, 0 while it is queued or running.
+     */
+    public long getCompletedAt() {
+        return completedAt;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public String getContentType() {
+        return (type == ExporterType.CSV) ? "text/csv" : "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    }
+
+    protected interface RowWriter {
+
+        public void write(Object[] values) throws IOException;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.component.export;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.faces.FacesException;
+import org.primefaces.util.DaemonThreadFactory;
+
+/**
+ * Runs export jobs on a bounded pool and keeps them until they are downloaded or their time to live has passed.
+ */
+public class ExportJobManager {
+
+    private final static int QUEUE_SIZE_PER_THREAD = 10;
+
+    private ThreadPoolExecutor executor;
+    private ConcurrentMap<String,ExportJob> jobs = new ConcurrentHashMap<String,ExportJob>();
+    private long ttl;
+
+    /**
+     * @param threads maximum number of exports running at the same time.
+     * @param ttl milliseconds a finished job is kept.
+     */
+    public ExportJobManager(int threads, long ttl) {
+        this.ttl = ttl;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(threads * QUEUE_SIZE_PER_THREAD), new DaemonThreadFactory("primefaces-export"));
+    }
+
+    public void submit(ExportJob job) {
+        purgeExpired();
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(job);
+        }
+        catch(RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new FacesException("Too many export jobs are pending, try again later.", e);
+        }
+    }
+
+    /**
+     * @return the job or null if it is unknown or expired.
+     */
+    public ExportJob getJob(String id) {
+        purgeExpired();
+
+        return jobs.get(id);
+    }
+
+    /**
+     * @return the job or null if it is unknown, expired or was started in another session.
+     */
+    public ExportJob getJob(String id, String sessionId) {
+        ExportJob job = getJob(id);
+
+        if(job == null || (job.getSessionId() != null && !job.getSessionId().equals(sessionId))) {
+            return null;
+        }
+
+        return job;
+    }
+
+    /**
+     * Drops the job and its file, called once the file has been downloaded.
+     */
+    public void remove(String id) {
+        ExportJob job = jobs.remove(id);
+        if(job != null) {
+            job.dispose();
+        }
+    }
+
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+
+        for(Iterator<ExportJob> it = jobs.values().iterator(); it.hasNext();) {
+            ExportJob job = it.next();
+            long completedAt = job.getCompletedAt();
+
+            if(completedAt > 0 && now - completedAt > ttl) {
+                it.remove();
+                job.dispose();
+            }
+        }
+    }
+
+    /**
+     * Stops the running jobs and deletes all exported files, called when the application is shut down.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+
+        for(ExportJob job : jobs.values()) {
+            job.dispose();
+        }
+        jobs.clear();
+    }
+}
@@ -15,13 +15,22 @@
  */
 package org.primefaces.component.export;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.el.MethodExpression;
+import javax.faces.FacesException;
 import javax.faces.component.EditableValueHolder;
 import javax.faces.component.UIColumn;
 import javax.faces.component.UIComponent;
@@ -30,10 +39,20 @@ import javax.faces.component.ValueHolder;
 import javax.faces.component.html.HtmlCommandLink;
 import javax.faces.context.FacesContext;
 import javax.faces.convert.Converter;
+import javax.faces.model.DataModel;
 
 import org.primefaces.component.datatable.DataTable;
+import org.primefaces.context.RequestContext;
+import org.primefaces.model.KeysetCursor;
+import org.primefaces.model.LazyDataModel;
+import org.primefaces.model.SortMeta;
+import org.primefaces.model.SortOrder;
 
 public abstract class Exporter {
+    
+    private final static Logger logger = Logger.getLogger(Exporter.class.getName());
+    
+    private int lazyLoadCount;
 	    
 	protected enum ColumnType{
 		HEADER("header"),
@@ -85,6 +104,10 @@ public abstract class Exporter {
     }
 
     protected String exportValue(FacesContext context, UIComponent component) {
+        return exportComponentValue(context, component);
+    }
+    
+    static String exportComponentValue(FacesContext context, UIComponent component) {
 
         if(component instanceof HtmlCommandLink) {  //support for PrimeFaces and standard HtmlCommandLink
             HtmlCommandLink link = (HtmlCommandLink) component;
@@ -97,7 +120,7 @@ public abstract class Exporter {
                 //export first value holder
                 for(UIComponent child : link.getChildren()) {
                     if(child instanceof ValueHolder) {
-                        return exportValue(context, child);
+                        return exportComponentValue(context, child);
                     }
                 }
 
@@ -151,27 +174,26 @@ public abstract class Exporter {
         }
     }
     
-    protected void exportAll(FacesContext context, DataTable table, Object document) {
+    protected void exportAll(FacesContext context, final DataTable table, final Object document) {
         int first = table.getFirst();
     	int rowCount = table.getRowCount();
-        int rows = table.getRows();
         boolean lazy = table.isLazy();
         
         if(lazy) {
-            for(int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
-                if(rowIndex % rows == 0) {
-                    table.setFirst(rowIndex);
-                    table.setRowIndex(-1);
-                    table.loadLazyData();
-                }
-
-                exportRow(table, document, rowIndex);
+            //rows are fetched in batches of the export fetch size, the current page of the table stays loaded
+            try {
+                streamRows(context, table, false, new RowHandler() {
+                    
+                    public void handleRow(Object row, int rowIndex) {
+                        preRowExport(table, document);
+                        exportCells(table, document);
+                        postRowExport(table, document);
+                    }
+                });
+            }
+            catch(IOException e) {
+                throw new FacesException(e);
             }
-     
-            //restore
-            table.setFirst(first);
-            table.setRowIndex(-1);
-            table.loadLazyData();
         } 
         else {
             for(int rowIndex = 0; rowIndex < rowCount; rowIndex++) {                
@@ -224,6 +246,266 @@ public abstract class Exporter {
         }
     }
     
+    /**
+     * Passes the rows to export to the handler straight from the value of the table without moving its row cursor,
+     * unless a column holds an editable component, var and rowIndexVar point to the current row while the handler runs. Lazy models are loaded page by page
+     * so only one page is held in memory at a time.
+     */
+    protected void streamRows(FacesContext context, DataTable table, boolean pageOnly, RowHandler handler) throws IOException {
+        Map<String,Object> requestMap = context.getExternalContext().getRequestMap();
+        String var = table.getVar();
+        String rowIndexVar = table.getRowIndexVar();
+        Object oldVar = requestMap.get(var);
+        Object oldRowIndexVar = (rowIndexVar == null) ? null : requestMap.get(rowIndexVar);
+        
+        try {
+            if(table.isLazy() && !pageOnly) {
+                streamLazyRows(context, table, handler, requestMap, var, rowIndexVar);
+            }
+            else {
+                Object value = table.getValue();
+                List<?> rows = getRows(table, value);
+                int from = 0;
+                int to = rows.size();
+                
+                if(pageOnly && !table.isLazy() && table.getRows() > 0) {
+                    from = Math.min(table.getFirst(), to);
+                    to = Math.min(from + table.getRows(), to);
+                }
+                
+                //editable components keep their submitted values per row, they are only restored by moving the row cursor
+                boolean moveRowCursor = ExportColumn.hasEditableValueHolder(table.getColumns());
+                
+                for(int i = from; i < to; i++) {
+                    if(moveRowCursor) {
+                        table.setRowIndex(i);
+                    }
+                    handleRow(handler, requestMap, var, rowIndexVar, rows.get(i), i);
+                }
+                
+                if(moveRowCursor) {
+                    table.setRowIndex(-1);
+                }
+            }
+        }
+        finally {
+            restoreVar(requestMap, var, oldVar);
+            if(rowIndexVar != null) {
+                restoreVar(requestMap, rowIndexVar, oldRowIndexVar);
+            }
+        }
+    }
+    
+    /**
+     * Passes the selected rows of the table to the handler, var points to the current row while the handler runs.
+     */
+    protected void streamSelection(FacesContext context, DataTable table, RowHandler handler) throws IOException {
+        Map<String,Object> requestMap = context.getExternalContext().getRequestMap();
+        String var = table.getVar();
+        Object oldVar = requestMap.get(var);
+        List<?> selection = getSelectedRows(table);
+        
+        try {
+            for(int i = 0; i < selection.size(); i++) {
+                requestMap.put(var, selection.get(i));
+                handler.handleRow(selection.get(i), i);
+            }
+        }
+        finally {
+            restoreVar(requestMap, var, oldVar);
+        }
+    }
+    
+    protected void streamLazyRows(FacesContext context, DataTable table, final RowHandler handler, final Map<String,Object> requestMap, final String var, final String rowIndexVar) throws IOException {
+        LazyDataModel<?> lazyModel = (LazyDataModel<?>) table.getValue();
+        int rowCount = lazyModel.getRowCount();
+        boolean rowCountKnown = lazyModel.isRowCountKnown();
+        Future<Integer> exactRowCount = lazyModel.getExactRowCount();
+        boolean hasMoreRows = lazyModel.isHasMoreRows();
+        int fetchSize = RequestContext.getCurrentInstance().getApplicationContext().getConfig().getExportFetchSize();
+        if(fetchSize <= 0) {
+            fetchSize = table.getRows() > 0 ? table.getRows() : rowCount;
+        }
+        
+        String sortField = null;
+        SortOrder sortOrder = null;
+        List<SortMeta> multiSortMeta = null;
+        if(table.isMultiSort()) {
+            multiSortMeta = table.getMultiSortMeta();
+        }
+        else {
+            sortField = (String) table.getSortBy();
+            sortOrder = table.convertSortOrder();
+        }
+        
+        try {
+            lazyLoadCount = streamLazyModel(lazyModel, rowCount, fetchSize, sortField, sortOrder, multiSortMeta, table.getFilters(), new RowHandler() {
+                
+                public void handleRow(Object row, int rowIndex) throws IOException {
+                    Exporter.this.handleRow(handler, requestMap, var, rowIndexVar, row, rowIndex);
+                }
+            });
+            
+            logger.log(Level.FINE, "Exported {0} with {1} lazy load call(s).", new Object[]{table.getClientId(context), lazyLoadCount});
+        }
+        finally {
+            //the current page in the model is untouched, only the row count a load may have set is restored
+            if(exactRowCount != null) {
+                lazyModel.setRowCount(rowCount, exactRowCount);
+            }
+            else {
+                lazyModel.setRowCount(rowCountKnown ? rowCount : LazyDataModel.UNKNOWN_ROW_COUNT);
+            }
+            lazyModel.setHasMoreRows(hasMoreRows);
+            table.setRowIndex(-1);
+        }
+    }
+    
+    /**
+     * Reads all rows of a lazy model without changing its current page, through its iterate callback if implemented
+     * or with load calls of fetchSize rows otherwise. A model without a row count is read until a short chunk.
+     * An iterator implementing Closeable is closed once the rows are read.
+     * @return number of backend calls.
+     */
+    static int streamLazyModel(LazyDataModel<?> lazyModel, int rowCount, int fetchSize, String sortField, SortOrder sortOrder, List<SortMeta> multiSortMeta, Map<String,String> filters, RowHandler handler) throws IOException {
+        Iterator<?> iterator = (multiSortMeta != null) ? lazyModel.iterate(multiSortMeta, filters) : lazyModel.iterate(sortField, sortOrder, filters);
+        
+        if(iterator != null) {
+            try {
+                for(int rowIndex = 0; iterator.hasNext(); rowIndex++) {
+                    handler.handleRow(iterator.next(), rowIndex);
+                }
+            }
+            finally {
+                //releases e.g. the database cursor behind the iterator
+                if(iterator instanceof Closeable) {
+                    ((Closeable) iterator).close();
+                }
+            }
+            
+            return 1;
+        }
+        
+        if(fetchSize <= 0) {
+            return 0;
+        }
+        
+        List<String> sortFields = new ArrayList<String>();
+        if(multiSortMeta != null) {
+            for(SortMeta sortMeta : multiSortMeta) {
+                sortFields.add(sortMeta.getSortField());
+            }
+        }
+        else if(sortField != null) {
+            sortFields.add(sortField);
+        }
+        
+        int calls = 0;
+        KeysetCursor cursor = KeysetCursor.NONE;
+        for(int offset = 0; !lazyModel.isRowCountKnown() || offset < rowCount; offset += fetchSize) {
+            //each chunk seeks from the last row of the previous one when the model supports it
+            List page = (multiSortMeta != null) ? lazyModel.loadPage(offset, fetchSize, multiSortMeta, filters, cursor) : lazyModel.loadPage(offset, fetchSize, sortField, sortOrder, filters, cursor);
+            calls++;
+            
+            if(page == null || page.isEmpty()) {
+                break;
+            }
+            
+            for(int i = 0; i < page.size(); i++) {
+                handler.handleRow(page.get(i), offset + i);
+            }
+            
+            if(!lazyModel.isRowCountKnown() && page.size() < fetchSize) {
+                break;
+            }
+            
+            cursor = KeysetCursor.next((LazyDataModel) lazyModel, page.get(page.size() - 1), sortFields);
+        }
+        
+        return calls;
+    }
+    
+    /**
+     * @return number of load calls the last streamed lazy export made to the model.
+     */
+    public int getLazyLoadCount() {
+        return lazyLoadCount;
+    }
+    
+    private void handleRow(RowHandler handler, Map<String,Object> requestMap, String var, String rowIndexVar, Object row, int rowIndex) throws IOException {
+        requestMap.put(var, row);
+        if(rowIndexVar != null) {
+            requestMap.put(rowIndexVar, rowIndex);
+        }
+        
+        handler.handleRow(row, rowIndex);
+    }
+    
+    private void restoreVar(Map<String,Object> requestMap, String name, Object value) {
+        if(value == null)
+            requestMap.remove(name);
+        else
+            requestMap.put(name, value);
+    }
+    
+    protected static List<?> getRows(DataTable table, Object value) {
+        if(value == null) {
+            return Collections.emptyList();
+        }
+        else if(value instanceof List) {
+            return (List<?>) value;
+        }
+        else if(value instanceof DataModel && ((DataModel) value).getWrappedData() instanceof List) {
+            return (List<?>) ((DataModel) value).getWrappedData();
+        }
+        else if(value instanceof Collection) {
+            return new ArrayList<Object>((Collection<?>) value);
+        }
+        else if(value instanceof Object[]) {
+            return Arrays.asList((Object[]) value);
+        }
+        else {
+            List<Object> rows = new ArrayList<Object>();
+            for(int i = 0; i < table.getRowCount(); i++) {
+                table.setRowIndex(i);
+                rows.add(table.getRowData());
+            }
+            table.setRowIndex(-1);
+            
+            return rows;
+        }
+    }
+    
+    /**
+     * @return the selected rows of the table as a list.
+     */
+    protected List<?> getSelectedRows(DataTable table) {
+        Object selection = table.getSelection();
+        
+        if(selection == null) {
+            return Collections.emptyList();
+        }
+        else if(selection.getClass().isArray()) {
+            List<Object> rows = new ArrayList<Object>();
+            for(int i = 0; i < Array.getLength(selection); i++) {
+                rows.add(Array.get(selection, i));
+            }
+            
+            return rows;
+        }
+        else if(selection instanceof List) {
+            return (List<?>) selection;
+        }
+        else {
+            return Collections.singletonList(selection);
+        }
+    }
+    
+    protected interface RowHandler {
+        
+        public void handleRow(Object row, int rowIndex) throws IOException;
+    }
+    
     protected void preRowExport(DataTable table, Object document) {}
     
     protected void postRowExport(DataTable table, Object document) {}
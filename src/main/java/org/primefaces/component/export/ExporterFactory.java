@@ -30,6 +30,10 @@ public class ExporterFactory {
                     exporter = new ExcelExporter();
                 break;
                 
+                case XLSX:
+                    exporter = new ExcelXExporter();
+                break;
+                
                 case PDF:
                     exporter = new PDFExporter();
                 break; 
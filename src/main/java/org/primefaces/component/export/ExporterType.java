@@ -17,6 +17,7 @@ package org.primefaces.component.export;
 
 public enum ExporterType {
     XLS,
+    XLSX,
     PDF,
     CSV,
     XML
@@ -20,6 +20,8 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.el.MethodExpression;
 import javax.faces.component.UIComponent;
@@ -39,15 +41,26 @@ import org.primefaces.component.api.DynamicColumn;
 import org.primefaces.component.api.UIColumn;
 import org.primefaces.component.column.Column;
 import org.primefaces.component.columns.Columns;
+import org.primefaces.context.RequestContext;
 import org.primefaces.util.Constants;
 
 public class PDFExporter extends Exporter {
     
+    private final static int CHUNK_SIZE = 500;
+    
+    //never handed out, exports work on copies
+    private final static ConcurrentMap<String,Font> FONT_TEMPLATES = new ConcurrentHashMap<String,Font>();
+    
     private Font cellFont;
     private Font facetFont;
        
 	@Override
 	public void export(FacesContext context, DataTable table, String filename, boolean pageOnly, boolean selectionOnly, String encodingType, MethodExpression preProcessor, MethodExpression postProcessor) throws IOException { 
+        if(RequestContext.getCurrentInstance().getApplicationContext().getConfig().isPdfExportStreaming()) {
+            exportStreaming(context, table, filename, pageOnly, selectionOnly, encodingType, preProcessor, postProcessor);
+            return;
+        }
+        
 		try {
 	        Document document = new Document();
 	        ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -75,12 +88,124 @@ public class PDFExporter extends Exporter {
 			throw new IOException(e.getMessage());
 		}
 	}
+    
+    /**
+     * Writes the document straight to the response, the table is added to the document in chunks of rows
+     * so completed rows are laid out and released while the export goes on. The header row is repeated on each page.
+     */
+    protected void exportStreaming(final FacesContext context, DataTable table, String filename, boolean pageOnly, boolean selectionOnly, String encodingType, MethodExpression preProcessor, MethodExpression postProcessor) throws IOException {
+        final ExternalContext externalContext = context.getExternalContext();
+        configureResponse(externalContext, filename);
+        
+        try {
+            final Document document = new Document();
+            PdfWriter.getInstance(document, externalContext.getResponseOutputStream());
+            
+            if(preProcessor != null) {
+	    		preProcessor.invoke(context.getELContext(), new Object[]{document});
+	    	}
+
+            if(!document.isOpen()) {
+                document.open();
+            }
+            
+            this.cellFont = getFont(encodingType, Font.NORMAL);
+            this.facetFont = getFont(encodingType, Font.BOLD);
+            
+            final PdfPTable pdfTable = createStreamingTable(getColumnsCount(table));
+            addColumnFacets(table, pdfTable, ColumnType.HEADER);
+            
+            final List<ExportColumn> plan = ExportColumn.createPlan(context, table.getColumns(), table.getVar());
+            RowHandler handler = new RowHandler() {
+                
+                public void handleRow(Object row, int rowIndex) throws IOException {
+                    for(ExportColumn column : plan) {
+                        pdfTable.addCell(new Paragraph(column.getText(context, row), cellFont));
+                    }
+                    
+                    if(flushChunk(document, pdfTable)) {
+                        externalContext.responseFlushBuffer();
+                    }
+                }
+            };
+            
+            if(selectionOnly && !pageOnly) {
+                streamSelection(context, table, handler);
+            }
+            else {
+                streamRows(context, table, pageOnly, handler);
+            }
+            
+            if(table.hasFooterColumn()) {
+                addColumnFacets(table, pdfTable, ColumnType.FOOTER);
+            }
+            
+            pdfTable.setComplete(true);
+            document.add(pdfTable);
+            
+            if(postProcessor != null) {
+	    		postProcessor.invoke(context.getELContext(), new Object[]{document});
+	    	}
+            
+            document.close();
+            externalContext.responseFlushBuffer();
+        }
+        catch(DocumentException e) {
+			throw new IOException(e.getMessage());
+		}
+    }
+    
+    /**
+     * @return a table that is added to the document in chunks, its first row is the header repeated on each page.
+     */
+    protected PdfPTable createStreamingTable(int columnsCount) {
+        PdfPTable pdfTable = new PdfPTable(columnsCount);
+        pdfTable.setComplete(false);
+        pdfTable.setHeaderRows(1);
+        
+        return pdfTable;
+    }
+    
+    /**
+     * Lays out the pending rows once they fill a chunk, the document releases them and keeps the header row.
+     * @return true if a chunk was added to the document.
+     */
+    protected boolean flushChunk(Document document, PdfPTable pdfTable) throws IOException {
+        if(pdfTable.size() - pdfTable.getHeaderRows() < CHUNK_SIZE) {
+            return false;
+        }
+        
+        try {
+            document.add(pdfTable);
+        }
+        catch(DocumentException e) {
+            throw new IOException(e.getMessage());
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Fonts are looked up once per encoding and style, every export gets its own copy so a preProcessor or subclass
+     * changing the color or style of a font does not affect other exports.
+     */
+    protected Font getFont(String encoding, int style) {
+        String key = encoding + ":" + style;
+        Font font = FONT_TEMPLATES.get(key);
+        
+        if(font == null) {
+            font = FontFactory.getFont(FontFactory.TIMES, encoding, Font.DEFAULTSIZE, style);
+            FONT_TEMPLATES.putIfAbsent(key, font);
+        }
+        
+        return new Font(font);
+    }
 	
 	protected PdfPTable exportPDFTable(FacesContext context, DataTable table, boolean pageOnly, boolean selectionOnly, String encoding) {
     	int columnsCount = getColumnsCount(table);
     	PdfPTable pdfTable = new PdfPTable(columnsCount);
-    	this.cellFont = FontFactory.getFont(FontFactory.TIMES, encoding);
-    	this.facetFont = FontFactory.getFont(FontFactory.TIMES, encoding, Font.DEFAULTSIZE, Font.BOLD);
+    	this.cellFont = getFont(encoding, Font.NORMAL);
+    	this.facetFont = getFont(encoding, Font.BOLD);
     	
     	addColumnFacets(table, pdfTable, ColumnType.HEADER);
         
@@ -160,16 +285,20 @@ public class PDFExporter extends Exporter {
     }
     
     protected void writePDFToResponse(ExternalContext externalContext, ByteArrayOutputStream baos, String fileName) throws IOException, DocumentException {     
+    	configureResponse(externalContext, fileName);
+    	externalContext.setResponseContentLength(baos.size());
+    	OutputStream out = externalContext.getResponseOutputStream();
+        baos.writeTo(out);
+        externalContext.responseFlushBuffer();
+    }
+    
+    protected void configureResponse(ExternalContext externalContext, String fileName) {
     	externalContext.setResponseContentType("application/pdf");
     	externalContext.setResponseHeader("Expires", "0");
     	externalContext.setResponseHeader("Cache-Control","must-revalidate, post-check=0, pre-check=0");
     	externalContext.setResponseHeader("Pragma", "public");
     	externalContext.setResponseHeader("Content-disposition", "attachment;filename="+ fileName + ".pdf");
-    	externalContext.setResponseContentLength(baos.size());
     	externalContext.addResponseCookie(Constants.DOWNLOAD_COOKIE, "true", Collections.<String, Object>emptyMap());
-    	OutputStream out = externalContext.getResponseOutputStream();
-        baos.writeTo(out);
-        externalContext.responseFlushBuffer();
     }
     
     protected int getColumnsCount(DataTable table) {
@@ -16,8 +16,6 @@
 package org.primefaces.component.filedownload;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.util.Collections;
 
 import javax.el.ELContext;
@@ -33,6 +31,7 @@ import org.primefaces.context.RequestContext;
 
 import org.primefaces.model.StreamedContent;
 import org.primefaces.util.Constants;
+import org.primefaces.util.StreamedContentWriter;
 
 public class FileDownloadActionListener implements ActionListener, StateHolder {
 
@@ -69,18 +68,8 @@ public class FileDownloadActionListener implements ActionListener, StateHolder {
                 externalContext.setResponseHeader("Pragma", "public");
             }
             
-			byte[] buffer = new byte[2048];
-			int length;
-            InputStream inputStream = content.getStream();
-            OutputStream outputStream = externalContext.getResponseOutputStream();
-            
-			while ((length = (inputStream.read(buffer))) != -1) {
-				outputStream.write(buffer, 0, length);
-			}
-			
-			externalContext.setResponseStatus(200);
+			StreamedContentWriter.write(externalContext, content);
 			externalContext.responseFlushBuffer();
-            inputStream.close();
 			facesContext.responseComplete();
 		}
         catch(IOException e) {
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.component.fileupload;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.faces.FacesException;
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+import javax.servlet.http.HttpServletRequest;
+import org.primefaces.config.ConfigContainer;
+import org.primefaces.context.RequestContext;
+import org.primefaces.model.StreamingUploadedFile;
+import org.primefaces.model.UploadedFile;
+import org.primefaces.webapp.UploadLimit;
+
+/**
+ * Assembles files uploaded in chunks. Each request carries a Content-Range header and the X-Upload-Id of the file, the
+ * chunk is written at its offset to a temporary file of the upload and the upload is complete once the file reaches
+ * the total size of the range. The received offset of an upload can be queried to resume it after a failure.
+ */
+public class ChunkedUpload {
+
+    private final static Logger logger = Logger.getLogger(ChunkedUpload.class.getName());
+
+    public final static String UPLOAD_ID_HEADER = "X-Upload-Id";
+
+    public final static String CONTENT_RANGE_HEADER = "Content-Range";
+
+    public final static String OFFSET_PARAM = "_uploadOffset";
+
+    private final static String SUFFIX = ".pfchunk";
+
+    private final static int BUFFER_SIZE = 8192;
+
+    //chunks of one upload are written one at a time, a fixed set of locks is shared by all uploads so none is left behind
+    private final static Object[] LOCKS = new Object[64];
+
+    static {
+        for(int i = 0; i < LOCKS.length; i++) {
+            LOCKS[i] = new Object();
+        }
+    }
+
+    private ChunkedUpload() {}
+
+    /**
+     * @return true if the request carries a chunk of a file.
+     */
+    public static boolean isChunk(FacesContext context) {
+        ExternalContext externalContext = context.getExternalContext();
+
+        return externalContext.getRequestHeaderMap().get(CONTENT_RANGE_HEADER) != null
+                && externalContext.getRequestHeaderMap().get(UPLOAD_ID_HEADER) != null;
+    }
+
+    /**
+     * Appends the chunk to its upload.
+     *
+     * @return the assembled file once the last chunk is received, null while chunks are missing or if the upload was rejected.
+     */
+    public static UploadedFile append(FacesContext context, FileUpload fileUpload, UploadedFile chunk) throws IOException {
+        ExternalContext externalContext = context.getExternalContext();
+        String range = externalContext.getRequestHeaderMap().get(CONTENT_RANGE_HEADER);
+        long[] bounds = parseRange(range);
+        if(bounds == null) {
+            throw new FacesException("Invalid Content-Range header: " + range);
+        }
+
+        long start = bounds[0];
+        long total = bounds[2];
+
+        if(total > fileUpload.getSizeLimit()) {
+            CommonsFileUploadDecoder.addUploadError(context, fileUpload, UploadLimit.INVALID_SIZE);
+            delete(context, fileUpload);
+            return null;
+        }
+
+        File file = getFile(context, fileUpload, externalContext.getRequestHeaderMap().get(UPLOAD_ID_HEADER));
+
+        if(!matchesRange(bounds, chunk)) {
+            if(logger.isLoggable(Level.FINE))
+                logger.fine("Rejecting chunk " + range + " of " + file.getName() + " with " + chunk.getSize() + " bytes");
+
+            //a chunk of another size than its range could write past the declared total
+            externalContext.setResponseStatus(400);
+            return null;
+        }
+
+        long ttl = RequestContext.getCurrentInstance().getApplicationContext().getConfig().getUploadChunkTTL() * 1000L;
+        long length = appendChunk(file, start, chunk, ttl);
+
+        if(length == -1) {
+            if(logger.isLoggable(Level.FINE))
+                logger.fine("Rejecting chunk " + range + " of " + file.getName() + ", only " + file.length() + " bytes were received");
+
+            //the client resumes from the received offset when the chunk fails
+            externalContext.setResponseStatus(416);
+            return null;
+        }
+
+        if(length > 0) {
+            externalContext.setResponseHeader("Range", "0-" + (length - 1));
+        }
+
+        return complete(file, chunk, length, total);
+    }
+
+    /**
+     * @return true if the chunk holds exactly the bytes of its range.
+     */
+    static boolean matchesRange(long[] bounds, UploadedFile chunk) {
+        return chunk.getSize() == bounds[1] - bounds[0] + 1;
+    }
+
+    /**
+     * Deletes the file assembled from the chunks of an upload once its FileUploadEvent was processed, listeners
+     * have to write it to its target during the event.
+     */
+    public static void release(UploadedFile file) {
+        if(file instanceof StreamingUploadedFile) {
+            StreamingUploadedFile uploadedFile = (StreamingUploadedFile) file;
+
+            if(uploadedFile.getFile() != null && uploadedFile.getFile().getName().endsWith(SUFFIX)) {
+                uploadedFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Writes the chunk at start into the file of its upload, the first chunk of an upload purges the expired uploads.
+     *
+     * @return the number of bytes received so far, -1 if the chunk starts after them.
+     */
+    static long appendChunk(File file, long start, UploadedFile chunk, long ttl) throws IOException {
+        synchronized(LOCKS[(file.getName().hashCode() & 0x7fffffff) % LOCKS.length]) {
+            if(start == 0) {
+                purge(file.getParentFile(), ttl);
+            }
+
+            return (start <= file.length()) ? write(file, start, chunk) : -1;
+        }
+    }
+
+    /**
+     * @return the assembled file once all bytes were received, null while chunks are missing.
+     */
+    static UploadedFile complete(File file, UploadedFile chunk, long length, long total) {
+        return (length < total) ? null : new StreamingUploadedFile(chunk.getFileName(), chunk.getContentType(), file, length);
+    }
+
+    /**
+     * Adds the received offset of the upload with the given id as uploadedBytes callback param so the client resumes
+     * the upload from there.
+     */
+    public static void encodeOffset(FacesContext context, FileUpload fileUpload, String uploadId) {
+        File file = getFile(context, fileUpload, uploadId);
+
+        RequestContext.getCurrentInstance().addCallbackParam("uploadedBytes", file.length());
+    }
+
+    /**
+     * @return start, end and total size of a "bytes start-end/total" range, null if the range is malformed.
+     */
+    static long[] parseRange(String range) {
+        if(range == null || !range.startsWith("bytes ")) {
+            return null;
+        }
+
+        int dash = range.indexOf('-');
+        int slash = range.indexOf('/');
+        if(dash == -1 || slash < dash) {
+            return null;
+        }
+
+        try {
+            long start = Long.parseLong(range.substring(6, dash).trim());
+            long end = Long.parseLong(range.substring(dash + 1, slash).trim());
+            long total = Long.parseLong(range.substring(slash + 1).trim());
+
+            return (start < 0 || end < start || total <= end) ? null : new long[]{start, end, total};
+        }
+        catch(NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long write(File file, long start, UploadedFile chunk) throws IOException {
+        InputStream in = chunk.getInputstream();
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            out.seek(start);
+
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+
+            //a resent chunk replaces whatever was received after its offset
+            out.setLength(out.getFilePointer());
+
+            return out.length();
+        }
+        finally {
+            out.close();
+            in.close();
+
+            if(chunk instanceof StreamingUploadedFile) {
+                ((StreamingUploadedFile) chunk).delete();
+            }
+        }
+    }
+
+    private static void delete(FacesContext context, FileUpload fileUpload) {
+        String uploadId = context.getExternalContext().getRequestHeaderMap().get(UPLOAD_ID_HEADER);
+        File file = getFile(context, fileUpload, uploadId);
+
+        file.delete();
+    }
+
+    /**
+     * Deletes the uploads that were not resumed within the configured time to live.
+     */
+    private static void purge(File directory, long ttl) {
+        long expired = System.currentTimeMillis() - ttl;
+        File[] files = directory.listFiles();
+
+        if(files != null) {
+            for(File file : files) {
+                if(file.getName().endsWith(SUFFIX) && file.lastModified() < expired) {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolves the file of an upload. The client provided id is hashed with the session and the component so it can
+     * neither address another user's upload nor leave the chunk directory.
+     */
+    private static File getFile(FacesContext context, FileUpload fileUpload, String uploadId) {
+        ConfigContainer config = RequestContext.getCurrentInstance().getApplicationContext().getConfig();
+        HttpServletRequest request = (HttpServletRequest) context.getExternalContext().getRequest();
+        String key = request.getSession(true).getId() + ":" + fileUpload.getClientId(context) + ":" + uploadId;
+
+        return new File(config.getUploadChunkDirectory(), hash(key) + SUFFIX);
+    }
+
+    private static String hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes("UTF-8"));
+            StringBuilder builder = new StringBuilder(digest.length * 2);
+            for(byte b : digest) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+
+            return builder.toString();
+        }
+        catch(NoSuchAlgorithmException e) {
+            throw new FacesException(e);
+        }
+        catch(UnsupportedEncodingException e) {
+            throw new FacesException(e);
+        }
+    }
+}
@@ -15,12 +15,15 @@
  */
 package org.primefaces.component.fileupload;
 
+import java.io.IOException;
+import javax.faces.FacesException;
+import javax.faces.application.FacesMessage;
 import javax.faces.context.FacesContext;
 import javax.servlet.ServletRequestWrapper;
-import org.apache.commons.fileupload.FileItem;
 import org.primefaces.event.FileUploadEvent;
-import org.primefaces.model.DefaultUploadedFile;
+import org.primefaces.model.UploadedFile;
 import org.primefaces.webapp.MultipartRequest;
+import org.primefaces.webapp.UploadLimit;
 
 public class CommonsFileUploadDecoder{
 
@@ -43,28 +46,56 @@ public class CommonsFileUploadDecoder{
                 decodeSimple(context, fileUpload, multipartRequest);
             }
             else {
-                decodeAdvanced(context, fileUpload, multipartRequest);
+                try {
+                    decodeAdvanced(context, fileUpload, multipartRequest);
+                }
+                catch(IOException e) {
+                    throw new FacesException(e);
+                }
             }
 		}
     }
         
     private static void decodeSimple(FacesContext context, FileUpload fileUpload, MultipartRequest request) {
         String clientId = fileUpload.getClientId(context);
-        FileItem file = request.getFileItem(clientId);
+        UploadedFile file = request.getUploadedFile(clientId);
         
 		if(file != null) {
             fileUpload.setTransient(true);
-            fileUpload.setSubmittedValue(new DefaultUploadedFile(file));
-        }   
+            fileUpload.setSubmittedValue(file);
+        }
+        else if(request.getUploadError(clientId) != null) {
+            addUploadError(context, fileUpload, request.getUploadError(clientId));
+            fileUpload.setValid(false);
+        }
 	}
     
-    private static void decodeAdvanced(FacesContext context, FileUpload fileUpload, MultipartRequest request) {
+    private static void decodeAdvanced(FacesContext context, FileUpload fileUpload, MultipartRequest request) throws IOException {
         String clientId = fileUpload.getClientId(context);
-        FileItem file = request.getFileItem(clientId);
+        UploadedFile file = request.getUploadedFile(clientId);
             
         if(file != null) {
             fileUpload.setTransient(true);
-            fileUpload.queueEvent(new FileUploadEvent(fileUpload, new DefaultUploadedFile(file)));
+
+            if(ChunkedUpload.isChunk(context)) {
+                file = ChunkedUpload.append(context, fileUpload, file);
+            }
+
+            if(file != null) {
+                fileUpload.queueEvent(new FileUploadEvent(fileUpload, file));
+            }
+        }
+        else if(request.getUploadError(clientId) != null) {
+            addUploadError(context, fileUpload, request.getUploadError(clientId));
         }
 	}
+
+    static void addUploadError(FacesContext context, FileUpload fileUpload, String error) {
+        String message = error.equals(UploadLimit.INVALID_SIZE) ? fileUpload.getInvalidSizeMessage() : fileUpload.getInvalidFileMessage();
+        if(message == null) {
+            message = error.equals(UploadLimit.INVALID_SIZE) ? "Invalid file size" : "Invalid file type";
+        }
+
+        context.addMessage(fileUpload.getClientId(context), new FacesMessage(FacesMessage.SEVERITY_ERROR, message, message));
+    }
 }
@@ -27,6 +27,7 @@ import org.primefaces.expression.SearchExpressionFacade;
 import org.primefaces.renderkit.CoreRenderer;
 import org.primefaces.util.HTML;
 import org.primefaces.util.WidgetBuilder;
+import org.primefaces.webapp.UploadLimit;
 
 public class FileUploadRenderer extends CoreRenderer {
             
@@ -35,6 +36,12 @@ public class FileUploadRenderer extends CoreRenderer {
 		FileUpload fileUpload = (FileUpload) component;
         
         if(!fileUpload.isDisabled()) {
+            String uploadId = context.getExternalContext().getRequestParameterMap().get(fileUpload.getClientId(context) + ChunkedUpload.OFFSET_PARAM);
+            if(uploadId != null) {
+                ChunkedUpload.encodeOffset(context, fileUpload, uploadId);
+                return;
+            }
+
             ConfigContainer cc = RequestContext.getCurrentInstance().getApplicationContext().getConfig();
             String uploader = cc.getUploader();
             boolean isAtLeastJSF22 = cc.isAtLeastJSF22();
@@ -62,12 +69,25 @@ public class FileUploadRenderer extends CoreRenderer {
 	public void encodeEnd(FacesContext context, UIComponent component) throws IOException {
 		FileUpload fileUpload = (FileUpload) component;
 		
+        registerUploadLimit(context, fileUpload);
 		encodeMarkup(context, fileUpload);
         
         if(fileUpload.getMode().equals("advanced"))
             encodeScript(context, fileUpload);
 	}
 
+    /**
+     * Registers size limit and allowed types so the commons uploader enforces them while receiving the file.
+     */
+    protected void registerUploadLimit(FacesContext context, FileUpload fileUpload) {
+        long sizeLimit = fileUpload.getSizeLimit();
+        String allowTypes = fileUpload.getAllowTypes();
+
+        if(sizeLimit != Long.MAX_VALUE || allowTypes != null || context.getExternalContext().getSession(false) != null) {
+            UploadLimit.register(context.getExternalContext().getSessionMap(), fileUpload.getClientId(context), sizeLimit, allowTypes);
+        }
+    }
+
 	protected void encodeScript(FacesContext context, FileUpload fileUpload) throws IOException {
 		String clientId = fileUpload.getClientId(context);
         String update = fileUpload.getUpdate();
@@ -86,6 +106,7 @@ public class FileUploadRenderer extends CoreRenderer {
             .attr("fileLimitMessage", fileUpload.getFileLimitMessage(), null)
             .attr("messageTemplate", fileUpload.getMessageTemplate(), null)
             .attr("previewWidth", fileUpload.getPreviewWidth(), 80)
+            .attr("maxChunkSize", fileUpload.getMaxChunkSize(), 0)
             .attr("disabled", fileUpload.isDisabled(), false)
             .callback("onstart", "function()", fileUpload.getOnstart())
             .callback("onerror", "function()", fileUpload.getOnerror())
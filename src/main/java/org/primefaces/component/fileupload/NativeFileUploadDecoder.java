@@ -23,6 +23,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.Part;
 import org.primefaces.event.FileUploadEvent;
 import org.primefaces.model.NativeUploadedFile;
+import org.primefaces.model.UploadedFile;
 
 public class NativeFileUploadDecoder {
 
@@ -61,7 +62,16 @@ public class NativeFileUploadDecoder {
 
         if(part != null) {
             fileUpload.setTransient(true);
-            fileUpload.queueEvent(new FileUploadEvent(fileUpload, new NativeUploadedFile(part)));
+            UploadedFile file = new NativeUploadedFile(part);
+
+            if(ChunkedUpload.isChunk(context)) {
+                file = ChunkedUpload.append(context, fileUpload, file);
+                part.delete();
+            }
+
+            if(file != null) {
+                fileUpload.queueEvent(new FileUploadEvent(fileUpload, file));
+            }
         }
 	}
     
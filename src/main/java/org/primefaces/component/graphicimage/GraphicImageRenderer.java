@@ -27,6 +27,7 @@ import javax.faces.component.UIParameter;
 
 import javax.faces.context.FacesContext;
 import javax.faces.context.ResponseWriter;
+import org.primefaces.application.DynamicContentCache;
 import org.primefaces.context.RequestContext;
 
 import org.primefaces.model.StreamedContent;
@@ -95,7 +96,11 @@ public class GraphicImageRenderer extends CoreRenderer {
                 Resource resource = context.getApplication().getResourceHandler().createResource("dynamiccontent.properties", "primefaces", streamedContent.getContentType());
                 String resourcePath = resource.getRequestPath();
                 StringEncrypter strEn = RequestContext.getCurrentInstance().getEncrypter();
-                String rid = strEn.encrypt(image.getValueExpression("value").getExpressionString());
+                String expression = image.getValueExpression("value").getExpressionString();
+                if(image.isCache() && image.getServerCache() != null) {
+                    expression = DynamicContentCache.createContentId(expression, image.getServerCache());
+                }
+                String rid = strEn.encrypt(expression);
                 StringBuilder builder = new StringBuilder(resourcePath);
 
                 builder.append("&").append(Constants.DYNAMIC_CONTENT_PARAM).append("=").append(URLEncoder.encode(rid, "UTF-8"));
@@ -26,6 +26,7 @@ import javax.faces.component.UIParameter;
 import javax.faces.context.FacesContext;
 import javax.faces.context.ResponseWriter;
 
+import org.primefaces.application.DynamicContentCache;
 import org.primefaces.component.media.player.MediaPlayer;
 import org.primefaces.component.media.player.MediaPlayerFactory;
 import org.primefaces.context.RequestContext;
@@ -140,7 +141,11 @@ public class MediaRenderer extends CoreRenderer {
                 Resource resource = context.getApplication().getResourceHandler().createResource("dynamiccontent.properties", "primefaces", streamedContent.getContentType());
                 String resourcePath = resource.getRequestPath();
                 StringEncrypter strEn = RequestContext.getCurrentInstance().getEncrypter();
-                String rid = strEn.encrypt(media.getValueExpression("value").getExpressionString());
+                String expression = media.getValueExpression("value").getExpressionString();
+                if(media.isCache() && media.getServerCache() != null) {
+                    expression = DynamicContentCache.createContentId(expression, media.getServerCache());
+                }
+                String rid = strEn.encrypt(expression);
                 StringBuilder builder = new StringBuilder(resourcePath);
                 
                 builder.append("&").append(Constants.DYNAMIC_CONTENT_PARAM).append("=").append(URLEncoder.encode(rid,"UTF-8"));
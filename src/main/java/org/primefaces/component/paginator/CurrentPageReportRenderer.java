@@ -31,9 +31,22 @@ public class CurrentPageReportRenderer implements PaginatorElementRenderer {
             pageCount = 1;
         }
                 
+        String totalPages = Integer.toString(pageCount);
+        String totalRecords = Integer.toString(uidata.getRowCount());
+        
+        //without a row count, the total only tells that more rows follow
+        if(!uidata.isRowCountKnown() && currentPage < pageCount) {
+            totalPages = (pageCount - 1) + "+";
+            totalRecords = (uidata.getRowCount() - 1) + "+";
+        }
+        else if(uidata.isRowCountEstimated()) {
+            totalPages = "~" + totalPages;
+            totalRecords = "~" + totalRecords;
+        }
+                
         String output = template.replaceAll("\\{currentPage\\}", Integer.toString(currentPage))
-        .replaceAll("\\{totalPages\\}", Integer.toString(pageCount))
-        .replaceAll("\\{totalRecords\\}", Integer.toString(uidata.getRowCount()))
+        .replaceAll("\\{totalPages\\}", totalPages)
+        .replaceAll("\\{totalRecords\\}", totalRecords)
         .replaceAll("\\{startRecord\\}", Integer.toString(Math.min(uidata.getFirst() + 1, uidata.getRowCount())))
         .replaceAll("\\{endRecord}", Integer.toString(Math.min(uidata.getFirst() + uidata.getRowsToRender(), uidata.getRowCount())));
         
@@ -25,7 +25,7 @@ public class LastPageLinkRenderer extends PageLinkRenderer implements PaginatorE
         int currentPage = uidata.getPage();
         int pageCount = uidata.getPageCount();
         
-        boolean disabled = (currentPage == (pageCount - 1)) || (currentPage == 0 && pageCount == 0);
+        boolean disabled = (currentPage == (pageCount - 1)) || (currentPage == 0 && pageCount == 0) || !uidata.isRowCountKnown();
        
         super.render(context, uidata, UIData.PAGINATOR_LAST_PAGE_LINK_CLASS, UIData.PAGINATOR_LAST_PAGE_ICON_CLASS, disabled);
     }   
@@ -98,6 +98,7 @@ public class TreeRenderer extends CoreRenderer {
             tree.setRowKey(selectedNodeRowKey);
             TreeNode selectedNode = tree.getRowNode();
             List<String> descendantRowKeys = new ArrayList<String>();
+            tree.updateRowKeys();
             tree.populateRowKeys(selectedNode, descendantRowKeys);
             int size = descendantRowKeys.size();
             StringBuilder sb = new StringBuilder();
@@ -155,6 +156,7 @@ public class TreeRenderer extends CoreRenderer {
     @Override
 	public void encodeEnd(FacesContext context, UIComponent component) throws IOException {
 		Tree tree = (Tree) component;
+        tree.updateRowKeys();
 
         if(tree.isNodeExpandRequest(context)) {
         	boolean vertical = tree.getOrientation().equals("vertical");
@@ -28,6 +28,7 @@ import org.primefaces.component.api.UITree;
 import org.primefaces.component.column.Column;
 import org.primefaces.context.RequestContext;
 import org.primefaces.model.TreeNode;
+import org.primefaces.model.TreeNodeChildren;
 import org.primefaces.renderkit.CoreRenderer;
 import org.primefaces.renderkit.RendererUtils;
 import org.primefaces.util.WidgetBuilder;
@@ -41,10 +42,30 @@ public class TreeTableRenderer extends CoreRenderer {
         if(tt.getSelectionMode() != null) {
             decodeSelection(context, tt);
         }
+
+        if(tt.isVirtualScroll()) {
+            decodeCollapse(context, tt);
+        }
                     
         decodeBehaviors(context, component);
     }
 
+    protected void decodeCollapse(FacesContext context, TreeTable tt) {
+        String nodeKey = context.getExternalContext().getRequestParameterMap().get(tt.getClientId(context) + "_collapse");
+
+        if(nodeKey != null) {
+            tt.setRowKey(nodeKey);
+            TreeNode node = tt.getRowNode();
+
+            if(node != null) {
+                node.setExpanded(false);
+                tt.getVisibleNodes(context, false).collapse(node);
+            }
+
+            tt.setRowKey(null);
+        }
+    }
+
     protected void decodeSelection(FacesContext context, TreeTable tt) {
         Map<String,String> params = context.getExternalContext().getRequestParameterMap();
         String selectionMode = tt.getSelectionMode();
@@ -82,6 +103,7 @@ public class TreeTableRenderer extends CoreRenderer {
             tt.setRowKey(selectedNodeRowKey);
             TreeNode selectedNode = tt.getRowNode();
             List<String> descendantRowKeys = new ArrayList<String>();
+            tt.updateRowKeys();
             tt.populateRowKeys(selectedNode, descendantRowKeys);
             int size = descendantRowKeys.size();
             StringBuilder sb = new StringBuilder();
@@ -104,6 +126,8 @@ public class TreeTableRenderer extends CoreRenderer {
 		TreeTable tt = (TreeTable) component;
         String clientId = tt.getClientId(context);
         Map<String,String> params = context.getExternalContext().getRequestParameterMap();
+        boolean structureChanged = isStructureChanged(tt.getValue());
+        tt.updateRowKeys();
         
         String nodeKey = params.get(clientId + "_expand");
         if(nodeKey != null) {
@@ -111,8 +135,23 @@ public class TreeTableRenderer extends CoreRenderer {
             TreeNode node = tt.getRowNode();
             node.setExpanded(true);
             
-            encodeNodeChildren(context, tt, node);
+            if(tt.isVirtualScroll()) {
+                VisibleNodes visibleNodes = tt.getVisibleNodes(context, structureChanged);
+                int first = visibleNodes.expand(node);
+                
+                if(first != -1) {
+                    encodeWindow(context, tt, visibleNodes, first);
+                }
+            }
+            else {
+                encodeNodeChildren(context, tt, node);
+            }
         } 
+        else if(tt.isVirtualScroll() && tt.isScrollRequest(context)) {
+            int scrollOffset = Integer.parseInt(params.get(clientId + "_scrollOffset"));
+            
+            encodeWindow(context, tt, tt.getVisibleNodes(context, structureChanged), scrollOffset);
+        }
         else {
             encodeMarkup(context, tt);
             encodeScript(context, tt); 
@@ -131,6 +170,12 @@ public class TreeTableRenderer extends CoreRenderer {
             .attr("scrollHeight", tt.getScrollHeight(), null)
             .attr("scrollWidth", tt.getScrollWidth(), null);
         
+        if(tt.isVirtualScroll()) {
+            wb.attr("liveScroll", true)
+                .attr("scrollStep", tt.getScrollRows())
+                .attr("scrollLimit", tt.getVisibleNodes(context, false).size());
+        }
+        
         encodeClientBehaviors(context, tt);
 
         wb.finish();
@@ -342,7 +387,12 @@ public class TreeTableRenderer extends CoreRenderer {
         }
         
 		if(root != null) {
-            encodeNodeChildren(context, tt, root);
+            if(tt.isVirtualScroll()) {
+                encodeRows(context, tt, tt.getVisibleNodes(context, true).getWindow(0, tt.getScrollRows()));
+            }
+            else {
+                encodeNodeChildren(context, tt, root);
+            }
 		}
 
         tt.setRowKey(null);
@@ -351,6 +401,17 @@ public class TreeTableRenderer extends CoreRenderer {
 	}
     
     protected void encodeNode(FacesContext context, TreeTable tt, TreeNode treeNode) throws IOException {
+        encodeRow(context, tt, treeNode);
+
+        if(treeNode.isExpanded()) {
+            encodeNodeChildren(context, tt, treeNode);
+        }
+    }
+    
+    /**
+     * Encodes the row of a node without its children.
+     */
+    protected void encodeRow(FacesContext context, TreeTable tt, TreeNode treeNode) throws IOException {
         ResponseWriter writer = context.getResponseWriter();
         String rowKey = treeNode.getRowKey();
         String parentRowKey = treeNode.getParent().getRowKey();
@@ -414,7 +475,7 @@ public class TreeTableRenderer extends CoreRenderer {
 
                     writer.startElement("span", null);
                     writer.writeAttribute("class", icon, null);
-                    if(treeNode.getChildCount() == 0) {
+                    if(treeNode.isLeaf()) {
                         writer.writeAttribute("style", "visibility:hidden", null);
                     }
                     writer.endElement("span");
@@ -431,10 +492,6 @@ public class TreeTableRenderer extends CoreRenderer {
         }
 
         writer.endElement("tr");
-
-        if(treeNode.isExpanded()) {
-            encodeNodeChildren(context, tt, treeNode);
-        }
     }
     
     protected void encodeNodeChildren(FacesContext context, TreeTable tt, TreeNode treeNode) throws IOException {
@@ -447,6 +504,38 @@ public class TreeTableRenderer extends CoreRenderer {
         }
     }
     
+    /**
+     * Encodes the rows of the visible nodes from first on, at most scrollRows of them, and passes the number of visible
+     * nodes to the client so it knows when to stop loading.
+     */
+    protected void encodeWindow(FacesContext context, TreeTable tt, VisibleNodes visibleNodes, int first) throws IOException {
+        encodeRows(context, tt, visibleNodes.getWindow(first, tt.getScrollRows()));
+        tt.setRowKey(null);
+        
+        RequestContext.getCurrentInstance().addCallbackParam("visibleNodes", visibleNodes.size());
+    }
+    
+    protected void encodeRows(FacesContext context, TreeTable tt, List<String> rowKeys) throws IOException {
+        for(int i = 0; i < rowKeys.size(); i++) {
+            tt.setRowKey(rowKeys.get(i));
+            TreeNode node = tt.getRowNode();
+            
+            if(node != null) {
+                encodeRow(context, tt, node);
+            }
+        }
+    }
+    
+    private boolean isStructureChanged(TreeNode root) {
+        if(root != null) {
+            List<TreeNode> children = root.getChildren();
+            
+            return (children instanceof TreeNodeChildren) && ((TreeNodeChildren) children).isDirty();
+        }
+        
+        return false;
+    }
+    
     protected void encodeFacet(FacesContext context, TreeTable tt, UIComponent facet, String styleClass) throws IOException {
         if(facet == null)
             return;
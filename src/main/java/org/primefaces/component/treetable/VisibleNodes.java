@@ -0,0 +1,135 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.component.treetable;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import org.primefaces.component.api.UITree;
+import org.primefaces.model.TreeNode;
+
+/**
+ * Flattened list of the row keys of the nodes a TreeTable displays, children of expanded nodes follow their parent in
+ * render order. Kept in the view between requests so windows of a live scrolled treeTable are served by index instead
+ * of walking the tree again, expand and collapse requests patch the list in place. Only row keys are kept, the root
+ * is not serialized with the view and a restored list is rebuilt from the current tree.
+ */
+public class VisibleNodes implements Serializable {
+
+    private transient TreeNode root;
+    private List<String> rowKeys;
+
+    public VisibleNodes(TreeNode root) {
+        this.root = root;
+        this.rowKeys = new ArrayList<String>();
+
+        if(root != null) {
+            collect(root, rowKeys);
+        }
+    }
+
+    /**
+     * @return the root the row keys were collected from, null once the list was restored from a serialized view.
+     */
+    public TreeNode getRoot() {
+        return root;
+    }
+
+    public int size() {
+        return rowKeys.size();
+    }
+
+    public String get(int index) {
+        return rowKeys.get(index);
+    }
+
+    /**
+     * @return row keys from first, at most rows of them.
+     */
+    public List<String> getWindow(int first, int rows) {
+        int size = rowKeys.size();
+        if(first < 0 || first >= size) {
+            return new ArrayList<String>(0);
+        }
+
+        return rowKeys.subList(first, (rows <= 0) ? size : Math.min(size, first + rows));
+    }
+
+    /**
+     * @return position of the row key, -1 if its node is not visible.
+     */
+    public int indexOf(String rowKey) {
+        return rowKeys.indexOf(rowKey);
+    }
+
+    /**
+     * Inserts the visible descendants of a node that has just been expanded.
+     *
+     * @return position of the first descendant, -1 if the node is not visible.
+     */
+    public int expand(TreeNode node) {
+        int index = indexOf(node.getRowKey());
+        if(index == -1) {
+            return -1;
+        }
+
+        removeDescendants(node.getRowKey(), index);
+
+        List<String> descendants = new ArrayList<String>();
+        collect(node, descendants);
+        rowKeys.addAll(index + 1, descendants);
+
+        return index + 1;
+    }
+
+    /**
+     * Removes the descendants of a node that has just been collapsed.
+     */
+    public void collapse(TreeNode node) {
+        int index = indexOf(node.getRowKey());
+
+        if(index != -1) {
+            removeDescendants(node.getRowKey(), index);
+        }
+    }
+
+    private void removeDescendants(String rowKey, int index) {
+        String prefix = rowKey + UITree.SEPARATOR;
+        int end = index + 1;
+        while(end < rowKeys.size() && rowKeys.get(end).startsWith(prefix)) {
+            end++;
+        }
+
+        if(end > index + 1) {
+            rowKeys.subList(index + 1, end).clear();
+        }
+    }
+
+    private void collect(TreeNode node, List<String> list) {
+        int childCount = node.getChildCount();
+        if(childCount > 0) {
+            List<TreeNode> children = node.getChildren();
+            for(int i = 0; i < childCount; i++) {
+                TreeNode child = children.get(i);
+                list.add(child.getRowKey());
+
+                if(child.isExpanded()) {
+                    collect(child, list);
+                }
+            }
+        }
+    }
+}
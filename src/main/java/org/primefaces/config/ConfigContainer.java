@@ -45,6 +45,22 @@ public class ConfigContainer {
 	private String  theme = null;
     private boolean clientSideValidationEnabled = false;
     private String uploader = null;
+    private int parallelSortThreshold = 50000;
+    private int parallelFilterThreshold = 20000;
+    private int xlsxRowWindow = 100;
+    private int exportJobThreads = 2;
+    private int exportJobTTL = 600;
+    private boolean pdfExportStreaming = false;
+    private int exportFetchSize = 1000;
+    private long dynamicContentCacheSize = 0;
+    private int dynamicContentCacheTTL = 300;
+    private boolean dynamicContentCacheDirect = false;
+    private long dynamicContentCacheMaxEntry = 262144;
+    private int dynamicContentAsyncThreads = 0;
+    private int dynamicContentAsyncQueue = 100;
+    private int dynamicContentAsyncTimeout = 30;
+    private String uploadChunkDirectory = null;
+    private int uploadChunkTTL = 86400;
 
 	// internal config
     private boolean beanValidationAvailable = false;
@@ -94,6 +110,80 @@ public class ConfigContainer {
         value = externalContext.getInitParameter(Constants.ContextParams.UPLOADER);
         uploader = (value == null) ? "auto" : value;
         
+        value = externalContext.getInitParameter(Constants.ContextParams.PARALLEL_SORT_THRESHOLD);
+        if(value != null) {
+            parallelSortThreshold = Integer.parseInt(value);
+        }
+        
+        value = externalContext.getInitParameter(Constants.ContextParams.PARALLEL_FILTER_THRESHOLD);
+        if(value != null) {
+            parallelFilterThreshold = Integer.parseInt(value);
+        }
+        
+        value = externalContext.getInitParameter(Constants.ContextParams.XLSX_ROW_WINDOW);
+        if(value != null) {
+            xlsxRowWindow = Integer.parseInt(value);
+        }
+        
+        value = externalContext.getInitParameter(Constants.ContextParams.EXPORT_JOB_THREADS);
+        if(value != null) {
+            exportJobThreads = Integer.parseInt(value);
+        }
+        
+        value = externalContext.getInitParameter(Constants.ContextParams.EXPORT_JOB_TTL);
+        if(value != null) {
+            exportJobTTL = Integer.parseInt(value);
+        }
+        
+        value = externalContext.getInitParameter(Constants.ContextParams.PDF_EXPORT_STREAMING);
+        pdfExportStreaming = (value == null) ? false : Boolean.valueOf(value);
+        
+        value = externalContext.getInitParameter(Constants.ContextParams.EXPORT_FETCH_SIZE);
+        if(value != null) {
+            exportFetchSize = Integer.parseInt(value);
+        }
+        
+        value = externalContext.getInitParameter(Constants.ContextParams.DYNAMIC_CONTENT_CACHE_SIZE);
+        if(value != null) {
+            dynamicContentCacheSize = Long.parseLong(value);
+        }
+        
+        value = externalContext.getInitParameter(Constants.ContextParams.DYNAMIC_CONTENT_CACHE_TTL);
+        if(value != null) {
+            dynamicContentCacheTTL = Integer.parseInt(value);
+        }
+        
+        value = externalContext.getInitParameter(Constants.ContextParams.DYNAMIC_CONTENT_CACHE_DIRECT);
+        dynamicContentCacheDirect = (value == null) ? false : Boolean.valueOf(value);
+        
+        value = externalContext.getInitParameter(Constants.ContextParams.DYNAMIC_CONTENT_CACHE_MAX_ENTRY);
+        if(value != null) {
+            dynamicContentCacheMaxEntry = Long.parseLong(value);
+        }
+        
+        value = externalContext.getInitParameter(Constants.ContextParams.DYNAMIC_CONTENT_ASYNC_THREADS);
+        if(value != null) {
+            dynamicContentAsyncThreads = Integer.parseInt(value);
+        }
+        
+        value = externalContext.getInitParameter(Constants.ContextParams.DYNAMIC_CONTENT_ASYNC_QUEUE);
+        if(value != null) {
+            dynamicContentAsyncQueue = Integer.parseInt(value);
+        }
+        
+        value = externalContext.getInitParameter(Constants.ContextParams.DYNAMIC_CONTENT_ASYNC_TIMEOUT);
+        if(value != null) {
+            dynamicContentAsyncTimeout = Integer.parseInt(value);
+        }
+        
+        value = externalContext.getInitParameter(Constants.ContextParams.UPLOAD_CHUNK_DIRECTORY);
+        uploadChunkDirectory = (value == null) ? System.getProperty("java.io.tmpdir") : value;
+        
+        value = externalContext.getInitParameter(Constants.ContextParams.UPLOAD_CHUNK_TTL);
+        if(value != null) {
+            uploadChunkTTL = Integer.parseInt(value);
+        }
+        
         pushServerURL = externalContext.getInitParameter(Constants.ContextParams.PUSH_SERVER_URL);
         
         theme = externalContext.getInitParameter(Constants.ContextParams.THEME);
@@ -208,6 +298,118 @@ public class ConfigContainer {
         return uploader;
     }
 
+    /**
+     * @return Minimum list size to sort on the parallel executor, 0 or less disables parallel sorting.
+     */
+    public int getParallelSortThreshold() {
+        return parallelSortThreshold;
+    }
+
+    /**
+     * @return Minimum list size to filter on the parallel executor, 0 or less disables parallel filtering.
+     */
+    public int getParallelFilterThreshold() {
+        return parallelFilterThreshold;
+    }
+
+    /**
+     * @return Number of rows the xlsx exporter keeps in memory before flushing them to its temp file.
+     */
+    public int getXlsxRowWindow() {
+        return xlsxRowWindow;
+    }
+
+    /**
+     * @return Maximum number of asynchronous exports running at the same time.
+     */
+    public int getExportJobThreads() {
+        return exportJobThreads;
+    }
+
+    /**
+     * @return Seconds a finished asynchronous export is kept for download.
+     */
+    public int getExportJobTTL() {
+        return exportJobTTL;
+    }
+
+    /**
+     * @return true if the pdf exporter writes to the response while rows are exported instead of buffering the document.
+     */
+    public boolean isPdfExportStreaming() {
+        return pdfExportStreaming;
+    }
+
+    /**
+     * @return Rows loaded per LazyDataModel.load call when exporting a lazy table, 0 or less uses the page size of the table.
+     */
+    public int getExportFetchSize() {
+        return exportFetchSize;
+    }
+
+    /**
+     * @return Maximum bytes of dynamic content cached on the server, 0 or less disables the cache.
+     */
+    public long getDynamicContentCacheSize() {
+        return dynamicContentCacheSize;
+    }
+
+    /**
+     * @return Seconds a dynamic content is served from the server side cache.
+     */
+    public int getDynamicContentCacheTTL() {
+        return dynamicContentCacheTTL;
+    }
+
+    /**
+     * @return true if cached dynamic content is kept in direct buffers outside of the heap.
+     */
+    public boolean isDynamicContentCacheDirect() {
+        return dynamicContentCacheDirect;
+    }
+
+    /**
+     * @return Maximum bytes of a single cached dynamic content, larger content is streamed without being cached.
+     */
+    public long getDynamicContentCacheMaxEntry() {
+        return dynamicContentCacheMaxEntry;
+    }
+
+    /**
+     * @return Threads writing asynchronous dynamic content, 0 or less serves all dynamic content on the request thread.
+     */
+    public int getDynamicContentAsyncThreads() {
+        return dynamicContentAsyncThreads;
+    }
+
+    /**
+     * @return Maximum number of asynchronous dynamic contents waiting for a thread before they are served on the request thread.
+     */
+    public int getDynamicContentAsyncQueue() {
+        return dynamicContentAsyncQueue;
+    }
+
+    /**
+     * @return Default seconds an asynchronous dynamic content may take to be written.
+     */
+    public int getDynamicContentAsyncTimeout() {
+        return dynamicContentAsyncTimeout;
+    }
+
+    /**
+     * @return Directory the chunks of a chunked upload are assembled in.
+     */
+    public String getUploadChunkDirectory() {
+        return uploadChunkDirectory;
+    }
+
+    /**
+     * @return Seconds an incomplete chunked upload is kept to be resumed.
+     */
+    public int getUploadChunkTTL() {
+        return uploadChunkTTL;
+    }
+
     public String getPushServerURL() {
         return pushServerURL;
     }
@@ -15,9 +15,14 @@
  */
 package org.primefaces.context;
 
+import java.util.concurrent.ExecutorService;
 import javax.validation.ValidatorFactory;
 
+import org.primefaces.application.AsyncContentWriter;
+import org.primefaces.application.DynamicContentCache;
+import org.primefaces.component.export.ExportJobManager;
 import org.primefaces.config.ConfigContainer;
+import org.primefaces.util.CipherService;
 
 /**
  * A {@link ApplicationContext} is a contextual store, similar to {@link RequestContext}.
@@ -33,4 +38,47 @@ public abstract class ApplicationContext {
 	public abstract ConfigContainer getConfig();
 	
 	public abstract ValidatorFactory getValidatorFactory();
+
+	/**
+	 * @return Shared pool for splitting CPU bound work like sorting and filtering of large in-memory lists,
+	 * null to run such work on the request thread.
+	 */
+	public ExecutorService getParallelExecutor() {
+		return null;
+	}
+
+	/**
+	 * @return Manager of the asynchronous DataExporter jobs, null if exports always run synchronously.
+	 */
+	public ExportJobManager getExportJobManager() {
+		return null;
+	}
+
+	/**
+	 * @return Server side cache of dynamic content, null if it is not enabled.
+	 */
+	public DynamicContentCache getDynamicContentCache() {
+		return null;
+	}
+
+	/**
+	 * @return Writer of asynchronous dynamic content, null if it is not enabled.
+	 */
+	public AsyncContentWriter getAsyncContentWriter() {
+		return null;
+	}
+
+	/**
+	 * @return Thread safe encryption with keys derived once from the configured secret, null to create
+	 * a StringEncrypter per request from the secret.
+	 */
+	public CipherService getCipherService() {
+		return null;
+	}
+
+	/**
+	 * Releases the threads and files held by the context, called once when the application is shut down.
+	 */
+	public void release() {
+	}
 }
@@ -15,20 +15,42 @@
  */
 package org.primefaces.context;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.faces.context.FacesContext;
 import javax.validation.Validation;
 import javax.validation.ValidatorFactory;
 
+import org.primefaces.application.AsyncContentWriter;
+import org.primefaces.application.DynamicContentCache;
+import org.primefaces.component.export.ExportJobManager;
 import org.primefaces.config.ConfigContainer;
+import org.primefaces.util.CipherService;
+import org.primefaces.util.DaemonThreadFactory;
 
 public class DefaultApplicationContext extends ApplicationContext {
 
+	public final static String INSTANCE_KEY = DefaultApplicationContext.class.getName();
+
 	private ConfigContainer config;
 	private ValidatorFactory validatorFactory;
+	private volatile ExecutorService parallelExecutor;
+	private volatile ExportJobManager exportJobManager;
+	private DynamicContentCache dynamicContentCache;
+	private AsyncContentWriter asyncContentWriter;
+	private volatile CipherService cipherService;
 
     public DefaultApplicationContext(FacesContext context) {
     	this.config = new ConfigContainer(context);
     	
+    	if (this.config.getDynamicContentCacheSize() > 0) {
+    	    this.dynamicContentCache = new DynamicContentCache(config.getDynamicContentCacheSize(), config.getDynamicContentCacheMaxEntry(), config.getDynamicContentCacheTTL() * 1000L, config.isDynamicContentCacheDirect());
+    	}
+    	
+    	if (this.config.getDynamicContentAsyncThreads() > 0) {
+    	    this.asyncContentWriter = new AsyncContentWriter(config.getDynamicContentAsyncThreads(), config.getDynamicContentAsyncQueue(), config.getDynamicContentAsyncTimeout() * 1000L);
+    	}
+    	
     	if (this.config.isBeanValidationAvailable()) {
     	    this.validatorFactory = Validation.buildDefaultValidatorFactory();
     	}
@@ -44,4 +66,77 @@ public class DefaultApplicationContext extends ApplicationContext {
     {
         return validatorFactory;
     }
+
+    @Override
+    public ExecutorService getParallelExecutor() {
+        if(parallelExecutor == null) {
+            synchronized(this) {
+                if(parallelExecutor == null) {
+                    int threads = Runtime.getRuntime().availableProcessors();
+                    parallelExecutor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory("primefaces-parallel"));
+                }
+            }
+        }
+
+        return parallelExecutor;
+    }
+
+    @Override
+    public ExportJobManager getExportJobManager() {
+        if(exportJobManager == null) {
+            synchronized(this) {
+                if(exportJobManager == null) {
+                    exportJobManager = new ExportJobManager(config.getExportJobThreads(), config.getExportJobTTL() * 1000L);
+                }
+            }
+        }
+
+        return exportJobManager;
+    }
+
+    @Override
+    public DynamicContentCache getDynamicContentCache() {
+        return dynamicContentCache;
+    }
+
+    @Override
+    public AsyncContentWriter getAsyncContentWriter() {
+        return asyncContentWriter;
+    }
+
+    @Override
+    public CipherService getCipherService() {
+        if(cipherService == null) {
+            synchronized(this) {
+                if(cipherService == null) {
+                    cipherService = new CipherService(config.getSecretKey());
+                }
+            }
+        }
+
+        return cipherService;
+    }
+
+    @Override
+    public void release() {
+        synchronized(this) {
+            if(parallelExecutor != null) {
+                parallelExecutor.shutdownNow();
+                parallelExecutor = null;
+            }
+
+            if(exportJobManager != null) {
+                exportJobManager.shutdown();
+                exportJobManager = null;
+            }
+        }
+
+        if(dynamicContentCache != null) {
+            dynamicContentCache.clear();
+        }
+
+        if(asyncContentWriter != null) {
+            asyncContentWriter.shutdown();
+        }
+    }
 }
@@ -34,6 +34,7 @@ import org.primefaces.util.AjaxRequestBuilder;
 import org.primefaces.util.CSVBuilder;
 import org.primefaces.util.ComponentUtils;
 import org.primefaces.util.Constants;
+import org.primefaces.util.CipherService;
 import org.primefaces.util.StringEncrypter;
 import org.primefaces.util.WidgetBuilder;
 import org.primefaces.visit.ResetInputVisitCallback;
@@ -43,7 +44,6 @@ public class DefaultRequestContext extends RequestContext {
     private final static String ATTRIBUTES_KEY = "ATTRIBUTES";
     private final static String CALLBACK_PARAMS_KEY = "CALLBACK_PARAMS";
     private final static String EXECUTE_SCRIPT_KEY = "EXECUTE_SCRIPT";
-    private final static String APPLICATION_CONTEXT_KEY = DefaultApplicationContext.class.getName();
 
     private Map<Object, Object> attributes;
     private WidgetBuilder widgetBuilder;
@@ -218,10 +218,10 @@ public class DefaultRequestContext extends RequestContext {
 	public ApplicationContext getApplicationContext() {
 		if (this.applicationContext == null) {
 	    	// get applicationContext from application map
-	    	this.applicationContext = (ApplicationContext) context.getExternalContext().getApplicationMap().get(APPLICATION_CONTEXT_KEY);
+	    	this.applicationContext = (ApplicationContext) context.getExternalContext().getApplicationMap().get(DefaultApplicationContext.INSTANCE_KEY);
 	    	if (this.applicationContext == null) {
 	    		this.applicationContext = new DefaultApplicationContext(context);
-				context.getExternalContext().getApplicationMap().put(APPLICATION_CONTEXT_KEY, this.applicationContext);
+				context.getExternalContext().getApplicationMap().put(DefaultApplicationContext.INSTANCE_KEY, this.applicationContext);
 	    	}
 		}
 
@@ -232,8 +232,14 @@ public class DefaultRequestContext extends RequestContext {
 	public StringEncrypter getEncrypter() {
 		// lazy init, it's not required for all pages
     	if (encrypter == null) {
-	    	// we can't store it in the ApplicationMap, as Cipher isn't thread safe
-	    	encrypter = new StringEncrypter(getApplicationContext().getConfig().getSecretKey());
+	    	// keys and ciphers live in the application scoped service, the encrypter is only a thin wrapper
+	    	CipherService cipherService = getApplicationContext().getCipherService();
+	    	if (cipherService != null) {
+	    		encrypter = new StringEncrypter(cipherService);
+	    	}
+	    	else {
+	    		encrypter = new StringEncrypter(getApplicationContext().getConfig().getSecretKey());
+	    	}
     	}
 
 		return encrypter;
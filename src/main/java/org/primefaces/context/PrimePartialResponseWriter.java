@@ -24,7 +24,7 @@ import javax.faces.context.FacesContext;
 import javax.faces.context.PartialResponseWriter;
 import javax.faces.event.AbortProcessingException;
 import org.primefaces.json.JSONException;
-import org.primefaces.json.JSONObject;
+import org.primefaces.json.JSONSerializer;
 
 public class PrimePartialResponseWriter extends PartialResponseWriter {
 
@@ -45,36 +45,27 @@ public class PrimePartialResponseWriter extends PartialResponseWriter {
         }
 
         if(!params.isEmpty()) {
-            StringBuilder jsonBuilder = new StringBuilder();
             Map<String, String> callbackParamExtension = new HashMap<String, String>();
             callbackParamExtension.put("ln", "primefaces");
             callbackParamExtension.put("type", "args");
 
             startExtension(callbackParamExtension);
 
-            jsonBuilder.append("{");
+            write("{");
 
-            for(Iterator<String> it = params.keySet().iterator(); it.hasNext();) {
-                String paramName = it.next();
-                Object paramValue = params.get(paramName);
+            for(Iterator<Map.Entry<String, Object>> it = params.entrySet().iterator(); it.hasNext();) {
+                Map.Entry<String, Object> param = it.next();
 
-                if(isBean(paramValue)) {
-                    jsonBuilder.append("\"").append(paramName).append("\":").append(new JSONObject(paramValue).toString());
-                } 
-                else {
-                    String json = new JSONObject().put(paramName, paramValue).toString();
-                    jsonBuilder.append(json.substring(1, json.length() - 1));
-                }
+                JSONSerializer.quote(this, param.getKey());
+                write(":");
+                JSONSerializer.write(this, param.getValue());
 
                 if(it.hasNext()) {
-                    jsonBuilder.append(",");
+                    write(",");
                 }
             }
 
-            jsonBuilder.append("}");
-
-            write(jsonBuilder.toString());
-            jsonBuilder.setLength(0);
+            write("}");
 
             endExtension();
         }
@@ -185,16 +176,4 @@ public class PrimePartialResponseWriter extends PartialResponseWriter {
     public void updateAttributes(String targetId, Map<String, String> attributes) throws IOException {
         wrapped.updateAttributes(targetId, attributes);
     }
-
-    private boolean isBean(Object value) {
-        if(value == null) {
-            return false;
-        }
-
-        if(value instanceof Boolean || value instanceof String || value instanceof Number) {
-            return false;
-        }
-
-        return true;
-    }
 }
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.json;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Writes beans, collections, maps and arrays as JSON text straight to an Appendable, producing the same values as
+ * <code>new JSONObject(bean).toString()</code> without building the intermediate JSONObject and JSONArray trees.
+ * Getters of a bean class are looked up once and shared, property names are written in alphabetical order.
+ */
+public class JSONSerializer {
+
+    private final static ConcurrentMap<Class<?>,Property[]> PROPERTIES = new ConcurrentHashMap<Class<?>,Property[]>();
+
+    private final static String HEX = "0123456789abcdef";
+
+    private JSONSerializer() {}
+
+    /**
+     * @return the value as JSON text.
+     * @see #write(Appendable, Object)
+     */
+    public static String toString(Object value) throws JSONException {
+        StringBuilder builder = new StringBuilder();
+
+        try {
+            write(builder, value);
+        }
+        catch(IOException e) {
+            throw new JSONException(e);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Writes strings, booleans and numbers as JSON values, collections and arrays as JSON arrays, maps as JSON objects
+     * and any other object as a JSON object of its getters.
+     */
+    public static void write(Appendable out, Object value) throws IOException, JSONException {
+        if(value == null) {
+            out.append("null");
+        }
+        else if(value instanceof String) {
+            quote(out, (String) value);
+        }
+        else if(value instanceof Number) {
+            out.append(JSONObject.numberToString((Number) value));
+        }
+        else if(value instanceof Boolean) {
+            out.append(value.toString());
+        }
+        else if(value instanceof Collection || value instanceof Map || value.getClass().isArray()) {
+            writeValue(out, value);
+        }
+        else {
+            writeBean(out, value);
+        }
+    }
+
+    /**
+     * Writes the string in double quotes, escaped like {@link JSONObject#quote(String)} does.
+     */
+    public static void quote(Appendable out, String string) throws IOException {
+        out.append('"');
+
+        if(string != null) {
+            int length = string.length();
+            int start = 0;
+            char c = 0;
+
+            for(int i = 0; i < length; i++) {
+                char previous = c;
+                c = string.charAt(i);
+
+                String escaped = null;
+                switch(c) {
+                    case '\\':
+                        escaped = "\\\\";
+                    break;
+
+                    case '"':
+                        escaped = "\\\"";
+                    break;
+
+                    case '/':
+                        if(previous == '<') {
+                            escaped = "\\/";
+                        }
+                    break;
+
+                    case '\b':
+                        escaped = "\\b";
+                    break;
+
+                    case '\t':
+                        escaped = "\\t";
+                    break;
+
+                    case '\n':
+                        escaped = "\\n";
+                    break;
+
+                    case '\f':
+                        escaped = "\\f";
+                    break;
+
+                    case '\r':
+                        escaped = "\\r";
+                    break;
+
+                    default:
+                        if(c < ' ' || (c >= '\u0080' && c < '\u00a0') || (c >= '\u2000' && c < '\u2100')) {
+                            escaped = "\\u" + HEX.charAt((c >> 12) & 0xF) + HEX.charAt((c >> 8) & 0xF) + HEX.charAt((c >> 4) & 0xF) + HEX.charAt(c & 0xF);
+                        }
+                }
+
+                if(escaped != null) {
+                    out.append(string, start, i).append(escaped);
+                    start = i + 1;
+                }
+            }
+
+            out.append(string, start, length);
+        }
+
+        out.append('"');
+    }
+
+    private static void writeBean(Appendable out, Object bean) throws IOException, JSONException {
+        Property[] properties = getProperties(bean.getClass());
+
+        out.append('{');
+        for(int i = 0; i < properties.length; i++) {
+            Property property = properties[i];
+            if(i > 0) {
+                out.append(',');
+            }
+
+            out.append(property.key);
+            writeValue(out, property.getValue(bean));
+        }
+        out.append('}');
+    }
+
+    /**
+     * Writes a property value or an element, following the rules of the JSONObject bean constructor.
+     */
+    private static void writeValue(Appendable out, Object value) throws IOException, JSONException {
+        if(value == null) {
+            out.append("null");
+        }
+        else if(value instanceof String || value instanceof Character) {
+            quote(out, value.toString());
+        }
+        else if(value instanceof Integer || value instanceof Long || value instanceof Double || value instanceof Float
+                || value instanceof Short || value instanceof Byte) {
+            out.append(JSONObject.numberToString((Number) value));
+        }
+        else if(value instanceof Boolean) {
+            out.append(value.toString());
+        }
+        else if(value instanceof Collection) {
+            out.append('[');
+            for(Iterator<?> it = ((Collection<?>) value).iterator(); it.hasNext();) {
+                writeValue(out, it.next());
+                if(it.hasNext()) {
+                    out.append(',');
+                }
+            }
+            out.append(']');
+        }
+        else if(value instanceof Map) {
+            out.append('{');
+            for(Iterator<? extends Map.Entry<?,?>> it = ((Map<?,?>) value).entrySet().iterator(); it.hasNext();) {
+                Map.Entry<?,?> entry = it.next();
+                quote(out, String.valueOf(entry.getKey()));
+                out.append(':');
+                writeValue(out, entry.getValue());
+                if(it.hasNext()) {
+                    out.append(',');
+                }
+            }
+            out.append('}');
+        }
+        else if(value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            out.append('[');
+            for(int i = 0; i < length; i++) {
+                if(i > 0) {
+                    out.append(',');
+                }
+                writeValue(out, Array.get(value, i));
+            }
+            out.append(']');
+        }
+        else if(isPlatformType(value.getClass())) {
+            quote(out, value.toString());
+        }
+        else {
+            writeBean(out, value);
+        }
+    }
+
+    private static boolean isPlatformType(Class<?> type) {
+        Package pkg = type.getPackage();
+
+        return type.getClassLoader() == null || (pkg != null && pkg.getName().startsWith("java"));
+    }
+
+    private static Property[] getProperties(Class<?> type) {
+        Property[] properties = PROPERTIES.get(type);
+
+        if(properties == null) {
+            properties = findProperties(type);
+            PROPERTIES.putIfAbsent(type, properties);
+        }
+
+        return properties;
+    }
+
+    /**
+     * Public no-arg getters declared by the class itself, as the JSONObject bean constructor does without super classes.
+     */
+    private static Property[] findProperties(Class<?> type) {
+        List<Property> properties = new ArrayList<Property>();
+        Method[] methods = type.getDeclaredMethods();
+
+        for(Method method : methods) {
+            if(!Modifier.isPublic(method.getModifiers()) || method.isBridge() || method.getParameterTypes().length > 0) {
+                continue;
+            }
+
+            String name = method.getName();
+            String key = null;
+            if(name.startsWith("get")) {
+                key = name.substring(3);
+            }
+            else if(name.startsWith("is")) {
+                key = name.substring(2);
+            }
+
+            if(key == null || key.length() == 0 || !Character.isUpperCase(key.charAt(0))) {
+                continue;
+            }
+
+            if(key.length() == 1) {
+                key = key.toLowerCase();
+            }
+            else if(!Character.isUpperCase(key.charAt(1))) {
+                key = key.substring(0, 1).toLowerCase() + key.substring(1);
+            }
+
+            try {
+                method.setAccessible(true);
+            }
+            catch(SecurityException e) {
+                //invoked as is
+            }
+
+            properties.add(new Property(key, method));
+        }
+
+        Property[] result = properties.toArray(new Property[properties.size()]);
+        Arrays.sort(result);
+
+        //a property with both a get and an is method is written once
+        List<Property> unique = new ArrayList<Property>(result.length);
+        for(Property property : result) {
+            int last = unique.size() - 1;
+            if(last < 0 || !unique.get(last).name.equals(property.name)) {
+                unique.add(property);
+            }
+        }
+
+        return unique.toArray(new Property[unique.size()]);
+    }
+
+    private static class Property implements Comparable<Property> {
+
+        private final String name;
+        private final String key;
+        private final Method getter;
+
+        public Property(String name, Method getter) {
+            this.name = name;
+            this.getter = getter;
+
+            StringBuilder builder = new StringBuilder(name.length() + 3);
+            try {
+                quote(builder, name);
+            }
+            catch(IOException e) {
+                //not thrown by a StringBuilder
+            }
+            this.key = builder.append(':').toString();
+        }
+
+        public Object getValue(Object bean) {
+            try {
+                return getter.invoke(bean, (Object[]) null);
+            }
+            catch(Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        public int compareTo(Property property) {
+            return name.compareTo(property.name);
+        }
+    }
+}
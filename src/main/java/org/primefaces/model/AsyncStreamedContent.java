@@ -0,0 +1,30 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+/**
+ * Dynamic content that is slow to produce, e.g. read from a remote store or rendered on demand. When asynchronous
+ * dynamic content is enabled it is written by a worker thread with the request put into asynchronous mode, so
+ * the request thread is released. getStream is then called on the worker thread and must not use the FacesContext.
+ * Asynchronous content is not kept in the server side dynamic content cache.
+ */
+public interface AsyncStreamedContent extends StreamedContent {
+
+    /**
+     * @return milliseconds the content may take to be written, 0 or less for the configured default.
+     */
+    public long getTimeout();
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import javax.faces.FacesException;
+
+/**
+ * LazyDataModel decorator caching the loaded pages, keyed by first, page size, sort and filters, in a bounded
+ * least recently used map. Row counts are cached per filter set. Keep the decorator in a view scoped bean so paging
+ * back and forth within a view does not query again, and call {@link #clear()} when the underlying data changes.
+ *
+ * When an executor is given, the page following the one just served is loaded in the background. The load methods
+ * of the decorated model then run on executor threads, so they must not use the FacesContext. All calls to the
+ * decorated model are synchronized on it, and only the read-ahead of the last served page is kept.
+ *
+ * With {@link #setProbeNextPage(boolean)} pages are cached by their real size along with the probed extra row.
+ */
+public class CachingLazyDataModel<T> extends LazyDataModel<T> {
+
+    private LazyDataModel<T> delegate;
+    private int maxPages;
+    private transient ExecutorService executor;
+    private transient Map<PageKey,List<T>> pages;
+    private transient Map<PageKey,Future<List<T>>> prefetched;
+    private transient Map<Map<String,String>,Integer> rowCounts;
+
+    public CachingLazyDataModel(LazyDataModel<T> delegate, int maxPages) {
+        this(delegate, maxPages, null);
+    }
+
+    /**
+     * @param delegate model doing the actual loading.
+     * @param maxPages maximum number of pages kept.
+     * @param executor executor to read ahead the next page with, null disables read-ahead.
+     */
+    public CachingLazyDataModel(LazyDataModel<T> delegate, int maxPages, ExecutorService executor) {
+        this.delegate = delegate;
+        this.maxPages = maxPages;
+        this.executor = executor;
+    }
+
+    @Override
+    public List<T> load(int first, int pageSize, String sortField, SortOrder sortOrder, Map<String,String> filters) {
+        return loadPage(first, pageSize, sortField, sortOrder, filters, KeysetCursor.NONE);
+    }
+
+    @Override
+    public List<T> load(int first, int pageSize, List<SortMeta> multiSortMeta, Map<String,String> filters) {
+        return loadPage(first, pageSize, multiSortMeta, filters, KeysetCursor.NONE);
+    }
+
+    /**
+     * The cursor is only passed on when the requested page itself is loaded, read-ahead loads by offset.
+     */
+    @Override
+    public List<T> loadPage(final int first, final int loadSize, final String sortField, final SortOrder sortOrder, Map<String,String> filters, final KeysetCursor cursor) {
+        final Map<String,String> filtersCopy = copy(filters);
+
+        return load(new PageKey(first, toPageSize(loadSize), sortField, sortOrder, null, filtersCopy), new Loader<T>() {
+            public List<T> load(int offset) {
+                return delegate.loadPage(offset, loadSize, sortField, sortOrder, filtersCopy, offset == first ? cursor : KeysetCursor.NONE);
+            }
+        });
+    }
+
+    @Override
+    public List<T> loadPage(final int first, final int loadSize, final List<SortMeta> multiSortMeta, Map<String,String> filters, final KeysetCursor cursor) {
+        final Map<String,String> filtersCopy = copy(filters);
+        final List<SortMeta> multiSortMetaCopy = (multiSortMeta == null) ? null : new ArrayList<SortMeta>(multiSortMeta);
+
+        return load(new PageKey(first, toPageSize(loadSize), null, null, multiSortMetaCopy, filtersCopy), new Loader<T>() {
+            public List<T> load(int offset) {
+                return delegate.loadPage(offset, loadSize, multiSortMetaCopy, filtersCopy, offset == first ? cursor : KeysetCursor.NONE);
+            }
+        });
+    }
+
+    protected synchronized List<T> load(PageKey key, final Loader<T> loader) {
+        initCache();
+
+        List<T> page = pages.get(key);
+
+        if(page == null) {
+            Future<List<T>> future = prefetched.remove(key);
+            page = (future == null) ? null : await(future);
+        }
+
+        //read-ahead of other pages is no longer needed once the user moved elsewhere
+        for(Future<List<T>> future : prefetched.values()) {
+            future.cancel(false);
+        }
+        prefetched.clear();
+
+        boolean loaded = false;
+        boolean hasMoreRows = false;
+        if(page == null) {
+            synchronized(delegate) {
+                page = loader.load(key.first);
+                rowCounts.put(key.filters, delegate.isRowCountKnown() ? delegate.getRowCount() : UNKNOWN_ROW_COUNT);
+                hasMoreRows = delegate.isHasMoreRows();
+            }
+            loaded = true;
+        }
+
+        pages.put(key, page);
+
+        Integer rowCount = rowCounts.get(key.filters);
+        setRowCount(rowCount == null ? UNKNOWN_ROW_COUNT : rowCount);
+        if(isProbeNextPage() && key.pageSize > 0) {
+            setHasMoreRows(page.size() > key.pageSize);
+        }
+        else if(!isRowCountKnown()) {
+            setHasMoreRows(loaded ? hasMoreRows : page.size() >= key.pageSize);
+        }
+
+        prefetch(key, loader);
+
+        return page;
+    }
+
+    /**
+     * Starts loading the page after the given one unless it is cached, pending or beyond the last row.
+     */
+    protected void prefetch(PageKey key, final Loader<T> loader) {
+        final PageKey next = key.next();
+
+        boolean lastPage = isRowCountKnown() ? next.first >= getRowCount() : !isHasMoreRows();
+
+        if(executor == null || key.pageSize <= 0 || lastPage || pages.containsKey(next) || prefetched.containsKey(next)) {
+            return;
+        }
+
+        try {
+            prefetched.put(next, executor.submit(new Callable<List<T>>() {
+                public List<T> call() {
+                    synchronized(delegate) {
+                        return loader.load(next.first);
+                    }
+                }
+            }));
+        }
+        catch(RejectedExecutionException e) {
+            //busy, the page is loaded on demand
+        }
+    }
+
+    /**
+     * Drops all cached pages and row counts, e.g. after the underlying data has been modified.
+     */
+    public synchronized void clear() {
+        if(prefetched != null) {
+            for(Future<List<T>> future : prefetched.values()) {
+                future.cancel(false);
+            }
+        }
+
+        pages = null;
+        prefetched = null;
+        rowCounts = null;
+    }
+
+    @Override
+    public T getRowData(String rowKey) {
+        return delegate.getRowData(rowKey);
+    }
+
+    @Override
+    public Object getRowKey(T object) {
+        return delegate.getRowKey(object);
+    }
+
+    public LazyDataModel<T> getDelegate() {
+        return delegate;
+    }
+
+    private void initCache() {
+        if(pages == null) {
+            pages = new LinkedHashMap<PageKey,List<T>>(16, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<PageKey,List<T>> eldest) {
+                    return size() > maxPages;
+                }
+            };
+            prefetched = new HashMap<PageKey,Future<List<T>>>();
+            rowCounts = new HashMap<Map<String,String>,Integer>();
+        }
+    }
+
+    /**
+     * @return size of the page a load of the given number of rows is for, without the row probing for a next page.
+     */
+    private int toPageSize(int loadSize) {
+        return (isProbeNextPage() && loadSize > 1) ? loadSize - 1 : loadSize;
+    }
+
+    private List<T> await(Future<List<T>> future) {
+        try {
+            return future.get();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FacesException(e);
+        }
+        catch(ExecutionException e) {
+            //load again on this thread and let it report the error
+            return null;
+        }
+    }
+
+    private Map<String,String> copy(Map<String,String> filters) {
+        return (filters == null) ? new HashMap<String,String>() : new HashMap<String,String>(filters);
+    }
+
+    protected interface Loader<T> {
+
+        public List<T> load(int first);
+    }
+
+    protected static class PageKey {
+
+        private int first;
+        private int pageSize;
+        private String sortField;
+        private SortOrder sortOrder;
+        private List<String> multiSort;
+        private List<SortMeta> multiSortMeta;
+        private Map<String,String> filters;
+
+        public PageKey(int first, int pageSize, String sortField, SortOrder sortOrder, List<SortMeta> multiSortMeta, Map<String,String> filters) {
+            this.first = first;
+            this.pageSize = pageSize;
+            this.sortField = sortField;
+            this.sortOrder = sortOrder;
+            this.multiSortMeta = multiSortMeta;
+            this.filters = filters;
+
+            if(multiSortMeta != null) {
+                this.multiSort = new ArrayList<String>();
+                for(SortMeta meta : multiSortMeta) {
+                    multiSort.add(meta.getSortField() + ":" + meta.getSortOrder());
+                }
+            }
+        }
+
+        public PageKey next() {
+            return new PageKey(first + pageSize, pageSize, sortField, sortOrder, multiSortMeta, filters);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof PageKey)) {
+                return false;
+            }
+
+            PageKey key = (PageKey) obj;
+
+            return first == key.first && pageSize == key.pageSize && equal(sortField, key.sortField) && sortOrder == key.sortOrder
+                    && equal(multiSort, key.multiSort) && filters.equals(key.filters);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = first;
+            hash = 31 * hash + pageSize;
+            hash = 31 * hash + (sortField == null ? 0 : sortField.hashCode());
+            hash = 31 * hash + (sortOrder == null ? 0 : sortOrder.hashCode());
+            hash = 31 * hash + (multiSort == null ? 0 : multiSort.hashCode());
+            hash = 31 * hash + filters.hashCode();
+
+            return hash;
+        }
+
+        private static boolean equal(Object o1, Object o2) {
+            return (o1 == null) ? o2 == null : o1.equals(o2);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.el.ELContext;
+import javax.el.ValueExpression;
+import javax.faces.FacesException;
+import javax.faces.context.FacesContext;
+
+/**
+ * Reads a column field like sortBy or filterBy ("name", "address.city") from row objects.
+ * Getters are introspected once per bean class and shared across requests so values are
+ * pulled without going through the request map and the EL resolver chain. Rows where the
+ * field cannot be resolved to getters fall back to a regular ValueExpression evaluation.
+ */
+public class ColumnAccessor {
+
+    public final static Object UNRESOLVED = new Object();
+
+    private final static ConcurrentMap<Class<?>,ConcurrentMap<String,Getter>> GETTERS = new ConcurrentHashMap<Class<?>,ConcurrentMap<String,Getter>>();
+
+    private String var;
+    private String field;
+    private String[] path;
+    private ValueExpression fallbackVE;
+
+    public ColumnAccessor(String var, Object field) {
+        this.var = var;
+        this.field = String.valueOf(field);
+        this.path = isPropertyPath(this.field) ? this.field.split("\\.") : null;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * @return true if the field is a plain property path that can be read without EL.
+     */
+    public boolean isDirect() {
+        return path != null;
+    }
+
+    public Object getValue(FacesContext context, Object row) {
+        Object value = getDirectValue(row);
+
+        return (value == UNRESOLVED) ? evaluate(context, row) : value;
+    }
+
+    /**
+     * Reads the value through the cached getters only, this does not touch the FacesContext so it is safe
+     * to call from worker threads.
+     * @return the value or UNRESOLVED if the row needs an EL evaluation.
+     */
+    public Object getDirectValue(Object row) {
+        if(path == null) {
+            return UNRESOLVED;
+        }
+
+        Object current = row;
+
+        for(String property : path) {
+            if(current == null) {
+                return null;
+            }
+
+            if(current instanceof Map) {
+                current = ((Map) current).get(property);
+            }
+            else {
+                Getter getter = getGetter(current.getClass(), property);
+                if(getter.method == null) {
+                    return UNRESOLVED;
+                }
+
+                current = getter.invoke(current);
+            }
+        }
+
+        return current;
+    }
+
+    protected Object evaluate(FacesContext context, Object row) {
+        ELContext elContext = context.getELContext();
+        if(fallbackVE == null) {
+            fallbackVE = context.getApplication().getExpressionFactory().createValueExpression(elContext, "#{" + var + "." + field + "}", Object.class);
+        }
+
+        Map<String,Object> requestMap = context.getExternalContext().getRequestMap();
+        Object oldVar = requestMap.put(var, row);
+        try {
+            return fallbackVE.getValue(elContext);
+        }
+        finally {
+            if(oldVar == null)
+                requestMap.remove(var);
+            else
+                requestMap.put(var, oldVar);
+        }
+    }
+
+    private static boolean isPropertyPath(String field) {
+        if(field.length() == 0 || field.startsWith(".") || field.endsWith(".") || field.indexOf("..") != -1) {
+            return false;
+        }
+
+        for(int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if(c != '.' && !Character.isJavaIdentifierPart(c)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static Getter getGetter(Class<?> type, String property) {
+        ConcurrentMap<String,Getter> getters = GETTERS.get(type);
+        if(getters == null) {
+            getters = new ConcurrentHashMap<String,Getter>();
+            ConcurrentMap<String,Getter> existing = GETTERS.putIfAbsent(type, getters);
+            if(existing != null) {
+                getters = existing;
+            }
+        }
+
+        Getter getter = getters.get(property);
+        if(getter == null) {
+            getter = new Getter(findReadMethod(type, property));
+            getters.putIfAbsent(property, getter);
+        }
+
+        return getter;
+    }
+
+    private static Method findReadMethod(Class<?> type, String property) {
+        try {
+            BeanInfo beanInfo = Introspector.getBeanInfo(type);
+
+            for(PropertyDescriptor descriptor : beanInfo.getPropertyDescriptors()) {
+                if(descriptor.getName().equals(property)) {
+                    Method method = descriptor.getReadMethod();
+                    if(method != null) {
+                        method.setAccessible(true);
+                    }
+
+                    return method;
+                }
+            }
+        }
+        catch(IntrospectionException e) {
+            //fall back to EL
+        }
+        catch(SecurityException e) {
+            //fall back to EL
+        }
+
+        return null;
+    }
+
+    private static class Getter {
+
+        private final Method method;
+
+        public Getter(Method method) {
+            this.method = method;
+        }
+
+        public Object invoke(Object bean) {
+            try {
+                return method.invoke(bean);
+            }
+            catch(Exception e) {
+                throw new FacesException(e);
+            }
+        }
+    }
+}
@@ -17,6 +17,7 @@ package org.primefaces.model;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class DefaultTreeNode implements TreeNode, Serializable {
@@ -90,7 +91,29 @@ public class DefaultTreeNode implements TreeNode, Serializable {
 	
 	public void setChildren(List<TreeNode> children) {
 		this.children = children;
-	}
+		TreeNodeChildren.markChanged(this);
+	}
+
+    /**
+     * Creates a child node of the given type for each data object and attaches them all in a single pass, which is
+     * much cheaper than creating the nodes one by one with this node as parent when building wide trees.
+     * 
+     * @return the created child nodes
+     */
+    public List<TreeNode> addChildren(String type, Collection<?> data) {
+        List<TreeNode> nodes = new ArrayList<TreeNode>(data.size());
+        for(Object value : data) {
+            nodes.add(new DefaultTreeNode(type, value, null));
+        }
+        
+        children.addAll(nodes);
+        
+        return nodes;
+    }
+    
+    public List<TreeNode> addChildren(Collection<?> data) {
+        return addChildren(DEFAULT_TYPE, data);
+    }
 	
 	public TreeNode getParent() {
 		return parent;
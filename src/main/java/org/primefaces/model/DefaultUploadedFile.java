@@ -15,6 +15,7 @@
  */
 package org.primefaces.model;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
@@ -25,7 +26,7 @@ import org.apache.commons.fileupload.FileItem;
  * 
  * UploadedFile implementation based on Commons FileUpload FileItem
  */
-public class DefaultUploadedFile implements UploadedFile, Serializable {
+public class DefaultUploadedFile implements WritableUploadedFile, Serializable {
 
 	private FileItem fileItem;
 	
@@ -55,4 +56,16 @@ public class DefaultUploadedFile implements UploadedFile, Serializable {
 		return fileItem.getContentType();
 	}
 
+	public void write(File target) throws IOException {
+		try {
+			fileItem.write(target);
+		}
+		catch(IOException e) {
+			throw e;
+		}
+		catch(Exception e) {
+			throw new IOException(e.getMessage(), e);
+		}
+	}
+
 }
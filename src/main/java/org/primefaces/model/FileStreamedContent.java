@@ -0,0 +1,96 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.io.Serializable;
+import javax.faces.FacesException;
+
+/**
+ * StreamedContent backed by a file. Size and modification time are known up front so the content can be sent
+ * with a Content-Length, in ranges and answered with 304 when the client already has it.
+ */
+public class FileStreamedContent implements StreamedContent, Serializable {
+
+    private File file;
+
+    private String contentType;
+
+    private String name;
+
+    private String contentEncoding;
+
+    public FileStreamedContent(File file, String contentType) {
+        this(file, contentType, file.getName(), null);
+    }
+
+    public FileStreamedContent(File file, String contentType, String name) {
+        this(file, contentType, name, null);
+    }
+
+    public FileStreamedContent(File file, String contentType, String name, String contentEncoding) {
+        this.file = file;
+        this.contentType = contentType;
+        this.name = name;
+        this.contentEncoding = contentEncoding;
+    }
+
+    /**
+     * @return a new stream on the file, the caller closes it.
+     */
+    public InputStream getStream() {
+        try {
+            return new FileInputStream(file);
+        }
+        catch(FileNotFoundException e) {
+            throw new FacesException(e);
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public long getSize() {
+        return file.length();
+    }
+
+    public long getLastModified() {
+        return file.lastModified();
+    }
+
+    /**
+     * @return strong entity tag derived from size and modification time of the file.
+     */
+    public String getETag() {
+        return "\"" + Long.toHexString(file.length()) + "-" + Long.toHexString(file.lastModified()) + "\"";
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import javax.el.MethodExpression;
+import javax.faces.FacesException;
+import javax.faces.context.FacesContext;
+
+/**
+ * Decorate-sort-undecorate sorter for in-memory lists. Sort keys of every row are extracted
+ * exactly once, row indexes are sorted over the extracted keys and the list is permuted
+ * afterwards, so the number of value lookups is linear in the list size instead of
+ * being proportional to the number of comparisons.
+ * Null values are sorted last in ascending order like in BeanPropertyComparator.
+ */
+public class KeyedListSorter {
+
+    private List<ColumnAccessor> accessors = new ArrayList<ColumnAccessor>();
+    private List<SortOrder> sortOrders = new ArrayList<SortOrder>();
+    private List<MethodExpression> sortFunctions = new ArrayList<MethodExpression>();
+    private ExecutorService executor;
+    private int parallelThreshold;
+
+    public void addKey(ColumnAccessor accessor, SortOrder sortOrder, MethodExpression sortFunction) {
+        accessors.add(accessor);
+        sortOrders.add(sortOrder);
+        sortFunctions.add(sortFunction);
+    }
+
+    /**
+     * Enables sorting on the given executor for lists having at least threshold elements.
+     * Sorts using a sortFunction always run on the calling thread as they need the ELContext.
+     */
+    public void setParallelism(ExecutorService executor, int threshold) {
+        this.executor = executor;
+        this.parallelThreshold = threshold;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void sort(FacesContext context, List list) {
+        int size = list.size();
+        if(size < 2 || accessors.isEmpty()) {
+            return;
+        }
+
+        int keyCount = accessors.size();
+        Object[] rows = list.toArray();
+        Object[][] keys = new Object[keyCount][];
+        boolean[] ascending = new boolean[keyCount];
+        MethodExpression[] functions = new MethodExpression[keyCount];
+        boolean hasSortFunction = false;
+
+        for(int k = 0; k < keyCount; k++) {
+            ColumnAccessor accessor = accessors.get(k);
+            Object[] columnKeys = new Object[size];
+            for(int i = 0; i < size; i++) {
+                columnKeys[i] = accessor.getValue(context, rows[i]);
+            }
+
+            keys[k] = columnKeys;
+            ascending[k] = sortOrders.get(k).equals(SortOrder.ASCENDING);
+            functions[k] = sortFunctions.get(k);
+            hasSortFunction = hasSortFunction || functions[k] != null;
+        }
+
+        Integer[] indexes = new Integer[size];
+        for(int i = 0; i < size; i++) {
+            indexes[i] = i;
+        }
+
+        KeyComparator comparator = new KeyComparator(context, keys, ascending, functions);
+
+        if(executor != null && parallelThreshold > 0 && size >= parallelThreshold && !hasSortFunction) {
+            parallelSort(indexes, comparator);
+        }
+        else {
+            Arrays.sort(indexes, comparator);
+        }
+
+        ListIterator iterator = list.listIterator();
+        for(int i = 0; i < size; i++) {
+            iterator.next();
+            iterator.set(rows[indexes[i]]);
+        }
+    }
+
+    /**
+     * Sorts one run per processor on the executor and merges adjacent runs pairwise, merges are stable
+     * so equal keys keep their original order like Collections.sort.
+     */
+    protected void parallelSort(Integer[] indexes, final KeyComparator comparator) {
+        int size = indexes.length;
+        int runs = Math.min(Runtime.getRuntime().availableProcessors(), Math.max(1, size / 1024));
+        if(runs < 2) {
+            Arrays.sort(indexes, comparator);
+            return;
+        }
+
+        int[] bounds = new int[runs + 1];
+        for(int r = 0; r <= runs; r++) {
+            bounds[r] = (int) ((long) size * r / runs);
+        }
+
+        final Integer[] data = indexes;
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        for(int r = 0; r < runs; r++) {
+            final int from = bounds[r];
+            final int to = bounds[r + 1];
+            tasks.add(new Callable<Object>() {
+                public Object call() {
+                    Arrays.sort(data, from, to, comparator);
+                    return null;
+                }
+            });
+        }
+        invokeAll(tasks);
+
+        Integer[] src = indexes;
+        Integer[] dst = new Integer[size];
+        while(bounds.length > 2) {
+            int pairs = (bounds.length - 1) / 2;
+            boolean odd = (bounds.length - 1) % 2 == 1;
+            int[] merged = new int[pairs + (odd ? 1 : 0) + 1];
+            tasks = new ArrayList<Callable<Object>>();
+
+            for(int p = 0; p < pairs; p++) {
+                final int lo = bounds[2 * p];
+                final int mid = bounds[2 * p + 1];
+                final int hi = bounds[2 * p + 2];
+                final Integer[] from = src;
+                final Integer[] to = dst;
+                tasks.add(new Callable<Object>() {
+                    public Object call() {
+                        merge(from, to, lo, mid, hi, comparator);
+                        return null;
+                    }
+                });
+                merged[p] = lo;
+            }
+
+            if(odd) {
+                int lo = bounds[bounds.length - 2];
+                System.arraycopy(src, lo, dst, lo, size - lo);
+                merged[pairs] = lo;
+            }
+            merged[merged.length - 1] = size;
+            invokeAll(tasks);
+
+            Integer[] swap = src;
+            src = dst;
+            dst = swap;
+            bounds = merged;
+        }
+
+        if(src != indexes) {
+            System.arraycopy(src, 0, indexes, 0, size);
+        }
+    }
+
+    private void invokeAll(List<Callable<Object>> tasks) {
+        try {
+            for(Future<Object> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FacesException(e);
+        }
+        catch(ExecutionException e) {
+            throw new FacesException(e.getCause());
+        }
+    }
+
+    private static void merge(Integer[] src, Integer[] dst, int lo, int mid, int hi, Comparator<Integer> comparator) {
+        int i = lo;
+        int j = mid;
+
+        for(int k = lo; k < hi; k++) {
+            if(j >= hi || (i < mid && comparator.compare(src[i], src[j]) <= 0))
+                dst[k] = src[i++];
+            else
+                dst[k] = src[j++];
+        }
+    }
+
+    private static class KeyComparator implements Comparator<Integer> {
+
+        private FacesContext context;
+        private Object[][] keys;
+        private boolean[] ascending;
+        private MethodExpression[] functions;
+
+        public KeyComparator(FacesContext context, Object[][] keys, boolean[] ascending, MethodExpression[] functions) {
+            this.context = context;
+            this.keys = keys;
+            this.ascending = ascending;
+            this.functions = functions;
+        }
+
+        @SuppressWarnings("unchecked")
+        public int compare(Integer index1, Integer index2) {
+            for(int k = 0; k < keys.length; k++) {
+                Object value1 = keys[k][index1];
+                Object value2 = keys[k][index2];
+                int result;
+
+                if(value1 == null && value2 == null) {
+                    continue;
+                }
+                else if(value1 == null) {
+                    result = 1;
+                }
+                else if(value2 == null) {
+                    result = -1;
+                }
+                else if(functions[k] == null) {
+                    result = ((Comparable) value1).compareTo(value2);
+                }
+                else {
+                    result = (Integer) functions[k].invoke(context.getELContext(), new Object[]{value1, value2});
+                }
+
+                if(result != 0) {
+                    return ascending[k] ? result : -1 * result;
+                }
+            }
+
+            return 0;
+        }
+    }
+}
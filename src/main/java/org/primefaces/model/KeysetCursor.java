@@ -0,0 +1,141 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Position of a lazy page relative to the page currently held by the model, passed to the keyset aware load methods of
+ * {@link LazyDataModel}. When the table moves to the next page the cursor carries the sort key values of the last row
+ * of the current page, when it moves to the previous page the ones of the first row, so the query can seek with
+ * a "WHERE (sortKey, id) &gt; (?, ?)" condition instead of skipping first rows. Any other navigation has no keys and
+ * must be loaded by offset.
+ */
+public class KeysetCursor implements Serializable {
+
+    public enum Direction {
+        NEXT,
+        PREVIOUS,
+        NONE;
+    }
+
+    public final static KeysetCursor NONE = new KeysetCursor(Direction.NONE, Collections.<String,Object>emptyMap(), null);
+
+    private Direction direction;
+    private Map<String,Object> keys;
+    private Object rowKey;
+
+    public KeysetCursor(Direction direction, Map<String,Object> keys, Object rowKey) {
+        this.direction = direction;
+        this.keys = keys;
+        this.rowKey = rowKey;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * @return sort field to value map of the boundary row, in sort order.
+     */
+    public Map<String,Object> getKeys() {
+        return keys;
+    }
+
+    /**
+     * @return row key of the boundary row to break ties of equal sort keys, null if the model does not provide row keys.
+     */
+    public Object getRowKey() {
+        return rowKey;
+    }
+
+    /**
+     * @return true if the page can be loaded by seeking from the boundary row.
+     */
+    public boolean isSeek() {
+        return direction != Direction.NONE;
+    }
+
+    /**
+     * Creates the cursor to load the page at first from the page the model currently holds, query identifies the sort
+     * and filters of the new page as keys are only comparable when both pages share them.
+     */
+    public static <T> KeysetCursor create(LazyDataModel<T> model, int first, int pageSize, List<String> sortFields, String query) {
+        List<T> data = (List<T>) model.getWrappedData();
+        int loadedFirst = model.getFirst();
+        String loadedQuery = model.getKeysetQuery();
+        model.setKeysetQuery(query);
+
+        if(data == null || data.isEmpty() || loadedFirst < 0 || pageSize <= 0 || pageSize != model.getPageSize()
+                || !query.equals(loadedQuery)) {
+            return NONE;
+        }
+
+        T boundary;
+        Direction direction;
+        if(first == loadedFirst + pageSize && data.size() == pageSize) {
+            boundary = data.get(data.size() - 1);
+            direction = Direction.NEXT;
+        }
+        else if(first == loadedFirst - pageSize) {
+            boundary = data.get(0);
+            direction = Direction.PREVIOUS;
+        }
+        else {
+            return NONE;
+        }
+
+        return create(model, boundary, direction, sortFields);
+    }
+
+    /**
+     * Creates the cursor of the rows following the given row, e.g. to read a lazy model chunk by chunk.
+     */
+    public static <T> KeysetCursor next(LazyDataModel<T> model, T row, List<String> sortFields) {
+        return create(model, row, Direction.NEXT, sortFields);
+    }
+
+    private static <T> KeysetCursor create(LazyDataModel<T> model, T boundary, Direction direction, List<String> sortFields) {
+        Map<String,Object> keys = new LinkedHashMap<String,Object>();
+        for(String field : sortFields) {
+            Object value = new ColumnAccessor(null, field).getDirectValue(boundary);
+            if(value == ColumnAccessor.UNRESOLVED) {
+                return NONE;
+            }
+
+            keys.put(field, value);
+        }
+
+        Object rowKey;
+        try {
+            rowKey = model.getRowKey(boundary);
+        }
+        catch(UnsupportedOperationException e) {
+            rowKey = null;
+        }
+
+        return new KeysetCursor(direction, keys, rowKey);
+    }
+
+    @Override
+    public String toString() {
+        return direction + (isSeek() ? " " + keys + (rowKey == null ? "" : " " + rowKey) : "");
+    }
+}
@@ -16,8 +16,15 @@
 package org.primefaces.model;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import javax.faces.model.DataModel;
 
@@ -26,6 +33,13 @@ import javax.faces.model.DataModel;
  */
 public abstract class LazyDataModel<T> extends DataModel<T> implements SelectableDataModel<T>, Serializable {
 
+    /**
+     * Row count of a model that does not count its rows, see {@link #setRowCount(int)}.
+     */
+    public final static int UNKNOWN_ROW_COUNT = -1;
+
+    private final static Logger logger = Logger.getLogger(LazyDataModel.class.getName());
+
 	private int rowIndex = -1;
 
 	private int rowCount;
@@ -34,6 +48,16 @@ public abstract class LazyDataModel<T> extends DataModel<T> implements Selectabl
 
 	private List<T> data;
 
+	private int first = -1;
+
+	private boolean hasMoreRows;
+
+	private String keysetQuery;
+
+	private boolean probeNextPage;
+
+	private transient Future<Integer> rowCountFuture;
+
 	public LazyDataModel() {
 		super();
 	}
@@ -47,6 +71,14 @@ public abstract class LazyDataModel<T> extends DataModel<T> implements Selectabl
 	}
 
 	public int getRowCount() {
+        resolveRowCount();
+        
+        if(rowCount == UNKNOWN_ROW_COUNT) {
+            int loaded = (data == null) ? 0 : data.size();
+
+            return Math.max(first, 0) + loaded + (hasMoreRows ? 1 : 0);
+        }
+
 		return rowCount;
 	}
 
@@ -76,8 +108,111 @@ public abstract class LazyDataModel<T> extends DataModel<T> implements Selectabl
 		this.pageSize = pageSize;
 	}
 
+    /**
+     * Sets the total number of rows, UNKNOWN_ROW_COUNT skips the count query. In that case the row count is
+     * derived from the loaded page and {@link #setHasMoreRows(boolean)}, so the paginator only offers the next page.
+     */
     public void setRowCount(int rowCount) {
         this.rowCount = rowCount;
+        this.rowCountFuture = null;
+    }
+    
+    /**
+     * Sets an estimated row count, e.g. from the query planner statistics, while the exact count is computed in the
+     * background. The exact count replaces the estimate once the future is done and reaches the paginator with
+     * the next lazy load.
+     */
+    public void setRowCount(int estimate, Future<Integer> exactRowCount) {
+        this.rowCount = estimate;
+        this.rowCountFuture = exactRowCount;
+    }
+
+    /**
+     * @return the pending exact row count set along with an estimate, null once the row count is exact.
+     */
+    public Future<Integer> getExactRowCount() {
+        resolveRowCount();
+        
+        return rowCountFuture;
+    }
+
+    public boolean isRowCountKnown() {
+        return rowCount != UNKNOWN_ROW_COUNT;
+    }
+    
+    /**
+     * @return true while the row count is an estimate waiting for its exact count.
+     */
+    public boolean isRowCountEstimated() {
+        resolveRowCount();
+        
+        return rowCountFuture != null;
+    }
+
+    public boolean isHasMoreRows() {
+        return hasMoreRows;
+    }
+    
+    /**
+     * Tells a model with an unknown row count whether rows exist after the loaded page.
+     */
+    public void setHasMoreRows(boolean hasMoreRows) {
+        this.hasMoreRows = hasMoreRows;
+    }
+    
+    public boolean isProbeNextPage() {
+        return probeNextPage;
+    }
+    
+    /**
+     * Enables count free paging, components then load one row more than the page size to find out whether a next
+     * page exists and load does not need to set a row count.
+     */
+    public void setProbeNextPage(boolean probeNextPage) {
+        this.probeNextPage = probeNextPage;
+    }
+    
+    /**
+     * @return number of rows to load for a page of the given size, one more when probing for a next page.
+     */
+    public int getLoadSize(int pageSize) {
+        return (probeNextPage && pageSize > 0) ? pageSize + 1 : pageSize;
+    }
+    
+    /**
+     * Takes the rows loaded for the page at first, a probed extra row only tells that a next page exists and is dropped.
+     */
+    public void setLoadedPage(int first, int pageSize, List<T> data) {
+        if(probeNextPage && pageSize > 0) {
+            boolean more = data != null && data.size() > pageSize;
+            
+            setRowCount(UNKNOWN_ROW_COUNT);
+            setHasMoreRows(more);
+            if(more) {
+                data = new ArrayList<T>(data.subList(0, pageSize));
+            }
+        }
+        
+        setPageSize(pageSize);
+        setFirst(first);
+        setWrappedData(data);
+    }
+
+    /**
+     * @return offset of the loaded page, -1 if nothing is loaded yet.
+     */
+    public int getFirst() {
+        return first;
+    }
+    public void setFirst(int first) {
+        this.first = first;
+    }
+
+    String getKeysetQuery() {
+        return keysetQuery;
+    }
+    void setKeysetQuery(String keysetQuery) {
+        this.keysetQuery = keysetQuery;
     }
 
     public List<T> load(int first, int pageSize, String sortField, SortOrder sortOrder, Map<String,String> filters) {
@@ -88,6 +223,65 @@ public abstract class LazyDataModel<T> extends DataModel<T> implements Selectabl
         throw new UnsupportedOperationException("Lazy loading is not implemented.");
     }
 
+    /**
+     * Keyset aware variant of load, the cursor holds the sort key values of the boundary row of the loaded page
+     * when the table moves to an adjacent page so the page can be queried by seeking from those keys instead of
+     * by offset. Delegates to the offset based load by default.
+     */
+    public List<T> loadPage(int first, int pageSize, String sortField, SortOrder sortOrder, Map<String,String> filters, KeysetCursor cursor) {
+        return load(first, pageSize, sortField, sortOrder, filters);
+    }
+    
+    /**
+     * Multi sort variant of {@link #loadPage(int, int, String, SortOrder, Map, KeysetCursor)}.
+     */
+    public List<T> loadPage(int first, int pageSize, List<SortMeta> multiSortMeta, Map<String,String> filters, KeysetCursor cursor) {
+        return load(first, pageSize, multiSortMeta, filters);
+    }
+
+    /**
+     * Optional streaming access used by exporters, returns all rows matching the filters in the given order,
+     * e.g. over a database cursor, so large exports do not page through load. Returns null when not implemented.
+     * An iterator implementing Closeable is closed by the exporter once all rows are read.
+     */
+    public Iterator<T> iterate(String sortField, SortOrder sortOrder, Map<String,String> filters) {
+        return null;
+    }
+    
+    /**
+     * Multi sort variant of {@link #iterate(String, SortOrder, Map)}.
+     */
+    public Iterator<T> iterate(List<SortMeta> multiSortMeta, Map<String,String> filters) {
+        return null;
+    }
+
+    /**
+     * Creates an independent copy of the model that can load rows on a background thread while the table keeps using
+     * this instance, e.g. for asynchronous exports. Returns null by default, such models are exported synchronously.
+     */
+    public LazyDataModel<T> detach() {
+        return null;
+    }
+
+    private void resolveRowCount() {
+        if(rowCountFuture != null && rowCountFuture.isDone()) {
+            try {
+                rowCount = rowCountFuture.get();
+            }
+            catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            catch(ExecutionException e) {
+                logger.log(Level.WARNING, "Row count could not be computed, keeping the estimate.", e.getCause());
+            }
+            catch(CancellationException e) {
+                //keep the estimate
+            }
+            
+            rowCountFuture = null;
+        }
+    }
+
     public T getRowData(String rowKey) {
         throw new UnsupportedOperationException("getRowData(String rowKey) must be implemented when basic rowKey algorithm is not used.");
     }
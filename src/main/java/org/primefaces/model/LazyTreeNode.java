@@ -0,0 +1,222 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TreeNode whose children are fetched from a {@link TreeNodeLoader} the first time the node is expanded instead of
+ * being built up front. The root is created with the loader and shares it with all lazy nodes below it, together with
+ * the number of loaded nodes to keep. When more nodes are loaded than that, the children of the least recently used collapsed branches are dropped and loaded again on their
+ * next expansion, so selections pointing into evicted branches should be kept by data rather than by node.
+ * 
+ * A node that is not loaded yet reports itself as leaf only if it is not expandable, so trees can render the expand
+ * toggler without knowing the child count. Lazy nodes are meant for dynamic trees and tree tables which render the
+ * children of a node on expansion.
+ */
+public class LazyTreeNode extends DefaultTreeNode {
+
+    private Branches branches;
+
+    private boolean expandable = true;
+
+    private boolean loaded;
+
+    private long id;
+
+    public LazyTreeNode(Object data, TreeNodeLoader loader) {
+        this(data, loader, 0);
+    }
+
+    /**
+     * Creates the root of a lazy tree.
+     * 
+     * @param cacheSize number of loaded nodes to keep before collapsed branches are evicted, 0 for no limit
+     */
+    public LazyTreeNode(Object data, TreeNodeLoader loader, int cacheSize) {
+        super(data);
+        this.branches = new Branches(loader, cacheSize);
+    }
+
+    /**
+     * Creates a node to be returned by a loader.
+     */
+    public LazyTreeNode(String type, Object data, boolean expandable) {
+        super(type, data, null);
+        this.expandable = expandable;
+    }
+
+    public LazyTreeNode(Object data, boolean expandable) {
+        this(DEFAULT_TYPE, data, expandable);
+    }
+
+    /**
+     * @return the children, loaded first if the node is expanded or the root.
+     */
+    @Override
+    public List<TreeNode> getChildren() {
+        if(!loaded) {
+            if(isExpanded() || getParent() == null) {
+                load();
+            }
+        }
+        else if(branches.capacity > 0) {
+            branches.touch(this);
+        }
+
+        return super.getChildren();
+    }
+
+    @Override
+    public int getChildCount() {
+        return getChildren().size();
+    }
+
+    @Override
+    public boolean isLeaf() {
+        return loaded ? super.getChildren().isEmpty() : !expandable;
+    }
+
+    @Override
+    public void setParent(TreeNode parent) {
+        super.setParent(parent);
+
+        if(branches == null && parent instanceof LazyTreeNode) {
+            branches = ((LazyTreeNode) parent).branches;
+        }
+    }
+
+    public boolean isExpandable() {
+        return expandable;
+    }
+
+    public void setExpandable(boolean expandable) {
+        this.expandable = expandable;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Loads the children, replacing the children loaded before.
+     */
+    public void load() {
+        if(branches == null) {
+            throw new IllegalStateException("LazyTreeNode is not attached to a tree created with a TreeNodeLoader.");
+        }
+
+        unload();
+        loaded = true;
+        branches.register(this);
+
+        List<TreeNode> nodes = branches.loader.load(this);
+        super.getChildren().addAll(nodes);
+        branches.loadedCount += nodes.size();
+
+        //children loaded while rendering need their row keys right away
+        if(getParent() == null || getRowKey() != null) {
+            TreeNodeChildren.updateRowKeys(this);
+        }
+
+        branches.evict(this);
+    }
+
+    /**
+     * Drops the loaded children so they are loaded again on the next expansion.
+     */
+    public void unload() {
+        if(!loaded) {
+            return;
+        }
+
+        List<TreeNode> children = super.getChildren();
+        for(TreeNode child : children) {
+            if(child instanceof LazyTreeNode) {
+                ((LazyTreeNode) child).unload();
+            }
+        }
+
+        branches.unregister(this, children.size());
+        children.clear();
+        loaded = false;
+    }
+
+    private boolean isAncestorOf(TreeNode node) {
+        for(TreeNode parent = node.getParent(); parent != null; parent = parent.getParent()) {
+            if(parent == this) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Loader and loaded branches shared by the lazy nodes of a tree, least recently used first.
+     */
+    private static class Branches implements Serializable {
+
+        private TreeNodeLoader loader;
+        private int capacity;
+        private int loadedCount;
+        private long sequence;
+        private Map<Long,LazyTreeNode> loaded = new LinkedHashMap<Long,LazyTreeNode>(16, 0.75f, true);
+
+        public Branches(TreeNodeLoader loader, int capacity) {
+            this.loader = loader;
+            this.capacity = capacity;
+        }
+
+        public void register(LazyTreeNode node) {
+            node.id = ++sequence;
+            loaded.put(node.id, node);
+        }
+
+        public void unregister(LazyTreeNode node, int childCount) {
+            loaded.remove(node.id);
+            loadedCount -= childCount;
+        }
+
+        public void touch(LazyTreeNode node) {
+            loaded.get(node.id);
+        }
+
+        /**
+         * Unloads collapsed branches until the loaded nodes fit into the capacity, the root and the branch being
+         * loaded are kept.
+         */
+        public void evict(LazyTreeNode current) {
+            if(capacity <= 0 || loadedCount <= capacity) {
+                return;
+            }
+
+            for(LazyTreeNode node : new ArrayList<LazyTreeNode>(loaded.values())) {
+                if(loadedCount <= capacity) {
+                    break;
+                }
+
+                if(node != current && node.isLoaded() && !node.isExpanded() && node.getParent() != null && !node.isAncestorOf(current)) {
+                    node.unload();
+                }
+            }
+        }
+    }
+}
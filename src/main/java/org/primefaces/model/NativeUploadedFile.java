@@ -15,12 +15,13 @@
  */
 package org.primefaces.model;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
 import javax.servlet.http.Part;
 
-public class NativeUploadedFile implements UploadedFile, Serializable {
+public class NativeUploadedFile implements WritableUploadedFile, Serializable {
 
     private Part part;
     private String filename;
@@ -51,6 +52,10 @@ public class NativeUploadedFile implements UploadedFile, Serializable {
     public String getContentType() {
        return part.getContentType();
     }
+
+    public void write(File target) throws IOException {
+        part.write(target.getAbsolutePath());
+    }
     
     private String resolveFilename(Part part) {
         for (String cd : part.getHeader("content-disposition").split(";")) {
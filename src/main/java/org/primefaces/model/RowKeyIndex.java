@@ -0,0 +1,75 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * rowKey to row map of a collection built in a single pass, so looking up many keys resolves the key of each row once.
+ * The rows are copied when the index is built, looking a row up stays correct when the collection is reordered in place.
+ */
+public class RowKeyIndex {
+
+    private Object data;
+    private Object[] rows;
+    private Map<String,Integer> index;
+
+    public RowKeyIndex(Collection<?> data, KeyResolver resolver) {
+        this.data = data;
+        this.rows = data.toArray();
+        this.index = new HashMap<String,Integer>(Math.max(16, (int) (rows.length / 0.75f) + 1));
+
+        for(int i = 0; i < rows.length; i++) {
+            String rowKey = resolver.getRowKey(rows[i]);
+
+            if(!index.containsKey(rowKey)) {
+                index.put(rowKey, i);
+            }
+        }
+    }
+
+    /**
+     * @return the index stored in the attributes under the key, built again if the data instance or its size has changed.
+     * Passing the attributes of the FacesContext keeps the index for the current request only, rows replaced by the
+     * application are seen by the next request.
+     */
+    public static RowKeyIndex get(Map<Object,Object> attributes, String key, Collection<?> data, KeyResolver resolver) {
+        RowKeyIndex rowKeyIndex = (RowKeyIndex) attributes.get(key);
+
+        if(rowKeyIndex == null || rowKeyIndex.data != data || rowKeyIndex.rows.length != data.size()) {
+            rowKeyIndex = new RowKeyIndex(data, resolver);
+            attributes.put(key, rowKeyIndex);
+        }
+
+        return rowKeyIndex;
+    }
+
+    /**
+     * @return the first row with the given key, null if there is no such row.
+     */
+    public Object getRowData(String rowKey) {
+        Integer position = index.get(rowKey);
+
+        return (position == null) ? null : rows[position];
+    }
+
+    public interface KeyResolver {
+
+        public String getRowKey(Object row);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.channels.FileChannel;
+
+/**
+ * UploadedFile received by the streaming multipart parsing of MultipartRequest, small files are held in memory and
+ * larger ones in a temporary file that is moved to its target by {@link #write(File)}. MultipartRequest registers the
+ * temporary file with a FileCleaningTracker that deletes it once this instance is garbage collected.
+ */
+public class StreamingUploadedFile implements WritableUploadedFile, Serializable {
+
+    private String fileName;
+    private String contentType;
+    private long size;
+    private byte[] contents;
+    private File file;
+    private boolean moved;
+
+    public StreamingUploadedFile(String fileName, String contentType, byte[] contents) {
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.contents = contents;
+        this.size = contents.length;
+    }
+
+    public StreamingUploadedFile(String fileName, String contentType, File file, long size) {
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.file = file;
+        this.size = size;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public InputStream getInputstream() throws IOException {
+        return (file == null) ? new ByteArrayInputStream(contents) : new FileInputStream(file);
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public byte[] getContents() {
+        if(file == null) {
+            return contents;
+        }
+
+        byte[] bytes = new byte[(int) size];
+        try {
+            InputStream in = getInputstream();
+            try {
+                int offset = 0;
+                int read;
+                while(offset < bytes.length && (read = in.read(bytes, offset, bytes.length - offset)) != -1) {
+                    offset += read;
+                }
+            }
+            finally {
+                in.close();
+            }
+        }
+        catch(IOException e) {
+            return null;
+        }
+
+        return bytes;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return the temporary file holding the upload, null if it is held in memory.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    public void write(File target) throws IOException {
+        if(file != null && !moved && file.renameTo(target)) {
+            file = target;
+            moved = true;
+            return;
+        }
+
+        if(file == null) {
+            FileOutputStream out = new FileOutputStream(target);
+            try {
+                out.write(contents);
+            }
+            finally {
+                out.close();
+            }
+        }
+        else {
+            FileChannel in = new FileInputStream(file).getChannel();
+            try {
+                FileChannel out = new FileOutputStream(target).getChannel();
+                try {
+                    long position = 0;
+                    while(position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+                finally {
+                    out.close();
+                }
+            }
+            finally {
+                in.close();
+            }
+        }
+    }
+
+    /**
+     * Deletes the temporary file of an upload that was not written to its target.
+     */
+    public void delete() {
+        if(file != null && !moved) {
+            file.delete();
+        }
+    }
+}
@@ -18,23 +18,79 @@ package org.primefaces.model;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 
+/**
+ * Children list of a tree node that keeps the parent of its nodes in sync. Row keys are not rewritten on every change,
+ * the list and its ancestors are marked dirty instead and {@link #updateRowKeys(TreeNode)} assigns the keys of the changed
+ * subtrees in one pass before they are used.
+ */
 public class TreeNodeChildren extends ArrayList<TreeNode> {
 
     private TreeNode parent;
     
+    private boolean dirty;
+    
     public TreeNodeChildren(TreeNode parent) {
         this.parent = parent;
     }
     
+    /**
+     * @return true if nodes were added, moved or removed in the subtree since its row keys were last updated.
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+    
     private void eraseParent(TreeNode node) {
         TreeNode parentNode = node.getParent();
         if(parentNode != null) {
-            parentNode.getChildren().remove(node);
+            List<TreeNode> siblings = parentNode.getChildren();
+            if(siblings instanceof TreeNodeChildren)
+                ((TreeNodeChildren) siblings).removeNode(node);
+            else
+                siblings.remove(node);
+            
             node.setParent(null);
         }
     }
     
+    /**
+     * Removes the node itself rather than an equal one, searching from the end as nodes are mostly moved right after
+     * being appended.
+     */
+    private void removeNode(TreeNode node) {
+        for(int i = size() - 1; i >= 0; i--) {
+            if(get(i) == node) {
+                super.remove(i);
+                markDirty();
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Marks the keys of this subtree as stale, ancestors are marked as well so the update can skip clean subtrees.
+     */
+    private void markDirty() {
+        if(dirty) {
+            return;
+        }
+        
+        dirty = true;
+        for(TreeNode ancestor = parent.getParent(); ancestor != null; ancestor = ancestor.getParent()) {
+            List<TreeNode> children = ancestor.getChildren();
+            if(children instanceof TreeNodeChildren) {
+                TreeNodeChildren treeNodeChildren = (TreeNodeChildren) children;
+                if(treeNodeChildren.dirty) {
+                    break;
+                }
+                
+                treeNodeChildren.dirty = true;
+            }
+        }
+    }
+    
     @Override
     public boolean add(TreeNode node) {
         if(node == null) {
@@ -44,7 +100,7 @@ public class TreeNodeChildren extends ArrayList<TreeNode> {
             eraseParent(node);
             boolean result = super.add(node);
             node.setParent(parent);
-            updateRowKeys(parent);
+            markDirty();
             return result;
         }
     }
@@ -61,6 +117,7 @@ public class TreeNodeChildren extends ArrayList<TreeNode> {
             eraseParent(node);
             super.add(index, node);
             node.setParent(parent);
+            markDirty();
         }
     }
     
@@ -68,6 +125,7 @@ public class TreeNodeChildren extends ArrayList<TreeNode> {
     public boolean addAll(Collection<? extends TreeNode> collection) {
         Iterator<TreeNode> elements = (new ArrayList<TreeNode>(collection)).iterator();
         boolean changed = false;
+        ensureCapacity(size() + collection.size());
         while(elements.hasNext()) {
             TreeNode node = elements.next();
             if(node == null) {
@@ -82,7 +140,7 @@ public class TreeNodeChildren extends ArrayList<TreeNode> {
         }
         
         if(changed) {
-            updateRowKeys(parent);
+            markDirty();
         }
         
         return (changed);
@@ -106,7 +164,7 @@ public class TreeNodeChildren extends ArrayList<TreeNode> {
         }
         
         if(changed) {
-            updateRowKeys(parent);
+            markDirty();
         }
         
         return (changed);
@@ -126,17 +184,16 @@ public class TreeNodeChildren extends ArrayList<TreeNode> {
             super.set(index, node);
             previous.setParent(null);
             node.setParent(parent);
-            updateRowKeys(parent);
+            markDirty();
             return previous;
         }
     }
 
     @Override
     public TreeNode remove(int index) {
-        TreeNode node = get(index);
+        TreeNode node = super.remove(index);
         node.setParent(null);
-        super.remove(index);
-        updateRowKeys(parent);
+        markDirty();
         return node;
     }
 
@@ -147,28 +204,80 @@ public class TreeNodeChildren extends ArrayList<TreeNode> {
             throw new NullPointerException();
         }
         
-        if(super.indexOf(node) != -1) {
+        int index = super.indexOf(node);
+        if(index != -1) {
+            super.remove(index);
             node.setParent(null);
-        }
-        
-        if(super.remove(node)) {
-            updateRowKeys(parent);
+            markDirty();
             return true;
         } else {
             return false;
         }
     }
     
-    private void updateRowKeys(TreeNode node) {
-        int childCount = node.getChildCount();
-        if(childCount > 0) {
-            for(int i = 0; i < childCount; i++) {
-                TreeNode childNode = node.getChildren().get(i);
-
-                String childRowKey = (node.getParent() == null) ? String.valueOf(i) : node.getRowKey() + "_" + i;
+    @Override
+    public void clear() {
+        if(isEmpty()) {
+            return;
+        }
+        
+        TreeNode[] nodes = toArray(new TreeNode[size()]);
+        super.clear();
+        for(TreeNode node : nodes) {
+            node.setParent(null);
+        }
+        
+        markDirty();
+    }
+    
+    /**
+     * Marks the row keys below the node and its ancestors as stale, for changes this list can not see such as
+     * replacing the children list of a node.
+     */
+    public static void markChanged(TreeNode node) {
+        for(TreeNode ancestor = node; ancestor != null; ancestor = ancestor.getParent()) {
+            List<TreeNode> children = ancestor.getChildren();
+            if(children instanceof TreeNodeChildren) {
+                ((TreeNodeChildren) children).dirty = true;
+            }
+        }
+    }
+    
+    /**
+     * Assigns the row keys of the descendants of the given node, subtrees that did not change since the last update
+     * are skipped.
+     */
+    public static void updateRowKeys(TreeNode node) {
+        updateRowKeys(node, false);
+    }
+    
+    private static void updateRowKeys(TreeNode node, boolean force) {
+        List<TreeNode> children = node.getChildren();
+        if(children == null) {
+            return;
+        }
+        
+        if(children instanceof TreeNodeChildren) {
+            TreeNodeChildren treeNodeChildren = (TreeNodeChildren) children;
+            if(!force && !treeNodeChildren.dirty) {
+                return;
+            }
+            
+            treeNodeChildren.dirty = false;
+        }
+        
+        int childCount = children.size();
+        String prefix = (node.getParent() == null) ? null : node.getRowKey() + "_";
+        for(int i = 0; i < childCount; i++) {
+            TreeNode childNode = children.get(i);
+            String childRowKey = (prefix == null) ? String.valueOf(i) : prefix + i;
+            boolean changed = !childRowKey.equals(childNode.getRowKey());
+            
+            if(changed) {
                 childNode.setRowKey(childRowKey);
-                updateRowKeys(childNode);
             }
+            
+            updateRowKeys(childNode, changed);
         }
     }
 }
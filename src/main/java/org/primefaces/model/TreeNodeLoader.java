@@ -0,0 +1,34 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Loads the children of a {@link LazyTreeNode} when it is expanded. The loader is kept with the tree in the view so
+ * it needs to be serializable.
+ */
+public interface TreeNodeLoader extends Serializable {
+
+    /**
+     * Loads the children of parent. Children that may have children of their own should be created as
+     * {@link LazyTreeNode} so they are loaded on demand too, the others as any leaf node.
+     *
+     * @return the created child nodes, without a parent
+     */
+    public List<TreeNode> load(LazyTreeNode parent);
+}
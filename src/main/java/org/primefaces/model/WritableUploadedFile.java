@@ -0,0 +1,31 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * UploadedFile that can write itself to a target file, moving it instead of copying when it is already held on disk.
+ * Kept apart from UploadedFile so existing implementations of that interface keep compiling.
+ */
+public interface WritableUploadedFile extends UploadedFile {
+
+	/**
+	 * Writes the upload to the target file, moving it instead of copying when it is already held on disk.
+	 */
+	public void write(File target) throws IOException;
+}
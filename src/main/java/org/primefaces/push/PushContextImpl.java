@@ -15,6 +15,7 @@
  */
 package org.primefaces.push;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.*;
 
@@ -26,7 +27,7 @@ import org.atmosphere.cpr.Broadcaster;
 import org.atmosphere.cpr.BroadcasterListener;
 import org.atmosphere.cpr.MetaBroadcaster;
 import org.primefaces.json.JSONException;
-import org.primefaces.json.JSONObject;
+import org.primefaces.json.JSONSerializer;
 
 public class PushContextImpl extends AsyncSupportListenerAdapter implements PushContext {
 
@@ -84,40 +85,18 @@ public class PushContextImpl extends AsyncSupportListenerAdapter implements Push
     private String toJSON(Object data) {
         try {
             StringBuilder jsonBuilder = new StringBuilder();
-            jsonBuilder.append("{");
-
-            if(isBean(data)) {
-                jsonBuilder.append("\"").append("data").append("\":").append(new JSONObject(data).toString());
-            } 
-            else {
-                String json = new JSONObject().put("data", data).toString();
-
-                jsonBuilder.append(json.substring(1, json.length() - 1));
-            }
-
+            jsonBuilder.append("{\"data\":");
+            JSONSerializer.write(jsonBuilder, data);
             jsonBuilder.append("}");
 
             return jsonBuilder.toString();
         }
-
-        catch(JSONException e) {
-            System.out.println(e.getMessage());
-            
+        catch(IOException e) {
             throw new RuntimeException(e);
         }
-        
-    }
-    
-    private boolean isBean(Object value) {
-        if(value == null) {
-            return false;
-        }
-
-        if(value instanceof Boolean || value instanceof String || value instanceof Number) {
-            return false;
+        catch(JSONException e) {
+            throw new RuntimeException(e);
         }
-
-        return true;
     }
 
     @Override
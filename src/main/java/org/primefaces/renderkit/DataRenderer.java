@@ -110,6 +110,11 @@ public class DataRenderer extends CoreRenderer {
         if(!uidata.isPaginatorAlwaysVisible()) 
             wb.append(",alwaysVisible:false");
 
+        if(!uidata.isRowCountKnown())
+            wb.append(",rowCountUnknown:true");
+        else if(uidata.isRowCountEstimated())
+            wb.append(",rowCountEstimated:true");
+
         wb.append("}");
     }
     
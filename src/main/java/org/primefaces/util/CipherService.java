@@ -0,0 +1,198 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.util;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import javax.faces.FacesException;
+
+/**
+ * Application scoped, thread safe string encryption. Keys are derived from the secret once, ciphers and macs are
+ * pooled and reused across requests. Strings are encrypted with AES/CBC and authenticated with HMAC-SHA256 over IV and
+ * cipher text, so tampered values are rejected before decryption. The IV is a keyed HMAC of the plain text in the manner
+ * of SIV, so a string always encrypts to the same value and resource URLs built from it stay cacheable.
+ */
+public class CipherService {
+
+    private static final Logger LOG = Logger.getLogger(CipherService.class.getName());
+
+    private final static String CIPHER_ALGORITHM = "AES/CBC/PKCS5Padding";
+    private final static String MAC_ALGORITHM = "HmacSHA256";
+    private final static int IV_LENGTH = 16;
+    private final static int MAC_LENGTH = 32;
+
+    //fixed salt, values encrypted on one node of a cluster have to be readable on the others
+    private final static byte[] SALT = {
+        (byte) 0xA9, (byte) 0x9B, (byte) 0xC8, (byte) 0x32,
+        (byte) 0x56, (byte) 0x34, (byte) 0xE3, (byte) 0x03
+    };
+    private final static int ITERATION_COUNT = 1000;
+
+    private SecretKey encryptionKey;
+    private SecretKey macKey;
+    private SecretKey ivKey;
+    private Queue<Cipher> ciphers = new ConcurrentLinkedQueue<Cipher>();
+    private Queue<Mac> macs = new ConcurrentLinkedQueue<Mac>();
+    private Queue<Mac> ivMacs = new ConcurrentLinkedQueue<Mac>();
+
+    public CipherService(String passPhrase) {
+        try {
+            PBEKeySpec keySpec = new PBEKeySpec(passPhrase.toCharArray(), SALT, ITERATION_COUNT, 384);
+            byte[] keys = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA1").generateSecret(keySpec).getEncoded();
+
+            this.encryptionKey = new SecretKeySpec(keys, 0, 16, "AES");
+            this.macKey = new SecretKeySpec(keys, 16, 16, MAC_ALGORITHM);
+            this.ivKey = new SecretKeySpec(keys, 32, 16, MAC_ALGORITHM);
+        }
+        catch(GeneralSecurityException e) {
+            throw new FacesException("Could not derive encryption keys", e);
+        }
+    }
+
+    /**
+     * @return base64 of IV, cipher text and mac or null if the string cannot be encrypted, equal strings give equal values.
+     */
+    public String encrypt(String str) {
+        Cipher cipher = null;
+        Mac mac = null;
+
+        try {
+            byte[] utf8 = str.getBytes("UTF8");
+            byte[] iv = createIV(utf8);
+
+            cipher = borrowCipher();
+            cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new IvParameterSpec(iv));
+            byte[] encrypted = cipher.doFinal(utf8);
+
+            byte[] result = new byte[IV_LENGTH + encrypted.length + MAC_LENGTH];
+            System.arraycopy(iv, 0, result, 0, IV_LENGTH);
+            System.arraycopy(encrypted, 0, result, IV_LENGTH, encrypted.length);
+
+            mac = borrowMac();
+            mac.update(result, 0, IV_LENGTH + encrypted.length);
+            System.arraycopy(mac.doFinal(), 0, result, IV_LENGTH + encrypted.length, MAC_LENGTH);
+
+            return Base64.encodeToString(result, false);
+        }
+        catch(Exception e) {
+            LOG.log(Level.WARNING, "Could not encrypt string", e);
+        }
+        finally {
+            release(cipher, mac);
+        }
+
+        return null;
+    }
+
+    /**
+     * @return the decrypted string or null if the value is malformed or was not encrypted with this key.
+     */
+    public String decrypt(String str) {
+        Cipher cipher = null;
+        Mac mac = null;
+
+        try {
+            byte[] value = Base64.decode(str);
+            if(value == null || value.length < IV_LENGTH + MAC_LENGTH + 16) {
+                LOG.log(Level.WARNING, "Could not decrypt string, invalid length");
+                return null;
+            }
+
+            int macOffset = value.length - MAC_LENGTH;
+            mac = borrowMac();
+            mac.update(value, 0, macOffset);
+            byte[] expected = mac.doFinal();
+            byte[] actual = new byte[MAC_LENGTH];
+            System.arraycopy(value, macOffset, actual, 0, MAC_LENGTH);
+
+            if(!MessageDigest.isEqual(expected, actual)) {
+                LOG.log(Level.WARNING, "Could not decrypt string, authentication failed");
+                return null;
+            }
+
+            cipher = borrowCipher();
+            cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new IvParameterSpec(value, 0, IV_LENGTH));
+            byte[] utf8 = cipher.doFinal(value, IV_LENGTH, macOffset - IV_LENGTH);
+
+            return new String(utf8, "UTF8");
+        }
+        catch(Exception e) {
+            LOG.log(Level.WARNING, "Could not decrypt string", e);
+        }
+        finally {
+            release(cipher, mac);
+        }
+
+        return null;
+    }
+
+    private byte[] createIV(byte[] utf8) throws GeneralSecurityException {
+        Mac mac = borrowMac(ivMacs, ivKey);
+
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            System.arraycopy(mac.doFinal(utf8), 0, iv, 0, IV_LENGTH);
+
+            return iv;
+        }
+        finally {
+            mac.reset();
+            ivMacs.offer(mac);
+        }
+    }
+
+    private Cipher borrowCipher() throws GeneralSecurityException {
+        Cipher cipher = ciphers.poll();
+
+        return (cipher == null) ? Cipher.getInstance(CIPHER_ALGORITHM) : cipher;
+    }
+
+    private Mac borrowMac() throws GeneralSecurityException {
+        return borrowMac(macs, macKey);
+    }
+
+    private Mac borrowMac(Queue<Mac> pool, SecretKey key) throws GeneralSecurityException {
+        Mac mac = pool.poll();
+
+        if(mac == null) {
+            mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+        }
+
+        return mac;
+    }
+
+    private void release(Cipher cipher, Mac mac) {
+        if(cipher != null) {
+            ciphers.offer(cipher);
+        }
+        if(mac != null) {
+            mac.reset();
+            macs.offer(mac);
+        }
+    }
+}
@@ -31,6 +31,22 @@ public class Constants {
         public static final String SECRET_KEY = "primefaces.SECRET";
         public static final String PFV_KEY = "primefaces.CLIENT_SIDE_VALIDATION";
         public static final String UPLOADER = "primefaces.UPLOADER";
+        public static final String PARALLEL_SORT_THRESHOLD = "primefaces.PARALLEL_SORT_THRESHOLD";
+        public static final String PARALLEL_FILTER_THRESHOLD = "primefaces.PARALLEL_FILTER_THRESHOLD";
+        public static final String XLSX_ROW_WINDOW = "primefaces.XLSX_ROW_WINDOW";
+        public static final String EXPORT_JOB_THREADS = "primefaces.EXPORT_JOB_THREADS";
+        public static final String EXPORT_JOB_TTL = "primefaces.EXPORT_JOB_TTL";
+        public static final String PDF_EXPORT_STREAMING = "primefaces.PDF_EXPORT_STREAMING";
+        public static final String EXPORT_FETCH_SIZE = "primefaces.EXPORT_FETCH_SIZE";
+        public static final String DYNAMIC_CONTENT_CACHE_SIZE = "primefaces.DYNAMIC_CONTENT_CACHE_SIZE";
+        public static final String DYNAMIC_CONTENT_CACHE_TTL = "primefaces.DYNAMIC_CONTENT_CACHE_TTL";
+        public static final String DYNAMIC_CONTENT_CACHE_DIRECT = "primefaces.DYNAMIC_CONTENT_CACHE_DIRECT";
+        public static final String DYNAMIC_CONTENT_CACHE_MAX_ENTRY = "primefaces.DYNAMIC_CONTENT_CACHE_MAX_ENTRY";
+        public static final String DYNAMIC_CONTENT_ASYNC_THREADS = "primefaces.DYNAMIC_CONTENT_ASYNC_THREADS";
+        public static final String DYNAMIC_CONTENT_ASYNC_QUEUE = "primefaces.DYNAMIC_CONTENT_ASYNC_QUEUE";
+        public static final String DYNAMIC_CONTENT_ASYNC_TIMEOUT = "primefaces.DYNAMIC_CONTENT_ASYNC_TIMEOUT";
+        public static final String UPLOAD_CHUNK_DIRECTORY = "primefaces.UPLOAD_CHUNK_DIRECTORY";
+        public static final String UPLOAD_CHUNK_TTL = "primefaces.UPLOAD_CHUNK_TTL";
     }
 
     public class RequestParams {
@@ -56,6 +72,8 @@ public class Constants {
     
     public static final String DYNAMIC_CONTENT_PARAM = "pfdrid";
     public static final String DYNAMIC_CONTENT_NOCACHE_PARAM = "pfdrid_nc";
+    public static final String EXPORT_JOB_PARAM = "pfexport";
+    public static final String EXPORT_JOB_PROGRESS_PARAM = "pfexport_p";
 
     public final static String FRAGMENT_ID = "primefaces.fragment";
     public final static String FRAGMENT_AUTO_RENDERED = "primefaces.fragment.autorendered";
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import javax.faces.FacesException;
+
+/**
+ * Splits an index range into one chunk per processor and runs the chunks on an executor,
+ * the calling thread waits until all of them are done.
+ */
+public class ParallelRange {
+
+    private final static int MIN_CHUNK_SIZE = 1024;
+
+    public interface Task {
+
+        public void run(int from, int to);
+    }
+
+    public static void run(ExecutorService executor, int size, final Task task) {
+        int chunks = Math.min(Runtime.getRuntime().availableProcessors(), Math.max(1, size / MIN_CHUNK_SIZE));
+
+        if(executor == null || chunks < 2) {
+            task.run(0, size);
+            return;
+        }
+
+        List<Callable<Object>> callables = new ArrayList<Callable<Object>>(chunks);
+        for(int c = 0; c < chunks; c++) {
+            final int from = (int) ((long) size * c / chunks);
+            final int to = (int) ((long) size * (c + 1) / chunks);
+
+            callables.add(new Callable<Object>() {
+                public Object call() {
+                    task.run(from, to);
+                    return null;
+                }
+            });
+        }
+
+        try {
+            for(Future<Object> future : executor.invokeAll(callables)) {
+                future.get();
+            }
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FacesException(e);
+        }
+        catch(ExecutionException e) {
+            throw new FacesException(e.getCause());
+        }
+    }
+}
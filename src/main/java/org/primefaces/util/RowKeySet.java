@@ -0,0 +1,238 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.util;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Set of selected row keys with constant time lookups during row rendering.
+ * Integral keys are kept unboxed in an open addressing long table until the first non integral key is added,
+ * from then on they are kept as Long so an Integer and a Long of the same value are the same key.
+ * The comma separated form submitted back by the client is built incrementally in insertion order.
+ * Keys cannot be removed, a new set is created when the selection changes.
+ */
+public class RowKeySet extends AbstractSet<Object> {
+
+    private final static long FREE = Long.MIN_VALUE;
+
+    private long[] longKeys = new long[16];
+    private int longSize = 0;
+    private boolean hasFreeKey = false;
+    private Set<Object> keys;
+    private StringBuilder builder = new StringBuilder();
+
+    public RowKeySet() {
+        Arrays.fill(longKeys, FREE);
+    }
+
+    @Override
+    public boolean add(Object key) {
+        boolean added;
+
+        if(keys == null && isIntegral(key)) {
+            added = addLong(((Number) key).longValue());
+        }
+        else {
+            if(keys == null) {
+                keys = new HashSet<Object>();
+                for(Iterator<Object> it = longIterator(); it.hasNext();) {
+                    keys.add(it.next());
+                }
+                longKeys = null;
+            }
+
+            added = keys.add(normalize(key));
+        }
+
+        if(added) {
+            if(builder.length() > 0) {
+                builder.append(",");
+            }
+            builder.append(key);
+        }
+
+        return added;
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        if(keys != null) {
+            return keys.contains(normalize(key));
+        }
+        else if(isIntegral(key)) {
+            return containsLong(((Number) key).longValue());
+        }
+        else {
+            return false;
+        }
+    }
+
+    @Override
+    public int size() {
+        return keys == null ? longSize : keys.size();
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return keys == null ? longIterator() : keys.iterator();
+    }
+
+    @Override
+    public boolean remove(Object key) {
+        throw new UnsupportedOperationException("Row keys cannot be removed.");
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException("Row keys cannot be removed.");
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException("Row keys cannot be removed.");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("Row keys cannot be removed.");
+    }
+
+    /**
+     * @return the keys in insertion order separated by commas.
+     */
+    public String getKeysAsString() {
+        return builder.toString();
+    }
+
+    private boolean isIntegral(Object key) {
+        return key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte;
+    }
+
+    private Object normalize(Object key) {
+        return (isIntegral(key) && !(key instanceof Long)) ? Long.valueOf(((Number) key).longValue()) : key;
+    }
+
+    private boolean addLong(long key) {
+        if(key == FREE) {
+            if(hasFreeKey) {
+                return false;
+            }
+            hasFreeKey = true;
+            longSize++;
+            return true;
+        }
+
+        if((longSize + 1) * 2 > longKeys.length) {
+            rehash(longKeys.length * 2);
+        }
+
+        int slot = slot(key, longKeys.length);
+        while(longKeys[slot] != FREE) {
+            if(longKeys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & (longKeys.length - 1);
+        }
+
+        longKeys[slot] = key;
+        longSize++;
+
+        return true;
+    }
+
+    private boolean containsLong(long key) {
+        if(key == FREE) {
+            return hasFreeKey;
+        }
+
+        int slot = slot(key, longKeys.length);
+        while(longKeys[slot] != FREE) {
+            if(longKeys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & (longKeys.length - 1);
+        }
+
+        return false;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = longKeys;
+        longKeys = new long[capacity];
+        Arrays.fill(longKeys, FREE);
+
+        for(long key : old) {
+            if(key != FREE) {
+                int slot = slot(key, capacity);
+                while(longKeys[slot] != FREE) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                longKeys[slot] = key;
+            }
+        }
+    }
+
+    private static int slot(long key, int capacity) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+
+        return (int) (hash ^ (hash >>> 32)) & (capacity - 1);
+    }
+
+    private Iterator<Object> longIterator() {
+        return new Iterator<Object>() {
+
+            private int slot = -1;
+            private boolean freeKeyReturned = !hasFreeKey;
+
+            public boolean hasNext() {
+                return !freeKeyReturned || nextSlot() < longKeys.length;
+            }
+
+            public Object next() {
+                if(!freeKeyReturned) {
+                    freeKeyReturned = true;
+                    return FREE;
+                }
+
+                slot = nextSlot();
+                if(slot >= longKeys.length) {
+                    throw new NoSuchElementException();
+                }
+
+                return longKeys[slot];
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            private int nextSlot() {
+                int next = slot + 1;
+                while(next < longKeys.length && longKeys[next] == FREE) {
+                    next++;
+                }
+
+                return next;
+            }
+        };
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.util;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.UUID;
+import javax.faces.context.ExternalContext;
+import org.primefaces.model.FileStreamedContent;
+import org.primefaces.model.StreamedContent;
+
+/**
+ * Writes the body of a StreamedContent to the response. File backed content is sent with Content-Length, ETag and
+ * Last-Modified, answered with 304 when unchanged and served in single or multiple byte ranges, the bytes are moved
+ * with FileChannel.transferTo. Any other content is copied from its stream.
+ */
+public class StreamedContentWriter {
+
+    private final static int BUFFER_SIZE = 8192;
+
+    private final static int MAX_RANGES = 16;
+
+    private final static String HTTP_DATE_FORMAT = "EEE, dd MMM yyyy HH:mm:ss zzz";
+
+    public static void write(ExternalContext externalContext, StreamedContent content) throws IOException {
+        if(content instanceof FileStreamedContent) {
+            writeFile(externalContext, (FileStreamedContent) content);
+        }
+        else {
+            InputStream inputStream = content.getStream();
+            try {
+                externalContext.setResponseStatus(200);
+                copy(inputStream, externalContext.getResponseOutputStream());
+            }
+            finally {
+                inputStream.close();
+            }
+        }
+    }
+
+    protected static void writeFile(ExternalContext externalContext, FileStreamedContent content) throws IOException {
+        Map<String,String> headers = externalContext.getRequestHeaderMap();
+        long length = content.getSize();
+        long lastModified = content.getLastModified();
+        String etag = content.getETag();
+
+        externalContext.setResponseHeader("ETag", etag);
+        externalContext.setResponseHeader("Last-Modified", formatDate(lastModified));
+        externalContext.setResponseHeader("Accept-Ranges", "bytes");
+
+        if(isNotModified(headers, etag, lastModified)) {
+            externalContext.setResponseStatus(304);
+            return;
+        }
+
+        List<long[]> ranges = null;
+        String ifRange = headers.get("If-Range");
+        if(ifRange == null || ifRange.equals(etag)) {
+            ranges = parseRanges(headers.get("Range"), length);
+        }
+
+        if(ranges != null && ranges.isEmpty()) {
+            externalContext.setResponseStatus(416);
+            externalContext.setResponseHeader("Content-Range", "bytes */" + length);
+            return;
+        }
+
+        FileInputStream inputStream = new FileInputStream(content.getFile());
+        try {
+            FileChannel channel = inputStream.getChannel();
+
+            if(ranges == null) {
+                externalContext.setResponseStatus(200);
+                externalContext.setResponseHeader("Content-Length", String.valueOf(length));
+                transfer(channel, 0, length, externalContext.getResponseOutputStream());
+            }
+            else if(ranges.size() == 1) {
+                long[] range = ranges.get(0);
+                externalContext.setResponseStatus(206);
+                externalContext.setResponseHeader("Content-Range", "bytes " + range[0] + "-" + range[1] + "/" + length);
+                externalContext.setResponseHeader("Content-Length", String.valueOf(range[1] - range[0] + 1));
+                transfer(channel, range[0], range[1] - range[0] + 1, externalContext.getResponseOutputStream());
+            }
+            else {
+                String boundary = UUID.randomUUID().toString();
+                externalContext.setResponseStatus(206);
+                externalContext.setResponseContentType("multipart/byteranges; boundary=" + boundary);
+
+                OutputStream out = externalContext.getResponseOutputStream();
+                for(long[] range : ranges) {
+                    StringBuilder part = new StringBuilder();
+                    part.append("\r\n--").append(boundary).append("\r\n");
+                    if(content.getContentType() != null) {
+                        part.append("Content-Type: ").append(content.getContentType()).append("\r\n");
+                    }
+                    part.append("Content-Range: bytes ").append(range[0]).append("-").append(range[1]).append("/").append(length).append("\r\n\r\n");
+
+                    out.write(part.toString().getBytes("ISO-8859-1"));
+                    transfer(channel, range[0], range[1] - range[0] + 1, out);
+                }
+                out.write(("\r\n--" + boundary + "--\r\n").getBytes("ISO-8859-1"));
+            }
+        }
+        finally {
+            inputStream.close();
+        }
+    }
+
+    /**
+     * @return true if the If-None-Match or, without it, the If-Modified-Since header matches the content.
+     */
+    protected static boolean isNotModified(Map<String,String> headers, String etag, long lastModified) {
+        String ifNoneMatch = headers.get("If-None-Match");
+        if(ifNoneMatch != null) {
+            for(String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if(tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        String ifModifiedSince = headers.get("If-Modified-Since");
+        if(ifModifiedSince != null) {
+            try {
+                Date since = createDateFormat().parse(ifModifiedSince);
+
+                //http dates have a resolution of seconds
+                return lastModified / 1000 <= since.getTime() / 1000;
+            }
+            catch(ParseException e) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Parses a "bytes=0-499,-500,1000-" header into inclusive {start, end} pairs, overlapping and adjacent ranges are
+     * merged so no byte is sent twice.
+     * @return null if there is no usable range header or it asks for too many ranges so the whole content is sent,
+     * an empty list if no range can be satisfied.
+     */
+    static List<long[]> parseRanges(String header, long length) {
+        if(header == null || !header.startsWith("bytes=")) {
+            return null;
+        }
+
+        List<long[]> ranges = new ArrayList<long[]>();
+
+        for(String spec : header.substring(6).split(",")) {
+            spec = spec.trim();
+            int dash = spec.indexOf('-');
+            if(dash == -1) {
+                return null;
+            }
+
+            long start;
+            long end;
+
+            try {
+                if(dash == 0) {
+                    //suffix range, last n bytes
+                    long suffix = Long.parseLong(spec.substring(1));
+                    start = Math.max(0, length - suffix);
+                    end = length - 1;
+                    if(suffix == 0) {
+                        continue;
+                    }
+                }
+                else {
+                    start = Long.parseLong(spec.substring(0, dash));
+                    end = (dash == spec.length() - 1) ? length - 1 : Math.min(Long.parseLong(spec.substring(dash + 1)), length - 1);
+                }
+            }
+            catch(NumberFormatException e) {
+                return null;
+            }
+
+            if(end < start) {
+                if(start < length) {
+                    //malformed like 5-2, ignore the header
+                    return null;
+                }
+                continue;
+            }
+
+            if(start < length) {
+                ranges.add(new long[]{start, end});
+            }
+        }
+
+        ranges = merge(ranges);
+
+        return (ranges.size() > MAX_RANGES) ? null : ranges;
+    }
+
+    private static List<long[]> merge(List<long[]> ranges) {
+        if(ranges.size() < 2) {
+            return ranges;
+        }
+
+        Collections.sort(ranges, new Comparator<long[]>() {
+
+            public int compare(long[] a, long[] b) {
+                return (a[0] < b[0]) ? -1 : ((a[0] == b[0]) ? 0 : 1);
+            }
+        });
+
+        List<long[]> merged = new ArrayList<long[]>();
+        long[] current = ranges.get(0);
+        for(int i = 1; i < ranges.size(); i++) {
+            long[] range = ranges.get(i);
+
+            if(range[0] <= current[1] + 1) {
+                current[1] = Math.max(current[1], range[1]);
+            }
+            else {
+                merged.add(current);
+                current = range;
+            }
+        }
+        merged.add(current);
+
+        return merged;
+    }
+
+    protected static void transfer(FileChannel channel, long position, long count, OutputStream out) throws IOException {
+        WritableByteChannel target = (out instanceof WritableByteChannel) ? (WritableByteChannel) out : Channels.newChannel(out);
+
+        while(count > 0) {
+            long transferred = channel.transferTo(position, count, target);
+            if(transferred <= 0) {
+                break;
+            }
+
+            position += transferred;
+            count -= transferred;
+        }
+    }
+
+    protected static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int length;
+
+        while((length = in.read(buffer)) != -1) {
+            out.write(buffer, 0, length);
+        }
+    }
+
+    private static String formatDate(long time) {
+        return createDateFormat().format(new Date(time));
+    }
+
+    private static SimpleDateFormat createDateFormat() {
+        SimpleDateFormat format = new SimpleDateFormat(HTTP_DATE_FORMAT, Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+
+        return format;
+    }
+}
@@ -32,6 +32,17 @@ public class StringEncrypter {
 	
     private Cipher ecipher;
     private Cipher dcipher;
+    private CipherService cipherService;
+
+    /**
+     * Constructor used to create this object on top of the shared application scoped cipher service,
+     * cheap to create and safe to use from several threads.
+     *
+     * @param cipherService Service doing the actual encryption and decryption.
+     */
+    public StringEncrypter(CipherService cipherService) {
+        this.cipherService = cipherService;
+    }
 
     /**
      * Constructor used to create this object. Responsible for setting and initializing this object's encrypter and decrypter Chipher instances given a Secret
@@ -94,6 +105,10 @@ public class StringEncrypter {
      * @return <code>String</code> Encrypted version of the provided String
      */
     public String encrypt(String str) {
+        if (cipherService != null) {
+            return cipherService.encrypt(str);
+        }
+
         try {
             // Encode the string into bytes using utf-8
             byte[] utf8 = str.getBytes("UTF8");
@@ -118,6 +133,9 @@ public class StringEncrypter {
      * @return <code>String</code> Decrypted version of the provided String
      */
     public String decrypt(String str) {
+        if (cipherService != null) {
+            return cipherService.decrypt(str);
+        }
 
         try {
 
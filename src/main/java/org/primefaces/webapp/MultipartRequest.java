@@ -15,7 +15,12 @@
  */
 package org.primefaces.webapp;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -25,71 +30,104 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 
 import org.apache.commons.fileupload.FileItem;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
 import org.apache.commons.fileupload.FileUploadException;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.apache.commons.fileupload.util.Streams;
+import org.apache.commons.io.FileCleaningTracker;
+import org.primefaces.model.DefaultUploadedFile;
+import org.primefaces.model.StreamingUploadedFile;
+import org.primefaces.model.UploadedFile;
 
 public class MultipartRequest extends HttpServletRequestWrapper {
 
 	private static final Logger logger = Logger.getLogger(MultipartRequest.class.getName());
+
+    private final static String DEFAULT_CHARSET = "ISO-8859-1";
+
+    private final static int BUFFER_SIZE = 8192;
 	
 	private Map<String, List<String>> formParams;
-	
-	private Map<String, List<FileItem>> fileParams;
+
+    private Map<String, List<UploadedFile>> uploadedFiles;
+
+    private Map<String, String> uploadErrors;
+
+    private Map<String, List<FileItem>> fileParams;
 
     private Map<String, String[]> parameterMap;
 	
-	public MultipartRequest(HttpServletRequest request, ServletFileUpload servletFileUpload) throws IOException {
-		super(request);
-		formParams = new LinkedHashMap<String, List<String>>();
-		fileParams = new LinkedHashMap<String, List<FileItem>>();
-		
-		parseRequest(request, servletFileUpload);
-	}
+    /**
+     * Parses the request with the streaming api of commons fileupload, files are written to the repository as they
+     * are received once they outgrow thresholdSize and the size limit and allowed types of the fileUpload registered
+     * with {@link UploadLimit} are enforced while reading, a rejected file is never stored. Temporary files are deleted
+     * by the tracker once their UploadedFile is garbage collected, unless they were written to a target before.
+     */
+    public MultipartRequest(HttpServletRequest request, ServletFileUpload servletFileUpload, File repository, int thresholdSize, FileCleaningTracker tracker) throws IOException {
+        super(request);
+        formParams = new LinkedHashMap<String, List<String>>();
+        uploadedFiles = new LinkedHashMap<String, List<UploadedFile>>();
+        uploadErrors = new LinkedHashMap<String, String>();
 
-	@SuppressWarnings("unchecked")
-	private void parseRequest(HttpServletRequest request, ServletFileUpload servletFileUpload) throws IOException {
-		try {
-			List<FileItem> fileItems = servletFileUpload.parseRequest(request);
-			
-			for(FileItem item : fileItems) {                
-				if(item.isFormField())
-					addFormParam(item);
-				else
-					addFileParam(item);
-			}
-			
-		} catch (FileUploadException e) {
-			logger.severe("Error in parsing fileupload request");
-			
-			throw new IOException(e.getMessage(), e);
-		}
-	}
-	
-	private void addFileParam(FileItem item) {
-		if(fileParams.containsKey(item.getFieldName())) {
-			fileParams.get(item.getFieldName()).add(item);
-		} else {
-			List<FileItem> items = new ArrayList<FileItem>();
-			items.add(item);
-			fileParams.put(item.getFieldName(), items);
-		}
-	}
-	
-	private void addFormParam(FileItem item) {
-		if(formParams.containsKey(item.getFieldName())) {
-			formParams.get(item.getFieldName()).add(getItemString(item));
-		} else {
-			List<String> items = new ArrayList<String>();
-			items.add(getItemString(item));
-			formParams.put(item.getFieldName(), items);
-		}
-	}
+        streamRequest(request, servletFileUpload, repository, thresholdSize, tracker);
+    }
+
+    /**
+     * Parses the whole request into FileItems of the file item factory of servletFileUpload.
+     *
+     * @deprecated reads all items before any limit is checked, use the streaming constructor instead.
+     */
+    @Deprecated
+    public MultipartRequest(HttpServletRequest request, ServletFileUpload servletFileUpload) throws IOException {
+        super(request);
+        formParams = new LinkedHashMap<String, List<String>>();
+        uploadedFiles = new LinkedHashMap<String, List<UploadedFile>>();
+        uploadErrors = new LinkedHashMap<String, String>();
+        fileParams = new LinkedHashMap<String, List<FileItem>>();
+
+        parseRequest(request, servletFileUpload);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void parseRequest(HttpServletRequest request, ServletFileUpload servletFileUpload) throws IOException {
+        try {
+            List<FileItem> fileItems = servletFileUpload.parseRequest(request);
+
+            for(FileItem item : fileItems) {
+                if(item.isFormField()) {
+                    addFormParam(item.getFieldName(), getItemString(item));
+                }
+                else {
+                    addFileParam(item);
+                }
+            }
+        }
+        catch (FileUploadException e) {
+            logger.severe("Error in parsing fileupload request");
+
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private void addFileParam(FileItem item) {
+        if(fileParams.containsKey(item.getFieldName())) {
+            fileParams.get(item.getFieldName()).add(item);
+        } else {
+            List<FileItem> items = new ArrayList<FileItem>();
+            items.add(item);
+            fileParams.put(item.getFieldName(), items);
+        }
+
+        addUploadedFile(item.getFieldName(), new DefaultUploadedFile(item));
+    }
 
     private String getItemString(FileItem item) {
         try {
@@ -100,7 +138,123 @@ public class MultipartRequest extends HttpServletRequestWrapper {
             return item.getString();
         }
     }
+
+    private void streamRequest(HttpServletRequest request, ServletFileUpload servletFileUpload, File repository, int thresholdSize, FileCleaningTracker tracker) throws IOException {
+        try {
+            FileItemIterator iterator = servletFileUpload.getItemIterator(request);
+            String characterEncoding = request.getCharacterEncoding();
+
+            while(iterator.hasNext()) {
+                FileItemStream item = iterator.next();
+
+                if(item.isFormField()) {
+                    InputStream stream = item.openStream();
+                    addFormParam(item.getFieldName(), Streams.asString(stream, (characterEncoding == null) ? DEFAULT_CHARSET : characterEncoding));
+                }
+                else {
+                    receiveFile(request, item, repository, thresholdSize, tracker);
+                }
+            }
+        }
+        catch (FileUploadException e) {
+            logger.severe("Error in parsing fileupload request");
+
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads a file part into memory until it outgrows thresholdSize and into a temporary file of the repository from then on,
+     * a part violating its limits is left unread and the iterator skips over it.
+     */
+    private void receiveFile(HttpServletRequest request, FileItemStream item, File repository, int thresholdSize, FileCleaningTracker tracker) throws IOException {
+        String fieldName = item.getFieldName();
+        String fileName = item.getName();
+        String contentType = item.getContentType();
+        UploadLimit limit = UploadLimit.get(request, fieldName);
+        long sizeLimit = (limit == null) ? Long.MAX_VALUE : limit.getSizeLimit();
+
+        if(limit != null && fileName != null && fileName.length() > 0 && !limit.isAllowed(fileName, contentType)) {
+            uploadErrors.put(fieldName, UploadLimit.INVALID_TYPE);
+            return;
+        }
+
+        InputStream in = item.openStream();
+        ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        OutputStream out = null;
+        File file = null;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long size = 0;
+        int read;
+
+        try {
+            while((read = in.read(buffer)) != -1) {
+                size += read;
+                if(size > sizeLimit) {
+                    uploadErrors.put(fieldName, UploadLimit.INVALID_SIZE);
+                    break;
+                }
+
+                if(out == null && size > thresholdSize) {
+                    file = File.createTempFile("upload_", ".tmp", repository);
+                    out = new FileOutputStream(file);
+                    memory.writeTo(out);
+                    memory = null;
+                }
+
+                if(out == null)
+                    memory.write(buffer, 0, read);
+                else
+                    out.write(buffer, 0, read);
+            }
+        }
+        finally {
+            if(out != null) {
+                out.close();
+            }
+        }
+
+        if(size > sizeLimit) {
+            if(file != null) {
+                file.delete();
+            }
+
+            if(logger.isLoggable(Level.FINE))
+                logger.fine("Rejected upload " + fileName + " of " + fieldName + " exceeding " + sizeLimit + " bytes");
+
+            return;
+        }
+
+        UploadedFile uploadedFile = (file == null) ? new StreamingUploadedFile(fileName, contentType, memory.toByteArray())
+                                                   : new StreamingUploadedFile(fileName, contentType, file, size);
+
+        if(file != null && tracker != null) {
+            tracker.track(file, uploadedFile);
+        }
+
+        addUploadedFile(fieldName, uploadedFile);
+    }
+
+    private void addUploadedFile(String fieldName, UploadedFile uploadedFile) {
+        if(uploadedFiles.containsKey(fieldName)) {
+            uploadedFiles.get(fieldName).add(uploadedFile);
+        } else {
+            List<UploadedFile> files = new ArrayList<UploadedFile>();
+            files.add(uploadedFile);
+            uploadedFiles.put(fieldName, files);
+        }
+    }
 	
+	private void addFormParam(String name, String value) {
+		if(formParams.containsKey(name)) {
+			formParams.get(name).add(value);
+		} else {
+			List<String> items = new ArrayList<String>();
+			items.add(value);
+			formParams.put(name, items);
+		}
+	}
+
 	@Override
 	public String getParameter(String name) {
 		if(formParams.containsKey(name)) {
@@ -159,14 +313,32 @@ public class MultipartRequest extends HttpServletRequestWrapper {
 		}
 	}
 	
-	public FileItem getFileItem(String name) {
-		if(fileParams.containsKey(name)) {
-			List<FileItem> items = fileParams.get(name);
-			
-			return items.get(0);
-		} 
-        else {
-			return null;
-		}	
-	}
+    /**
+     * @return the first file uploaded with the given name, null if there is none or it was rejected.
+     */
+    public UploadedFile getUploadedFile(String name) {
+        List<UploadedFile> files = uploadedFiles.get(name);
+
+        return (files == null) ? null : files.get(0);
+    }
+
+    /**
+     * @return {@link UploadLimit#INVALID_SIZE} or {@link UploadLimit#INVALID_TYPE} if a file uploaded with the given
+     * name was rejected, null otherwise.
+     */
+    public String getUploadError(String name) {
+        return uploadErrors.get(name);
+    }
+
+    /**
+     * @return the first FileItem uploaded with the given name, only requests parsed by the deprecated constructor
+     * hold FileItems.
+     * @deprecated use {@link #getUploadedFile(String)} instead.
+     */
+    @Deprecated
+    public FileItem getFileItem(String name) {
+        List<FileItem> items = (fileParams == null) ? null : fileParams.get(name);
+
+        return (items == null) ? null : items.get(0);
+    }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.webapp;
+
+import java.util.Map;
+
+import javax.faces.context.FacesContext;
+import javax.faces.event.AbortProcessingException;
+import javax.faces.event.SystemEvent;
+import javax.faces.event.SystemEventListener;
+
+import org.primefaces.context.ApplicationContext;
+import org.primefaces.context.DefaultApplicationContext;
+
+/**
+ * Releases the thread pools and temporary files of the application context when the application is shut down,
+ * so they do not outlive an undeploy.
+ */
+public class PreDestroyApplicationEventListener implements SystemEventListener {
+
+    public boolean isListenerForSource(Object source) {
+        return true;
+    }
+
+    public void processEvent(SystemEvent event) throws AbortProcessingException {
+        FacesContext context = FacesContext.getCurrentInstance();
+        if(context == null) {
+            return;
+        }
+
+        Map<String,Object> applicationMap = context.getExternalContext().getApplicationMap();
+        ApplicationContext applicationContext = (ApplicationContext) applicationMap.remove(DefaultApplicationContext.INSTANCE_KEY);
+
+        if(applicationContext != null) {
+            applicationContext.release();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.webapp;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+/**
+ * Size limit and allowed types of a fileUpload, registered in the session when the component is rendered so the
+ * multipart parsing of the following upload can enforce them while the file is received.
+ */
+public class UploadLimit implements Serializable {
+
+    public final static String SESSION_KEY = "primefaces.uploadLimits";
+
+    public final static String INVALID_SIZE = "invalidSize";
+
+    public final static String INVALID_TYPE = "invalidType";
+
+    private long sizeLimit;
+    private String allowTypes;
+    private transient Pattern allowTypesPattern;
+
+    public UploadLimit(long sizeLimit, String allowTypes) {
+        this.sizeLimit = sizeLimit;
+        this.allowTypes = allowTypes;
+    }
+
+    public long getSizeLimit() {
+        return sizeLimit;
+    }
+
+    public String getAllowTypes() {
+        return allowTypes;
+    }
+
+    /**
+     * @return true if the file name or the content type matches allowTypes, like the client side check does.
+     */
+    public boolean isAllowed(String fileName, String contentType) {
+        if(allowTypes == null) {
+            return true;
+        }
+
+        if(allowTypesPattern == null) {
+            allowTypesPattern = toPattern(allowTypes);
+        }
+
+        return (fileName != null && allowTypesPattern.matcher(fileName).find())
+                || (contentType != null && allowTypesPattern.matcher(contentType).find());
+    }
+
+    /**
+     * Registers the limits of a fileUpload, a component without limits removes the ones registered before.
+     */
+    public static void register(Map<String,Object> sessionMap, String clientId, long sizeLimit, String allowTypes) {
+        Map<String,UploadLimit> limits = (Map<String,UploadLimit>) sessionMap.get(SESSION_KEY);
+
+        if(sizeLimit == Long.MAX_VALUE && allowTypes == null) {
+            if(limits != null) {
+                limits.remove(clientId);
+            }
+        }
+        else {
+            if(limits == null) {
+                limits = new ConcurrentHashMap<String,UploadLimit>();
+                sessionMap.put(SESSION_KEY, limits);
+            }
+
+            limits.put(clientId, new UploadLimit(sizeLimit, allowTypes));
+        }
+    }
+
+    /**
+     * @return the limits registered for the upload field, null if there are none.
+     */
+    public static UploadLimit get(HttpServletRequest request, String fieldName) {
+        HttpSession session = request.getSession(false);
+        Map<String,UploadLimit> limits = (session == null) ? null : (Map<String,UploadLimit>) session.getAttribute(SESSION_KEY);
+
+        return (limits == null) ? null : limits.get(fieldName);
+    }
+
+    /**
+     * Converts a javascript regular expression literal like /(\.|\/)(gif|png)$/i to a pattern.
+     */
+    static Pattern toPattern(String regex) {
+        String expression = regex.trim();
+        int flags = 0;
+
+        if(expression.startsWith("/") && expression.lastIndexOf('/') > 0) {
+            int end = expression.lastIndexOf('/');
+            if(expression.substring(end + 1).indexOf('i') != -1) {
+                flags = Pattern.CASE_INSENSITIVE;
+            }
+
+            expression = expression.substring(1, end);
+        }
+
+        return Pattern.compile(expression, flags);
+    }
+}
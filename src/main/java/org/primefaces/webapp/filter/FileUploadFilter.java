@@ -31,6 +31,7 @@ import javax.servlet.http.HttpServletRequest;
 
 import org.apache.commons.fileupload.disk.DiskFileItemFactory;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.apache.commons.io.FileCleaningTracker;
 import org.primefaces.util.Constants;
 import org.primefaces.webapp.MultipartRequest;
 
@@ -47,6 +48,8 @@ public class FileUploadFilter implements Filter {
 	private String uploadDir;
     
     private boolean bypass;
+    
+    private FileCleaningTracker fileCleaningTracker;
 	
 	public void init(FilterConfig filterConfig) throws ServletException {
         boolean isAtLeastJSF22 = detectJSF22();
@@ -60,6 +63,7 @@ public class FileUploadFilter implements Filter {
                         
 		thresholdSize = filterConfig.getInitParameter(THRESHOLD_SIZE_PARAM);
 		uploadDir = filterConfig.getInitParameter(UPLOAD_DIRECTORY_PARAM);
+        fileCleaningTracker = new FileCleaningTracker();
 		
 		if(logger.isLoggable(Level.FINE))
 			logger.fine("FileUploadFilter initiated successfully");
@@ -78,16 +82,11 @@ public class FileUploadFilter implements Filter {
 			if(logger.isLoggable(Level.FINE))
 				logger.fine("Parsing file upload request");
 			
-			DiskFileItemFactory diskFileItemFactory = new DiskFileItemFactory();
-			if(thresholdSize != null) {
-				diskFileItemFactory.setSizeThreshold(Integer.valueOf(thresholdSize));
-			}
-			if(uploadDir != null) {
-				diskFileItemFactory.setRepository(new File(uploadDir));
-			}
+			int threshold = (thresholdSize == null) ? DiskFileItemFactory.DEFAULT_SIZE_THRESHOLD : Integer.valueOf(thresholdSize);
+			File repository = (uploadDir == null) ? new File(System.getProperty("java.io.tmpdir")) : new File(uploadDir);
 				
-			ServletFileUpload servletFileUpload = new ServletFileUpload(diskFileItemFactory);
-			MultipartRequest multipartRequest = new MultipartRequest(httpServletRequest, servletFileUpload);
+			ServletFileUpload servletFileUpload = new ServletFileUpload();
+			MultipartRequest multipartRequest = new MultipartRequest(httpServletRequest, servletFileUpload, repository, threshold, fileCleaningTracker);
 			
 			if(logger.isLoggable(Level.FINE))
 				logger.fine("File upload request parsed succesfully, continuing with filter chain with a wrapped multipart request");
@@ -102,6 +101,10 @@ public class FileUploadFilter implements Filter {
 	public void destroy() {
 		if(logger.isLoggable(Level.FINE))
 			logger.fine("Destroying FileUploadFilter");
+        
+        if(fileCleaningTracker != null) {
+            fileCleaningTracker.exitWhenFinished();
+        }
 	}
     
     private boolean detectJSF22() {
@@ -61,10 +61,11 @@ PrimeFaces.widget.DataGrid = PrimeFaces.widget.BaseWidget.extend({
             }
         };
         
-        options.oncomplete = function() {
+        options.oncomplete = function(xhr, status, args) {
             //update paginator state
             _self.paginator.cfg.page = newState.page;
             
+            _self.paginator.updateRowCount(args);
             _self.paginator.updateUI();
         };
 
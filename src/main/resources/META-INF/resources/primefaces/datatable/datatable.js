@@ -719,10 +719,11 @@ PrimeFaces.widget.DataTable = PrimeFaces.widget.DeferredWidget.extend({
             return true;
         };
         
-        options.oncomplete = function() {
+        options.oncomplete = function(xhr, status, args) {
             //update paginator state
             $this.paginator.cfg.page = newState.page;
             
+            $this.paginator.updateRowCount(args);
             $this.paginator.updateUI();
         };
 
@@ -812,7 +813,7 @@ PrimeFaces.widget.DataTable = PrimeFaces.widget.DeferredWidget.extend({
             
             var paginator = $this.getPaginator();             
             if(paginator && this.args && paginator.cfg.rowCount !== this.args.totalRecords) {
-                paginator.setTotalRecords(this.args.totalRecords);
+                paginator.setTotalRecords(this.args.totalRecords, this.args.rowCountEstimated);
             }
 
             return true;
@@ -890,7 +891,7 @@ PrimeFaces.widget.DataTable = PrimeFaces.widget.DeferredWidget.extend({
             
             var paginator = $this.getPaginator();
             if(paginator) {
-                paginator.setTotalRecords(this.args.totalRecords);
+                paginator.setTotalRecords(this.args.totalRecords, this.args.rowCountEstimated);
             }
 
             if($this.cfg.scrollable) {
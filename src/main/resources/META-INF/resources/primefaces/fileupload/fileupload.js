@@ -1542,6 +1542,8 @@ PrimeFaces.widget.FileUpload = PrimeFaces.widget.BaseWidget.extend({
 
     IMAGE_TYPES: /(\.|\/)(gif|jpe?g|png)$/,
 
+    MAX_CHUNK_RETRIES: 3,
+
     init: function(cfg) {
         this._super(cfg);
         if(this.cfg.disabled) {
@@ -1576,6 +1578,7 @@ PrimeFaces.widget.FileUpload = PrimeFaces.widget.BaseWidget.extend({
             url: (encodedURLfield.length) ? encodedURLfield.val() : this.form.attr('action'),
             paramName: this.id,
             dataType: 'xml',
+            maxChunkSize: this.cfg.maxChunkSize,
             dropZone: (this.cfg.dnd === false) ? null : this.jq,
             formData: function() {
                 return $this.createPostData();
@@ -1661,6 +1664,10 @@ PrimeFaces.widget.FileUpload = PrimeFaces.widget.BaseWidget.extend({
 
                         file.row.data('filedata', data);
 
+                        if($this.isChunked(file)) {
+                            data.headers = $.extend({}, data.headers, {'X-Upload-Id': $this.createUploadId(file)});
+                        }
+
                         $this.files.push(file);
 
                         if($this.cfg.auto) {
@@ -1684,6 +1691,15 @@ PrimeFaces.widget.FileUpload = PrimeFaces.widget.BaseWidget.extend({
                 }
             },
             fail: function(e, data) {
+                var file = data.files[0];
+                if(data.errorThrown !== 'abort' && $this.isChunked(file) && file.row && (file.retries = (file.retries || 0) + 1) <= $this.MAX_CHUNK_RETRIES) {
+                    setTimeout(function() {
+                        $this.resume(data);
+                    }, 1000 * file.retries);
+
+                    return;
+                }
+
                 if($this.cfg.onerror) {
                     $this.cfg.onerror.call($this);
                 }
@@ -1801,9 +1817,44 @@ PrimeFaces.widget.FileUpload = PrimeFaces.widget.BaseWidget.extend({
             
     upload: function() {
         for(var i = 0; i < this.files.length; i++) {
-            this.files[i].row.data('filedata').submit();
+            var data = this.files[i].row.data('filedata');
+
+            if(this.isChunked(this.files[i]))
+                this.resume(data);
+            else
+                data.submit();
         }
     },
+
+    isChunked: function(file) {
+        return this.cfg.maxChunkSize && file.size > this.cfg.maxChunkSize;
+    },
+
+    createUploadId: function(file) {
+        var lastModified = file.lastModified || (file.lastModifiedDate ? file.lastModifiedDate.getTime() : '');
+
+        return encodeURIComponent(file.name) + '_' + file.size + '_' + lastModified;
+    },
+
+    /**
+     * Asks the server how much of a chunked upload it already received and continues from there
+     */
+    resume: function(data) {
+        var options = {
+            source: this.id,
+            process: this.id,
+            global: false,
+            params: [
+                {name: this.id + '_uploadOffset', value: data.headers['X-Upload-Id']}
+            ],
+            oncomplete: function(xhr, status, args) {
+                data.uploadedBytes = (args && args.uploadedBytes) ? args.uploadedBytes : 0;
+                data.submit();
+            }
+        };
+
+        PrimeFaces.ajax.AjaxRequest(options);
+    },
             
     createPostData: function() {
         var process = this.cfg.process ? this.id + ' ' + this.cfg.process : this.id,
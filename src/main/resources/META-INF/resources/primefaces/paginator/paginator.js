@@ -129,13 +129,20 @@ PrimeFaces.widget.Paginator = PrimeFaces.widget.BaseWidget.extend({
             this.prevLink.removeClass('ui-state-disabled');
         }
 
+        this.cfg.pageCount = Math.ceil(this.cfg.rowCount / this.cfg.rows)||1;
+        
         if(this.cfg.page == (this.cfg.pageCount - 1)){
             this.nextLink.removeClass('ui-state-hover').addClass('ui-state-disabled');
             this.endLink.removeClass('ui-state-hover').addClass('ui-state-disabled');
         }
         else {
             this.nextLink.removeClass('ui-state-disabled');
-            this.endLink.removeClass('ui-state-disabled');
+            
+            //last page is not known without a row count
+            if(this.cfg.rowCountUnknown)
+                this.endLink.removeClass('ui-state-hover').addClass('ui-state-disabled');
+            else
+                this.endLink.removeClass('ui-state-disabled');
         }
 
         //current page report
@@ -145,10 +152,21 @@ PrimeFaces.widget.Paginator = PrimeFaces.widget.BaseWidget.extend({
             endRecord = this.cfg.rowCount;
         }
 
+        var totalPages = this.cfg.pageCount,
+        totalRecords = this.cfg.rowCount;
+        if(this.cfg.rowCountUnknown && this.cfg.page < (this.cfg.pageCount - 1)) {
+            totalPages = (this.cfg.pageCount - 1) + '+';
+            totalRecords = (this.cfg.rowCount - 1) + '+';
+        }
+        else if(this.cfg.rowCountEstimated) {
+            totalPages = '~' + totalPages;
+            totalRecords = '~' + totalRecords;
+        }
+
         var text = this.cfg.currentPageTemplate
             .replace("{currentPage}", this.cfg.page + 1)
-            .replace("{totalPages}", this.cfg.pageCount)
-            .replace("{totalRecords}", this.cfg.rowCount)
+            .replace("{totalPages}", totalPages)
+            .replace("{totalRecords}", totalRecords)
             .replace("{startRecord}", startRecord)
             .replace("{endRecord}", endRecord);
         this.currentReport.text(text);
@@ -229,13 +247,25 @@ PrimeFaces.widget.Paginator = PrimeFaces.widget.BaseWidget.extend({
         this.setPage(page);
     },
             
-    setTotalRecords: function(value) {
+    setTotalRecords: function(value, estimated) {
         this.cfg.rowCount = value;
+        this.cfg.rowCountEstimated = estimated === true;
         this.cfg.pageCount = Math.ceil(value / this.cfg.rows)||1;
         this.cfg.page = 0;
         this.updateUI();
     },
             
+    /**
+     * Takes the row count of an ajax paging response when the total is not known, it grows as pages are visited,
+     * or when it is an estimate, which is replaced by the exact count once the server has it.
+     */
+    updateRowCount: function(args) {
+        if((this.cfg.rowCountUnknown || this.cfg.rowCountEstimated) && args && args.totalRecords !== undefined) {
+            this.cfg.rowCount = args.totalRecords;
+            this.cfg.rowCountEstimated = args.rowCountEstimated === true;
+        }
+    },
+            
     getCurrentPage: function() {
         return this.cfg.page;
     },
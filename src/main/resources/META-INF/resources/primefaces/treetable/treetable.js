@@ -113,6 +113,11 @@ PrimeFaces.widget.TreeTable = PrimeFaces.widget.DeferredWidget.extend({
                 content = update.get(0).childNodes[0].nodeValue;
 
                 if(id == $this.id){
+                    if($this.cfg.liveScroll) {
+                        //rows after the node are loaded again from the new position
+                        node.nextAll().remove();
+                    }
+                    
                     node.after(content);
                     node.find('.ui-treetable-toggler:first').addClass('ui-icon-triangle-1-s').removeClass('ui-icon-triangle-1-e');
                     node.attr('aria-expanded', true);
@@ -127,6 +132,12 @@ PrimeFaces.widget.TreeTable = PrimeFaces.widget.DeferredWidget.extend({
             return true;
         };
 
+        if(this.cfg.liveScroll) {
+            options.oncomplete = function(xhr, status, args) {
+                $this.updateLiveScroll(args);
+            };
+        }
+
         options.params = [
             {name: this.id + '_expand', value: nodeKey}
         ];
@@ -171,6 +182,20 @@ PrimeFaces.widget.TreeTable = PrimeFaces.widget.DeferredWidget.extend({
 
             collapseBehavior.call(this, node, ext);
         }
+        else if(this.cfg.liveScroll) {
+            //visible nodes are indexed on server side
+            PrimeFaces.ajax.AjaxRequest({
+                source: this.id,
+                process: this.id,
+                params: [
+                    {name: this.id + '_collapse', value: nodeKey}
+                ]
+            });
+        }
+        
+        if(this.cfg.liveScroll) {
+            this.updateLiveScroll();
+        }
     },
     
     onRowClick: function(event, node) {
@@ -523,15 +548,83 @@ PrimeFaces.widget.TreeTable = PrimeFaces.widget.DeferredWidget.extend({
         
         this.restoreScrollState();
         
+        if(this.cfg.liveScroll) {
+            this.updateLiveScroll();
+        }
+        
         this.scrollBody.scroll(function() {
             var scrollLeft = $this.scrollBody.scrollLeft();
             $this.scrollHeaderBox.css('margin-left', -scrollLeft);
             $this.scrollFooterBox.css('margin-left', -scrollLeft);
             
+            if($this.shouldLiveScroll) {
+                var scrollTop = this.scrollTop,
+                scrollHeight = this.scrollHeight,
+                viewportHeight = this.clientHeight;
+
+                if(scrollTop >= (scrollHeight - (viewportHeight))) {
+                    $this.loadLiveRows();
+                }
+            }
+            
             $this.saveScrollState();
         });
     },
     
+    loadLiveRows: function() {
+        var options = {
+            source: this.id,
+            process: this.id,
+            update: this.id
+        },
+        $this = this;
+        
+        this.shouldLiveScroll = false;
+
+        options.onsuccess = function(responseXML) {
+            var xmlDoc = $(responseXML.documentElement),
+            updates = xmlDoc.find("update");
+
+            for(var i=0; i < updates.length; i++) {
+                var update = updates.eq(i),
+                id = update.attr('id'),
+                content = update.get(0).childNodes[0].nodeValue;
+
+                if(id == $this.id) {
+                    $this.tbody.append(content);
+                }
+                else {
+                    PrimeFaces.ajax.AjaxUtils.updateElement.call(this, id, content);
+                }
+            }
+
+            PrimeFaces.ajax.AjaxUtils.handleResponse.call(this, xmlDoc);
+
+            return true;
+        };
+        
+        options.oncomplete = function(xhr, status, args) {
+            $this.updateLiveScroll(args);
+        };
+
+        options.params = [
+            {name: this.id + '_scrolling', value: true},
+            {name: this.id + '_scrollOffset', value: this.scrollOffset}
+        ];
+
+        PrimeFaces.ajax.AjaxRequest(options);
+    },
+    
+    updateLiveScroll: function(args) {
+        if(args && args.visibleNodes !== undefined) {
+            this.cfg.scrollLimit = args.visibleNodes;
+        }
+        
+        //rendered rows are always the leading part of the visible nodes
+        this.scrollOffset = this.tbody.children('tr:not(.ui-treetable-empty-message)').length;
+        this.shouldLiveScroll = this.scrollOffset < this.cfg.scrollLimit;
+    },
+    
     fixColumnWidths: function() {
         var $this = this;
         
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.application;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.faces.context.ExternalContext;
+import javax.faces.context.ExternalContextWrapper;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.easymock.IAnswer;
+import org.junit.After;
+import org.junit.Test;
+import org.primefaces.model.AsyncStreamedContent;
+
+public class AsyncContentWriterTest {
+
+	private AsyncContentWriter writer;
+
+	private ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+	private CountDownLatch completed = new CountDownLatch(1);
+
+	private AsyncListener listener;
+
+	private CountDownLatch interrupted = new CountDownLatch(1);
+
+	private volatile int sentStatus;
+
+	@After
+	public void shutdown() {
+		if(writer != null) {
+			writer.shutdown();
+		}
+	}
+
+	@Test
+	public void shouldWriteContentOnWorkerThread() throws Exception {
+		writer = new AsyncContentWriter(1, 1, 10000);
+		HttpServletResponse response = createResponse(false);
+
+		assertTrue(writer.write(createExternalContext(createRequest(response), response), new Content("content", null, null)));
+		assertTrue(completed.await(5, TimeUnit.SECONDS));
+
+		assertEquals("content", out.toString("UTF-8"));
+		assertEquals(1, writer.getSubmittedCount());
+		assertEquals(1, writer.getCompletedCount());
+		assertEquals(7, writer.getBytesWritten());
+		assertEquals(0, writer.getRejectedCount());
+		assertEquals(0, writer.getFailedCount());
+	}
+
+	@Test
+	public void shouldFallBackToRequestThreadWhenQueueIsFull() throws Exception {
+		writer = new AsyncContentWriter(1, 1, 10000);
+		HttpServletResponse response = createResponse(false);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		assertTrue(writer.write(createExternalContext(createRequest(response), response), new Content("first", started, release)));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		assertTrue(writer.write(createExternalContext(createRequest(response), response), new Content("second", null, null)));
+		assertEquals(1, writer.getQueuedCount());
+
+		assertFalse(writer.write(createExternalContext(createRequest(response), response), new Content("third", null, null)));
+		assertEquals(2, writer.getSubmittedCount());
+		assertEquals(1, writer.getRejectedCount());
+
+		release.countDown();
+	}
+
+	@Test
+	public void shouldNotUseAsyncModeWhenUnsupported() {
+		writer = new AsyncContentWriter(1, 1, 10000);
+		HttpServletResponse response = createNiceMock(HttpServletResponse.class);
+		HttpServletRequest request = createNiceMock(HttpServletRequest.class);
+		expect(request.isAsyncSupported()).andReturn(false).anyTimes();
+		replay(request, response);
+
+		assertFalse(writer.write(createExternalContext(request, response), new Content("content", null, null)));
+		assertEquals(0, writer.getSubmittedCount());
+		assertEquals(0, writer.getRejectedCount());
+	}
+
+	@Test
+	public void shouldSendServiceUnavailableOnTimeout() throws Exception {
+		writer = new AsyncContentWriter(1, 1, 10000);
+		HttpServletResponse response = createResponse(true);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		assertTrue(writer.write(createExternalContext(createRequest(response), response), new Content("content", started, release)));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		listener.onTimeout(null);
+
+		assertTrue(completed.await(5, TimeUnit.SECONDS));
+		verify(response);
+		assertEquals(1, writer.getTimeoutCount());
+		assertEquals(0, writer.getCompletedCount());
+		assertEquals(0, writer.getFailedCount());
+
+		release.countDown();
+	}
+
+	@Test
+	public void shouldKeepPartialResponseOnTimeout() throws Exception {
+		writer = new AsyncContentWriter(1, 1, 10000);
+		HttpServletResponse response = createResponse(false);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		assertTrue(writer.write(createExternalContext(createRequest(response), response), new Content("content", 1, started, release)));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		listener.onTimeout(null);
+
+		assertTrue(completed.await(5, TimeUnit.SECONDS));
+		assertEquals(0, sentStatus);
+		assertEquals(1, writer.getTimeoutCount());
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void shouldCancelWorkerOnError() throws Exception {
+		writer = new AsyncContentWriter(1, 1, 10000);
+		HttpServletResponse response = createResponse(false);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		assertTrue(writer.write(createExternalContext(createRequest(response), response), new Content("content", started, release)));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		listener.onError(null);
+
+		assertTrue(completed.await(5, TimeUnit.SECONDS));
+		assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+		assertEquals(0, sentStatus);
+		assertEquals(0, writer.getCompletedCount());
+		assertEquals(0, writer.getFailedCount());
+		assertEquals(0, writer.getBytesWritten());
+	}
+
+	private HttpServletResponse createResponse(boolean expectTimeout) throws IOException {
+		HttpServletResponse response = createNiceMock(HttpServletResponse.class);
+		expect(response.isCommitted()).andReturn(false).anyTimes();
+		expect(response.getOutputStream()).andReturn(new ServletOutputStream() {
+
+			@Override
+			public void write(int b) throws IOException {
+				out.write(b);
+			}
+		}).anyTimes();
+
+		if(expectTimeout) {
+			response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+		}
+		else {
+			response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			expectLastCall().andAnswer(new IAnswer<Object>() {
+
+				public Object answer() {
+					sentStatus = HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+					return null;
+				}
+			}).anyTimes();
+		}
+
+		replay(response);
+
+		return response;
+	}
+
+	private HttpServletRequest createRequest(HttpServletResponse response) {
+		AsyncContext asyncContext = createNiceMock(AsyncContext.class);
+		expect(asyncContext.getResponse()).andReturn(response).anyTimes();
+		asyncContext.addListener((AsyncListener) anyObject());
+		expectLastCall().andAnswer(new IAnswer<Object>() {
+
+			public Object answer() {
+				listener = (AsyncListener) getCurrentArguments()[0];
+				return null;
+			}
+		}).anyTimes();
+		asyncContext.complete();
+		expectLastCall().andAnswer(new IAnswer<Object>() {
+
+			public Object answer() {
+				completed.countDown();
+				return null;
+			}
+		}).anyTimes();
+
+		HttpServletRequest request = createNiceMock(HttpServletRequest.class);
+		expect(request.isAsyncSupported()).andReturn(true).anyTimes();
+		expect(request.startAsync(request, response)).andReturn(asyncContext).anyTimes();
+		replay(asyncContext, request);
+
+		return request;
+	}
+
+	private ExternalContext createExternalContext(final HttpServletRequest request, final HttpServletResponse response) {
+		return new ExternalContextWrapper() {
+
+			@Override
+			public ExternalContext getWrapped() {
+				return null;
+			}
+
+			@Override
+			public Object getRequest() {
+				return request;
+			}
+
+			@Override
+			public Object getResponse() {
+				return response;
+			}
+		};
+	}
+
+	private class Content implements AsyncStreamedContent {
+
+		private String value;
+		private int blockAt;
+		private CountDownLatch started;
+		private CountDownLatch release;
+
+		public Content(String value, CountDownLatch started, CountDownLatch release) {
+			this(value, 0, started, release);
+		}
+
+		/**
+		 * @param blockAt position at which reading blocks until the content is released.
+		 */
+		public Content(String value, int blockAt, CountDownLatch started, CountDownLatch release) {
+			this.value = value;
+			this.blockAt = blockAt;
+			this.started = started;
+			this.release = release;
+		}
+
+		public long getTimeout() {
+			return 0;
+		}
+
+		public String getName() {
+			return value;
+		}
+
+		public InputStream getStream() {
+			final byte[] bytes = value.getBytes();
+
+			return new InputStream() {
+
+				private int position;
+
+				@Override
+				public int read() throws IOException {
+					if(position == blockAt && started != null) {
+						started.countDown();
+						try {
+							release.await(5, TimeUnit.SECONDS);
+						}
+						catch(InterruptedException e) {
+							interrupted.countDown();
+							throw new IOException("Interrupted");
+						}
+					}
+
+					return position < bytes.length ? bytes[position++] : -1;
+				}
+
+				@Override
+				public int read(byte[] buffer, int offset, int length) throws IOException {
+					//one byte at a time so the content is written up to the blocking position
+					int b = read();
+					if(b == -1) {
+						return -1;
+					}
+
+					buffer[offset] = (byte) b;
+					return 1;
+				}
+			};
+		}
+
+		public String getContentType() {
+			return "text/plain";
+		}
+
+		public String getContentEncoding() {
+			return null;
+		}
+	}
+}
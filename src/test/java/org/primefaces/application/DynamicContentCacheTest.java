@@ -0,0 +1,175 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.application;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class DynamicContentCacheTest {
+
+	@Test
+	public void shouldEvictLeastRecentlyUsedBySize() {
+		DynamicContentCache cache = new DynamicContentCache(100, 60000, false);
+		cache.put("a", new byte[40], 40, "image/png", null);
+		cache.put("b", new byte[40], 40, "image/png", null);
+		cache.get("a");
+		cache.put("c", new byte[40], 40, "image/png", null);
+
+		assertNotNull(cache.get("a"));
+		assertNull(cache.get("b"));
+		assertNotNull(cache.get("c"));
+		assertEquals(80, cache.getSize());
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(3, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void shouldIgnoreContentLargerThanCache() {
+		DynamicContentCache cache = new DynamicContentCache(10, 60000, false);
+		cache.put("a", new byte[20], 20, "image/png", null);
+
+		assertNull(cache.get("a"));
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	public void shouldExpireEntries() throws InterruptedException {
+		DynamicContentCache cache = new DynamicContentCache(100, 1, false);
+		cache.put("a", new byte[10], 10, "image/png", null);
+		Thread.sleep(10);
+
+		assertNull(cache.get("a"));
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	public void shouldWriteDirectBuffers() throws IOException {
+		DynamicContentCache cache = new DynamicContentCache(100, 60000, true);
+		cache.put("a", new byte[]{1, 2, 3, 4}, 3, "image/png", null);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		cache.get("a").writeTo(out);
+
+		assertArrayEquals(new byte[]{1, 2, 3}, out.toByteArray());
+	}
+
+	@Test
+	public void shouldCreateKeyFromExpressionAndParams() {
+		Map<String,String> params = new HashMap<String,String>();
+		params.put("ln", "primefaces");
+		params.put("id", "5");
+
+		String key = DynamicContentCache.createKey("#{bean.image}", null, params, "ln");
+		params.put("id", "6");
+
+		assertFalse(key.equals(DynamicContentCache.createKey("#{bean.image}", null, params, "ln")));
+		assertTrue(key.startsWith("#{bean.image}"));
+		assertFalse(key.contains("primefaces"));
+	}
+
+	@Test
+	public void shouldNotShareSessionContentAcrossSessions() {
+		DynamicContentCache cache = new DynamicContentCache(100, 60000, false);
+		Map<String,String> params = new HashMap<String,String>();
+		String first = DynamicContentCache.createKey("#{sessionBean.avatar}", "session1", params);
+		String second = DynamicContentCache.createKey("#{sessionBean.avatar}", "session2", params);
+		cache.put(first, new byte[]{1}, 1, "image/png", null);
+
+		assertFalse(first.equals(second));
+		assertNotNull(cache.get(first));
+		assertNull(cache.get(second));
+		assertNull(cache.get(DynamicContentCache.createKey("#{sessionBean.avatar}", null, params)));
+	}
+
+	@Test
+	public void shouldTakeScopeFromContentId() {
+		String sessionId = DynamicContentCache.createContentId("#{userBean.avatar}", "session");
+		String applicationId = DynamicContentCache.createContentId("#{appBean.logo}", "application");
+
+		assertEquals(DynamicContentCache.SESSION_SCOPE, DynamicContentCache.getScope(sessionId));
+		assertEquals("#{userBean.avatar}", DynamicContentCache.getExpression(sessionId));
+		assertEquals(DynamicContentCache.APPLICATION_SCOPE, DynamicContentCache.getScope(applicationId));
+		assertEquals("#{appBean.logo}", DynamicContentCache.getExpression(applicationId));
+
+		//content rendered without serverCache is never cached
+		assertNull(DynamicContentCache.getScope("#{userBean.avatar}"));
+		assertEquals("#{userBean.avatar}", DynamicContentCache.getExpression("#{userBean.avatar}"));
+	}
+
+	@Test
+	public void shouldCacheUnknownScopePerSession() {
+		assertEquals(DynamicContentCache.SESSION_SCOPE, DynamicContentCache.getScope(DynamicContentCache.createContentId("#{userBean.avatar}", "Application")));
+		assertEquals(DynamicContentCache.SESSION_SCOPE, DynamicContentCache.getScope(DynamicContentCache.createContentId("#{userBean.avatar}", "global")));
+		assertEquals(DynamicContentCache.SESSION_SCOPE, DynamicContentCache.getScope(DynamicContentCache.createContentId("#{userBean.avatar}", "")));
+	}
+
+	@Test
+	public void shouldNotUpgradeScopeFromRequestParams() {
+		//a session scoped id requested with a forged scope param still gets a key of the session
+		Map<String,String> params = new HashMap<String,String>();
+		params.put("pfdrid_sc", "application");
+		String contentId = DynamicContentCache.createContentId("#{userBean.avatar}", "session");
+		String key = DynamicContentCache.createKey(DynamicContentCache.getExpression(contentId), "victim", params);
+
+		assertEquals(DynamicContentCache.SESSION_SCOPE, DynamicContentCache.getScope(contentId));
+		assertTrue(key.startsWith("victim"));
+		assertFalse(key.equals(DynamicContentCache.createKey("#{userBean.avatar}", null, params)));
+	}
+
+	@Test
+	public void shouldCacheContentFittingAnEntry() throws IOException {
+		DynamicContentCache cache = new DynamicContentCache(100, 10, 60000, false);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DynamicContentCache.Entry entry = cache.put("a", new ByteArrayInputStream(new byte[]{1, 2, 3}), "image/png", null, out);
+
+		assertNotNull(entry);
+		assertEquals(3, entry.getLength());
+		assertEquals(0, out.size());
+		assertNotNull(cache.get("a"));
+	}
+
+	@Test
+	public void shouldStreamContentLargerThanAnEntry() throws IOException {
+		DynamicContentCache cache = new DynamicContentCache(100000, 10, 60000, false);
+		byte[] bytes = new byte[20000];
+		for(int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) i;
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		assertNull(cache.put("a", new ByteArrayInputStream(bytes), "image/png", null, out));
+		assertArrayEquals(bytes, out.toByteArray());
+		assertNull(cache.get("a"));
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	public void shouldLimitEntriesToCacheSize() throws IOException {
+		DynamicContentCache cache = new DynamicContentCache(3L * Integer.MAX_VALUE, 4L * Integer.MAX_VALUE, 60000, false);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		assertEquals(3L * Integer.MAX_VALUE, cache.getMaxEntrySize());
+		assertNotNull(cache.put("a", new ByteArrayInputStream(new byte[10000]), "image/png", null, out));
+		assertEquals(10000, cache.get("a").getLength());
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.component.api;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.faces.event.PhaseId;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.primefaces.expression.FacesContextMock;
+import org.primefaces.model.DefaultTreeNode;
+import org.primefaces.model.TreeNode;
+import org.primefaces.model.TreeNodeChildren;
+
+public class UITreeTest {
+
+	private Map<Object,Object> attributes;
+
+	private PhaseContext context;
+
+	private UITree tree;
+
+	private TreeNode root;
+
+	private TreeNode a;
+
+	private TreeNode b;
+
+	private TreeNode b1;
+
+	@Before
+	public void setup() {
+		attributes = new HashMap<Object,Object>();
+		context = new PhaseContext(attributes);
+		context.setCurrentPhaseId(PhaseId.APPLY_REQUEST_VALUES);
+
+		root = new DefaultTreeNode("root", null);
+		a = new DefaultTreeNode("a", root);
+		b = new DefaultTreeNode("b", root);
+		b1 = new DefaultTreeNode("b1", b);
+		TreeNodeChildren.updateRowKeys(root);
+
+		tree = new UITree() {
+
+			@Override
+			public String getFamily() {
+				return "org.primefaces.component";
+			}
+		};
+		tree.setId("tree");
+		tree.setValue(root);
+	}
+
+	@Test
+	public void shouldResolveValidKeys() {
+		assertSame(a, tree.resolveTreeNode(root, "0"));
+		assertSame(b, tree.resolveTreeNode(root, "1"));
+		assertSame(b1, tree.resolveTreeNode(root, "1_0"));
+		assertSame(b1, tree.resolveTreeNode(root, "01_0"));
+	}
+
+	@Test
+	public void shouldRejectMalformedKeys() {
+		assertNull(tree.resolveTreeNode(root, ""));
+		assertNull(tree.resolveTreeNode(root, "_"));
+		assertNull(tree.resolveTreeNode(root, "1_"));
+		assertNull(tree.resolveTreeNode(root, "_1"));
+		assertNull(tree.resolveTreeNode(root, "1__0"));
+		assertNull(tree.resolveTreeNode(root, "-1"));
+		assertNull(tree.resolveTreeNode(root, "b"));
+	}
+
+	@Test
+	public void shouldRejectOverflowingKeys() {
+		assertNull(tree.resolveTreeNode(root, "2147483648"));
+		assertNull(tree.resolveTreeNode(root, "1_99999999999999999999"));
+	}
+
+	@Test
+	public void shouldRejectOutOfRangeKeys() {
+		assertNull(tree.resolveTreeNode(root, "2"));
+		assertNull(tree.resolveTreeNode(root, "1_1"));
+		assertNull(tree.resolveTreeNode(root, "0_0"));
+		assertNull(tree.resolveTreeNode(root, "1_0_0"));
+	}
+
+	@Test
+	public void shouldKeepIndexInSyncWithTree() {
+		assertSame(b, tree.findTreeNode(root, "1"));
+
+		root.getChildren().remove(a);
+		assertSame(b, tree.findTreeNode(root, "0"));
+		assertNull(tree.findTreeNode(root, "1"));
+
+		TreeNodeChildren.updateRowKeys(root);
+		assertSame(b, tree.findTreeNode(root, "0"));
+
+		TreeNode c = new DefaultTreeNode("c", null);
+		List<TreeNode> children = new ArrayList<TreeNode>();
+		children.add(c);
+		b.setChildren(children);
+		assertSame(c, tree.findTreeNode(root, "0_0"));
+
+		TreeNodeChildren.updateRowKeys(root);
+		assertSame(b, tree.findTreeNode(root, "0"));
+		children.set(0, b1);
+		assertSame(b1, tree.findTreeNode(root, "0_0"));
+	}
+
+	@Test
+	public void shouldKeepIndexPerRequestAndPhase() {
+		tree.findTreeNode(root, "1");
+		Object index = attributes.get("tree_rowKeyIndex");
+		assertNotNull(index);
+
+		tree.findTreeNode(root, "0");
+		assertSame(index, attributes.get("tree_rowKeyIndex"));
+
+		context.setCurrentPhaseId(PhaseId.RENDER_RESPONSE);
+		tree.findTreeNode(root, "0");
+		assertNotSame(index, attributes.get("tree_rowKeyIndex"));
+
+		Map<Object,Object> nextRequest = new HashMap<Object,Object>();
+		new PhaseContext(nextRequest);
+		assertSame(b, tree.findTreeNode(root, "1"));
+		assertNotSame(index, nextRequest.get("tree_rowKeyIndex"));
+	}
+
+	private static class PhaseContext extends FacesContextMock {
+
+		private PhaseId phaseId;
+
+		public PhaseContext(Map<Object,Object> attributes) {
+			super(attributes);
+		}
+
+		@Override
+		public PhaseId getCurrentPhaseId() {
+			return phaseId;
+		}
+
+		@Override
+		public void setCurrentPhaseId(PhaseId phaseId) {
+			this.phaseId = phaseId;
+		}
+	}
+}
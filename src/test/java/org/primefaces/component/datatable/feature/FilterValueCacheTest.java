@@ -0,0 +1,189 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.component.datatable.feature;
+
+import static org.junit.Assert.*;
+
+import java.util.BitSet;
+
+import org.junit.Test;
+import org.primefaces.model.ColumnAccessor;
+import org.primefaces.model.filter.ContainsFilterConstraint;
+import org.primefaces.model.filter.EndsWithFilterConstraint;
+import org.primefaces.model.filter.ExactFilterConstraint;
+import org.primefaces.model.filter.FilterConstraint;
+import org.primefaces.model.filter.StartsWithFilterConstraint;
+
+public class FilterValueCacheTest {
+
+	private final static FilterConstraint CONTAINS = new ContainsFilterConstraint();
+	private final static FilterConstraint STARTS_WITH = new StartsWithFilterConstraint();
+	private final static FilterConstraint ENDS_WITH = new EndsWithFilterConstraint();
+	private final static FilterConstraint EXACT = new ExactFilterConstraint();
+
+	private ColumnAccessor accessor = new ColumnAccessor("car", "model");
+
+	@Test
+	public void shouldReadLowerCasedValuesOnce() {
+		FilterValueCache cache = new FilterValueCache();
+		Car[] rows = cars("Volvo", "AUDI");
+		Object value = new Object();
+
+		assertArrayEquals(new String[]{"volvo", "audi"}, cache.getColumnValues(null, accessor, value, rows));
+		assertSame(cache.getColumnValues(null, accessor, value, rows), cache.getColumnValues(null, accessor, value, rows));
+		assertEquals(1, rows[0].reads);
+	}
+
+	@Test
+	public void shouldDropValuesOfAnotherList() {
+		FilterValueCache cache = new FilterValueCache();
+		Car[] rows = cars("Volvo", "Audi");
+		cache.getColumnValues(null, accessor, new Object(), rows);
+
+		assertArrayEquals(new String[]{"volvo", "audi"}, cache.getColumnValues(null, accessor, new Object(), rows));
+		assertEquals(2, rows[0].reads);
+	}
+
+	@Test
+	public void shouldDropValuesWhenSizeChanges() {
+		FilterValueCache cache = new FilterValueCache();
+		Object value = new Object();
+		cache.getColumnValues(null, accessor, value, cars("Volvo", "Audi"));
+
+		assertArrayEquals(new String[]{"volvo", "audi", "bmw"}, cache.getColumnValues(null, accessor, value, cars("Volvo", "Audi", "BMW")));
+	}
+
+	@Test
+	public void shouldDropLastFilterWithValues() {
+		FilterValueCache cache = new FilterValueCache();
+		Car[] rows = cars("Volvo", "Audi");
+		Object value = new Object();
+		String[] values = cache.getColumnValues(null, accessor, value, rows);
+		cache.match(filter(CONTAINS, "v"), matcher(values, "v"), rows.length, null);
+
+		assertNotNull(cache.getLastFilter());
+		cache.getColumnValues(null, accessor, new Object(), rows);
+		assertNull(cache.getLastFilter());
+	}
+
+	@Test
+	public void shouldNarrowWhenTermIsExtended() {
+		assertTrue(filter(STARTS_WITH, "vol").isNarrowedBy(filter(STARTS_WITH, "volv")));
+		assertTrue(filter(CONTAINS, "ol").isNarrowedBy(filter(CONTAINS, "volv")));
+		assertTrue(filter(CONTAINS, "ol").isNarrowedBy(filter(CONTAINS, "ol")));
+		assertTrue(global("ol").isNarrowedBy(global("volv")));
+	}
+
+	@Test
+	public void shouldNotNarrowWhenTermIsReplaced() {
+		assertFalse(filter(STARTS_WITH, "vol").isNarrowedBy(filter(STARTS_WITH, "avol")));
+		assertFalse(filter(CONTAINS, "volv").isNarrowedBy(filter(CONTAINS, "vol")));
+		assertFalse(filter(ENDS_WITH, "vol").isNarrowedBy(filter(ENDS_WITH, "volv")));
+		assertFalse(filter(EXACT, "vol").isNarrowedBy(filter(EXACT, "volv")));
+		assertFalse(global("volv").isNarrowedBy(global("ol")));
+	}
+
+	@Test
+	public void shouldNotNarrowWhenConstraintChanges() {
+		assertFalse(filter(CONTAINS, "vol").isNarrowedBy(filter(STARTS_WITH, "volv")));
+	}
+
+	@Test
+	public void shouldNotNarrowWhenColumnFilterIsCleared() {
+		assertFalse(filter(CONTAINS, "vol").isNarrowedBy(filter(CONTAINS, null)));
+		assertFalse(global("vol").isNarrowedBy(global(null)));
+	}
+
+	@Test
+	public void shouldNotNarrowWhenColumnFilterIsAdded() {
+		FilterValueCache.FilterState previous = filter(CONTAINS, "vol");
+		FilterValueCache.FilterState current = new FilterValueCache.FilterState(new String[]{"model", "color"}, new String[]{"vol", "red"}, new FilterConstraint[]{CONTAINS, CONTAINS}, null);
+
+		assertFalse(previous.isNarrowedBy(current));
+		assertFalse(current.isNarrowedBy(previous));
+	}
+
+	@Test
+	public void shouldOnlyMatchPreviousMatchesWhenNarrowed() {
+		FilterValueCache cache = new FilterValueCache();
+		cache.match(filter(CONTAINS, "vol"), matcher(new String[]{"volvo", "audi", "volkswagen"}, "vol"), 3, null);
+
+		//the values differ on purpose, only the rows matched before are checked again
+		BitSet matches = cache.match(filter(CONTAINS, "volk"), matcher(new String[]{"volk", "volk", "volkswagen"}, "volk"), 3, null);
+
+		assertEquals(bits(0, 2), matches);
+		assertSame(matches, cache.getLastFilter().getMatches());
+	}
+
+	@Test
+	public void shouldReplaceMatchesAfterScanThatDidNotNarrow() {
+		FilterValueCache cache = new FilterValueCache();
+		String[] values = {"volvo", "audi", "volkswagen"};
+		cache.match(filter(CONTAINS, "vol"), matcher(values, "vol"), 3, null);
+
+		BitSet matches = cache.match(filter(CONTAINS, "aud"), matcher(values, "aud"), 3, null);
+		assertEquals(bits(1), matches);
+		assertEquals(bits(1), cache.getLastFilter().getMatches());
+
+		assertEquals(bits(1), cache.match(filter(CONTAINS, "audi"), matcher(values, "audi"), 3, null));
+		assertEquals(bits(0, 2), cache.match(filter(CONTAINS, "v"), matcher(values, "v"), 3, null));
+	}
+
+	private FilterValueCache.FilterState filter(FilterConstraint constraint, String filterValue) {
+		return new FilterValueCache.FilterState(new String[]{"model"}, new String[]{filterValue}, new FilterConstraint[]{constraint}, null);
+	}
+
+	private FilterValueCache.FilterState global(String globalFilter) {
+		return new FilterValueCache.FilterState(new String[]{"model"}, new String[]{null}, new FilterConstraint[]{CONTAINS}, globalFilter);
+	}
+
+	private BitSet bits(int... indexes) {
+		BitSet bits = new BitSet();
+		for(int index : indexes) {
+			bits.set(index);
+		}
+
+		return bits;
+	}
+
+	private RowMatcher matcher(String[] values, String filterValue) {
+		return new RowMatcher(new String[][]{values}, new String[]{filterValue}, new FilterConstraint[]{CONTAINS}, null);
+	}
+
+	private Car[] cars(String... models) {
+		Car[] cars = new Car[models.length];
+		for(int i = 0; i < models.length; i++) {
+			cars[i] = new Car(models[i]);
+		}
+
+		return cars;
+	}
+
+	public static class Car {
+
+		private String model;
+		private int reads;
+
+		public Car(String model) {
+			this.model = model;
+		}
+
+		public String getModel() {
+			reads++;
+			return model;
+		}
+	}
+}
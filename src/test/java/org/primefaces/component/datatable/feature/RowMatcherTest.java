@@ -0,0 +1,93 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.component.datatable.feature;
+
+import static org.junit.Assert.*;
+
+import java.util.BitSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+import org.primefaces.model.filter.ContainsFilterConstraint;
+import org.primefaces.model.filter.ExactFilterConstraint;
+import org.primefaces.model.filter.FilterConstraint;
+import org.primefaces.model.filter.StartsWithFilterConstraint;
+
+public class RowMatcherTest {
+
+	@Test
+	public void shouldMatchColumnFilters() {
+		String[][] values = {{"volvo", "audi", "volkswagen"}, {"red", "red", "blue"}};
+		RowMatcher matcher = new RowMatcher(values, new String[]{"vol", "red"}, new FilterConstraint[]{new StartsWithFilterConstraint(), new ExactFilterConstraint()}, null);
+
+		assertEquals(bits(0), matcher.match(3, null, null));
+	}
+
+	@Test
+	public void shouldMatchGlobalFilterInAnyColumn() {
+		String[][] values = {{"volvo", "audi", "bmw"}, {"black", "blue", "green"}};
+		RowMatcher matcher = new RowMatcher(values, new String[]{null, null}, new FilterConstraint[]{new ContainsFilterConstraint(), new ContainsFilterConstraint()}, "e");
+
+		assertEquals(bits(1, 2), matcher.match(3, null, null));
+	}
+
+	@Test
+	public void shouldOnlyMatchCandidates() {
+		String[][] values = {{"volvo", "audi", "volkswagen"}};
+		RowMatcher matcher = new RowMatcher(values, new String[]{"vol"}, new FilterConstraint[]{new ContainsFilterConstraint()}, null);
+
+		assertEquals(bits(2), matcher.match(3, bits(1, 2), null));
+	}
+
+	@Test
+	public void shouldKeepRowOrderWhenMatchingInParallel() {
+		int rowCount = 100000;
+		String[][] values = new String[1][rowCount];
+		for(int i = 0; i < rowCount; i++) {
+			values[0][i] = "row" + i;
+		}
+		RowMatcher matcher = new RowMatcher(values, new String[]{"7"}, new FilterConstraint[]{new ContainsFilterConstraint()}, null);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try {
+			BitSet sequential = matcher.match(rowCount, null, null);
+			BitSet parallel = matcher.match(rowCount, null, executor);
+
+			assertEquals(sequential, parallel);
+			assertEquals(sequential, matcher.match(rowCount, sequential, executor));
+
+			int previous = -1;
+			for(int i = parallel.nextSetBit(0); i >= 0; i = parallel.nextSetBit(i + 1)) {
+				assertTrue(values[0][i].contains("7"));
+				assertTrue(i > previous);
+				previous = i;
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private BitSet bits(int... indexes) {
+		BitSet bits = new BitSet();
+		for(int index : indexes) {
+			bits.set(index);
+		}
+
+		return bits;
+	}
+}
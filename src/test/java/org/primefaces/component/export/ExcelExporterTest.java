@@ -0,0 +1,167 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.component.export;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Map;
+import javax.faces.context.ExternalContext;
+import javax.faces.context.ExternalContextWrapper;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+public class ExcelExporterTest {
+
+	private final static Date DATE = new Date(1381968000000L);
+
+	private ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+	@Test
+	public void shouldWriteTypedCellsToXls() throws IOException {
+		ExcelExporter exporter = new ExcelExporter();
+		Workbook wb = new HSSFWorkbook();
+		writeRows(exporter, wb, 1);
+
+		exporter.writeExcelToResponse(createExternalContext(), wb, "cars");
+
+		assertTypedCells(new HSSFWorkbook(new ByteArrayInputStream(out.toByteArray())).getSheetAt(0).getRow(0));
+	}
+
+	@Test
+	public void shouldWriteTypedCellsToXlsx() throws IOException {
+		ExcelXExporter exporter = new ExcelXExporter();
+		SXSSFWorkbook wb = new SXSSFWorkbook(2);
+		writeRows(exporter, wb, 10);
+
+		exporter.writeExcelToResponse(createExternalContext(), wb, "cars");
+
+		Sheet sheet = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray())).getSheetAt(0);
+		assertEquals(9, sheet.getLastRowNum());
+		for(int i = 0; i < 10; i++) {
+			assertTypedCells(sheet.getRow(i));
+		}
+	}
+
+	@Test
+	public void shouldDeleteTempFilesOfStreamingWorkbook() throws IOException {
+		ExcelXExporter exporter = new ExcelXExporter();
+		SXSSFWorkbook wb = new SXSSFWorkbook(2);
+		wb.setCompressTempFiles(true);
+		writeRows(exporter, wb, 10);
+		File tempDir = new File(System.getProperty("java.io.tmpdir"), "poifiles");
+		int tempFiles = countSheetFiles(tempDir);
+		assertTrue(tempFiles > 0);
+
+		exporter.writeExcelToResponse(createExternalContext(), wb, "cars");
+
+		assertEquals(tempFiles - 1, countSheetFiles(tempDir));
+	}
+
+	private void writeRows(ExcelExporter exporter, Workbook wb, int count) {
+		Sheet sheet = wb.createSheet();
+		Calendar calendar = Calendar.getInstance();
+		calendar.setTime(DATE);
+
+		for(int i = 0; i < count; i++) {
+			Row row = sheet.createRow(i);
+			exporter.setCellValue(row.createCell(0), 2004);
+			exporter.setCellValue(row.createCell(1), DATE);
+			exporter.setCellValue(row.createCell(2), calendar);
+			exporter.setCellValue(row.createCell(3), Boolean.TRUE);
+			exporter.setCellValue(row.createCell(4), "Volvo");
+			exporter.setCellValue(row.createCell(5), null);
+		}
+	}
+
+	private void assertTypedCells(Row row) {
+		assertEquals(Cell.CELL_TYPE_NUMERIC, row.getCell(0).getCellType());
+		assertEquals(2004, row.getCell(0).getNumericCellValue(), 0);
+		assertFalse(DateUtil.isCellDateFormatted(row.getCell(0)));
+
+		assertEquals(Cell.CELL_TYPE_NUMERIC, row.getCell(1).getCellType());
+		assertTrue(DateUtil.isCellDateFormatted(row.getCell(1)));
+		assertEquals(DATE, row.getCell(1).getDateCellValue());
+
+		assertEquals(Cell.CELL_TYPE_NUMERIC, row.getCell(2).getCellType());
+		assertTrue(DateUtil.isCellDateFormatted(row.getCell(2)));
+		assertEquals(DATE, row.getCell(2).getDateCellValue());
+
+		assertEquals(Cell.CELL_TYPE_BOOLEAN, row.getCell(3).getCellType());
+		assertTrue(row.getCell(3).getBooleanCellValue());
+
+		assertEquals(Cell.CELL_TYPE_STRING, row.getCell(4).getCellType());
+		assertEquals("Volvo", row.getCell(4).getStringCellValue());
+		assertEquals("", row.getCell(5).getStringCellValue());
+	}
+
+	private int countSheetFiles(File tempDir) {
+		String[] files = tempDir.list(new FilenameFilter() {
+
+			public boolean accept(File dir, String name) {
+				return name.startsWith("poi-sxssf-sheet");
+			}
+		});
+
+		return (files == null) ? 0 : files.length;
+	}
+
+	private ExternalContext createExternalContext() {
+		return new ExternalContextWrapper() {
+
+			@Override
+			public ExternalContext getWrapped() {
+				return null;
+			}
+
+			@Override
+			public void setResponseContentType(String contentType) {
+			}
+
+			@Override
+			public void setResponseHeader(String name, String value) {
+			}
+
+			@Override
+			public void addResponseCookie(String name, String value, Map<String,Object> properties) {
+			}
+
+			@Override
+			public OutputStream getResponseOutputStream() {
+				return out;
+			}
+
+			@Override
+			public void responseFlushBuffer() {
+			}
+		};
+	}
+}
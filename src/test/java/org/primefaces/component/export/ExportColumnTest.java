@@ -0,0 +1,189 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.component.export;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.el.ELContext;
+import javax.el.ValueExpression;
+import javax.faces.component.UIComponent;
+import javax.faces.component.UIInput;
+import javax.faces.component.html.HtmlOutputText;
+
+import org.junit.Test;
+import org.primefaces.component.api.UIColumn;
+
+public class ExportColumnTest {
+
+	@Test
+	public void shouldResolveFieldOfVar() {
+		assertEquals("model", ExportColumn.Cell.resolveField("#{car.model}", "car"));
+		assertEquals("owner.name", ExportColumn.Cell.resolveField("#{car.owner.name}", "car"));
+		assertNull(ExportColumn.Cell.resolveField("#{other.model}", "car"));
+		assertNull(ExportColumn.Cell.resolveField("#{car}", "car"));
+		assertNull(ExportColumn.Cell.resolveField("#{car.model} #{car.year}", "car"));
+		assertNull(ExportColumn.Cell.resolveField("Model: #{car.model}", "car"));
+	}
+
+	@Test
+	public void shouldPlanRenderedAndExportableColumns() {
+		UIColumn exported = createColumn(true, true, output("#{car.model}"));
+		UIColumn hidden = createColumn(false, true, output("#{car.year}"));
+		UIColumn notExportable = createColumn(true, false, output("#{car.color}"));
+
+		List<ExportColumn> plan = ExportColumn.createPlan(null, Arrays.asList(hidden, exported, notExportable), "car");
+
+		assertEquals(1, plan.size());
+		assertSame(exported, plan.get(0).getColumn());
+		assertEquals("model", plan.get(0).getDetachedAccessor().getField());
+	}
+
+	@Test
+	public void shouldNotDetachColumnsNeedingTheComponent() {
+		HtmlOutputText hiddenText = output("#{car.year}");
+		hiddenText.setRendered(false);
+
+		assertEquals("model", detachedField(createColumn(true, true, hiddenText, output("#{car.model}"))));
+		assertNull(detachedField(createColumn(true, true, output("#{car.model}"), output("#{car.year}"))));
+		assertNull(detachedField(createColumn(true, true, output("#{car.model} #{car.year}"))));
+		assertNull(detachedField(createColumn(true, true, input("#{car.model}"))));
+	}
+
+	@Test
+	public void shouldExportSubmittedValue() {
+		UIInput input = input("#{car.model}");
+		ExportColumn.Cell cell = new ExportColumn.Cell(input, null, "car");
+		assertNull(cell.getSubmittedValue());
+
+		input.setSubmittedValue("Volvo");
+		assertEquals("Volvo", cell.getSubmittedValue());
+	}
+
+	@Test
+	public void shouldFindEditableValueHolders() {
+		UIColumn outputColumn = createColumn(true, true, output("#{car.model}"));
+		UIColumn inputColumn = createColumn(true, true, input("#{car.model}"));
+
+		assertFalse(ExportColumn.hasEditableValueHolder(Arrays.asList(outputColumn)));
+		assertTrue(ExportColumn.hasEditableValueHolder(Arrays.asList(outputColumn, inputColumn)));
+	}
+
+	@Test
+	public void shouldQuoteCSVValues() throws IOException {
+		assertEquals("\"\"", quote(""));
+		assertEquals("\"Volvo\"", quote("Volvo"));
+		assertEquals("\"Volvo \"\"V70\"\"\"", quote("Volvo \"V70\""));
+		assertEquals("\"\"\"\"\"\"\"\"", quote("\"\"\""));
+		assertEquals("\"a,b\nc\"", quote("a,b\nc"));
+	}
+
+	private String quote(String value) throws IOException {
+		StringWriter writer = new StringWriter();
+		CSVExporter.writeQuoted(writer, value);
+
+		return writer.toString();
+	}
+
+	private String detachedField(UIColumn column) {
+		List<ExportColumn> plan = ExportColumn.createPlan(null, Arrays.asList(column), "car");
+
+		return (plan.get(0).getDetachedAccessor() == null) ? null : plan.get(0).getDetachedAccessor().getField();
+	}
+
+	private UIColumn createColumn(boolean rendered, boolean exportable, UIComponent... children) {
+		UIColumn column = createMock(UIColumn.class);
+		expect(column.isRendered()).andReturn(rendered).anyTimes();
+		expect(column.isExportable()).andReturn(exportable).anyTimes();
+		expect(column.getChildren()).andReturn(new ArrayList<UIComponent>(Arrays.asList(children))).anyTimes();
+		replay(column);
+
+		return column;
+	}
+
+	private HtmlOutputText output(String expression) {
+		HtmlOutputText output = new HtmlOutputText();
+		output.setValueExpression("value", new Expression(expression));
+
+		return output;
+	}
+
+	private UIInput input(String expression) {
+		UIInput input = new UIInput();
+		input.setValueExpression("value", new Expression(expression));
+
+		return input;
+	}
+
+	private static class Expression extends ValueExpression {
+
+		private String expression;
+
+		public Expression(String expression) {
+			this.expression = expression;
+		}
+
+		@Override
+		public Object getValue(ELContext context) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void setValue(ELContext context, Object value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean isReadOnly(ELContext context) {
+			return true;
+		}
+
+		@Override
+		public Class<?> getType(ELContext context) {
+			return Object.class;
+		}
+
+		@Override
+		public Class<?> getExpectedType() {
+			return Object.class;
+		}
+
+		@Override
+		public String getExpressionString() {
+			return expression;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Expression && ((Expression) obj).expression.equals(expression);
+		}
+
+		@Override
+		public int hashCode() {
+			return expression.hashCode();
+		}
+
+		@Override
+		public boolean isLiteralText() {
+			return false;
+		}
+	}
+}
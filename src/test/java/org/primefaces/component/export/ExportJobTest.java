@@ -0,0 +1,149 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.component.export;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Test;
+import org.primefaces.model.ColumnAccessor;
+
+public class ExportJobTest {
+
+	private ExportJobManager manager = new ExportJobManager(1, 60000);
+
+	@After
+	public void shutdown() {
+		manager.shutdown();
+	}
+
+	@Test
+	public void shouldWriteCSV() throws IOException {
+		ExportJob job = createJob("session", new String[]{"Total"});
+		job.run();
+
+		assertEquals(ExportJob.Status.DONE, job.getStatus());
+		assertEquals(2, job.getRowsWritten());
+		assertEquals("\"Model\",\"Year\",\"Color\"\n\"Volvo \"\"V70\"\"\",\"2004\",\"RED\"\n\"Audi\",\"\",\"BLUE\"\n\"Total\",\"\",\"\"\n", read(job.getFile()));
+		job.dispose();
+	}
+
+	@Test
+	public void shouldFormatValuesLikeStandardConverters() {
+		assertEquals("", ExportJob.toText(null));
+		assertEquals("2004", ExportJob.toText(2004));
+		assertEquals("true", ExportJob.toText(Boolean.TRUE));
+		assertEquals("BLUE", ExportJob.toText(Color.BLUE));
+	}
+
+	@Test
+	public void shouldOnlyServeJobToItsSession() throws Exception {
+		ExportJob job = createJob("session", null);
+		manager.submit(job);
+
+		assertSame(job, manager.getJob(job.getId(), "session"));
+		assertNull(manager.getJob(job.getId(), "other"));
+		assertNull(manager.getJob(job.getId(), null));
+		assertNull(manager.getJob("unknown", "session"));
+	}
+
+	@Test
+	public void shouldDeleteFileWhenRemoved() throws Exception {
+		ExportJob job = createJob("session", null);
+		manager.submit(job);
+		awaitCompletion(job);
+
+		File file = job.getFile();
+		assertEquals(ExportJob.Status.DONE, job.getStatus());
+		assertTrue(file.exists());
+
+		manager.remove(job.getId());
+		assertNull(manager.getJob(job.getId(), "session"));
+		assertNull(job.getFile());
+		assertFalse(file.exists());
+	}
+
+	private ExportJob createJob(String sessionId, String[] footers) {
+		ColumnAccessor[] accessors = {new ColumnAccessor("car", "model"), new ColumnAccessor("car", "year"), new ColumnAccessor("car", "color")};
+		if(footers != null) {
+			footers = new String[]{footers[0], "", ""};
+		}
+
+		return new ExportJob(sessionId, ExporterType.CSV, "cars", "UTF-8", new String[]{"Model", "Year", "Color"}, footers, accessors,
+				Arrays.asList(new Car("Volvo \"V70\"", 2004, Color.RED), new Car("Audi", null, Color.BLUE)));
+	}
+
+	private void awaitCompletion(ExportJob job) throws InterruptedException {
+		for(int i = 0; i < 500 && job.getCompletedAt() == 0; i++) {
+			Thread.sleep(10);
+		}
+	}
+
+	private String read(File file) throws IOException {
+		InputStream in = new FileInputStream(file);
+		try {
+			byte[] bytes = new byte[(int) file.length()];
+			int read = 0;
+			while(read < bytes.length) {
+				read += in.read(bytes, read, bytes.length - read);
+			}
+			return new String(bytes, "UTF-8");
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	public enum Color {
+		RED, BLUE;
+
+		@Override
+		public String toString() {
+			return name().toLowerCase();
+		}
+	}
+
+	public static class Car {
+
+		private String model;
+		private Integer year;
+		private Color color;
+
+		public Car(String model, Integer year, Color color) {
+			this.model = model;
+			this.year = year;
+			this.color = color;
+		}
+
+		public String getModel() {
+			return model;
+		}
+
+		public Integer getYear() {
+			return year;
+		}
+
+		public Color getColor() {
+			return color;
+		}
+	}
+}
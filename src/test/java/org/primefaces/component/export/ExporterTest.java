@@ -0,0 +1,186 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.component.export;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.primefaces.model.LazyDataModel;
+import org.primefaces.model.SortOrder;
+
+public class ExporterTest {
+
+	@Test
+	public void shouldLoadInChunksOfFetchSize() throws IOException {
+		IntegerModel model = new IntegerModel(25);
+		model.setRowCount(25);
+		RowCollector rows = new RowCollector();
+
+		assertEquals(3, Exporter.streamLazyModel(model, 25, 10, null, null, null, null, rows));
+		assertEquals(3, model.loads.size());
+		assertEquals(10, model.loads.get(0).intValue());
+		assertEquals(10, model.loads.get(1).intValue());
+		assertEquals(10, model.loads.get(2).intValue());
+		assertRows(rows, 25);
+	}
+
+	@Test
+	public void shouldStopAtShortChunkWithoutRowCount() throws IOException {
+		IntegerModel model = new IntegerModel(25);
+		model.setRowCount(LazyDataModel.UNKNOWN_ROW_COUNT);
+		RowCollector rows = new RowCollector();
+
+		assertEquals(3, Exporter.streamLazyModel(model, LazyDataModel.UNKNOWN_ROW_COUNT, 10, null, null, null, null, rows));
+		assertRows(rows, 25);
+	}
+
+	@Test
+	public void shouldStopAtEmptyChunkWithoutRowCount() throws IOException {
+		IntegerModel model = new IntegerModel(20);
+		model.setRowCount(LazyDataModel.UNKNOWN_ROW_COUNT);
+		RowCollector rows = new RowCollector();
+
+		assertEquals(3, Exporter.streamLazyModel(model, LazyDataModel.UNKNOWN_ROW_COUNT, 10, null, null, null, null, rows));
+		assertRows(rows, 20);
+	}
+
+	@Test
+	public void shouldStreamThroughIterate() throws IOException {
+		IntegerModel model = new IntegerModel(25);
+		model.iterable = true;
+		RowCollector rows = new RowCollector();
+
+		assertEquals(1, Exporter.streamLazyModel(model, 25, 10, "value", SortOrder.ASCENDING, null, null, rows));
+		assertEquals(0, model.loads.size());
+		assertRows(rows, 25);
+		assertTrue(model.iterator.closed);
+	}
+
+	@Test
+	public void shouldCloseIteratorOnFailure() {
+		IntegerModel model = new IntegerModel(25);
+		model.iterable = true;
+
+		try {
+			Exporter.streamLazyModel(model, 25, 10, null, null, null, null, new Exporter.RowHandler() {
+
+				public void handleRow(Object row, int rowIndex) throws IOException {
+					throw new IOException("closed stream");
+				}
+			});
+		}
+		catch(IOException e) {
+			assertTrue(model.iterator.closed);
+			return;
+		}
+
+		throw new AssertionError("IOException expected");
+	}
+
+	private void assertRows(RowCollector rows, int count) {
+		assertEquals(count, rows.rows.size());
+		for(int i = 0; i < count; i++) {
+			assertEquals(i, rows.rows.get(i));
+			assertEquals(i, rows.indexes.get(i).intValue());
+		}
+	}
+
+	private static class RowCollector implements Exporter.RowHandler {
+
+		private List<Object> rows = new ArrayList<Object>();
+
+		private List<Integer> indexes = new ArrayList<Integer>();
+
+		public void handleRow(Object row, int rowIndex) {
+			rows.add(row);
+			indexes.add(rowIndex);
+		}
+	}
+
+	private static class IntegerModel extends LazyDataModel<Integer> {
+
+		private int size;
+
+		private boolean iterable;
+
+		private CloseableIterator iterator;
+
+		private List<Integer> loads = new ArrayList<Integer>();
+
+		public IntegerModel(int size) {
+			this.size = size;
+		}
+
+		@Override
+		public List<Integer> load(int first, int pageSize, String sortField, SortOrder sortOrder, Map<String,String> filters) {
+			loads.add(pageSize);
+
+			List<Integer> page = new ArrayList<Integer>();
+			for(int i = first; i < Math.min(first + pageSize, size); i++) {
+				page.add(i);
+			}
+
+			return page;
+		}
+
+		@Override
+		public Iterator<Integer> iterate(String sortField, SortOrder sortOrder, Map<String,String> filters) {
+			if(!iterable) {
+				return null;
+			}
+
+			iterator = new CloseableIterator(size);
+			return iterator;
+		}
+	}
+
+	private static class CloseableIterator implements Iterator<Integer>, Closeable {
+
+		private int size;
+
+		private int next;
+
+		private boolean closed;
+
+		public CloseableIterator(int size) {
+			this.size = size;
+		}
+
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		public Integer next() {
+			return next++;
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		public void close() {
+			closed = true;
+		}
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.component.export;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.Font;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.PdfWriter;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+
+public class PDFExporterTest {
+
+	@Test
+	public void shouldKeepHeaderAndAllRowsOfStreamedTable() throws Exception {
+		PDFExporter exporter = new PDFExporter();
+		Font font = exporter.getFont("Cp1252", Font.NORMAL);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Document document = new Document();
+		PdfWriter.getInstance(document, out);
+		document.open();
+
+		PdfPTable pdfTable = exporter.createStreamingTable(2);
+		pdfTable.addCell(new Paragraph("Model", font));
+		pdfTable.addCell(new Paragraph("Year", font));
+
+		int chunks = 0;
+		for(int i = 0; i < 1201; i++) {
+			pdfTable.addCell(new Paragraph(row(i), font));
+			pdfTable.addCell(new Paragraph(String.valueOf(2000 + i % 10), font));
+			if(exporter.flushChunk(document, pdfTable)) {
+				chunks++;
+			}
+		}
+		pdfTable.setComplete(true);
+		document.add(pdfTable);
+		document.close();
+
+		assertEquals(2, chunks);
+
+		PdfReader reader = new PdfReader(out.toByteArray());
+		PdfTextExtractor extractor = new PdfTextExtractor(reader);
+		StringBuilder text = new StringBuilder();
+		for(int page = 1; page <= reader.getNumberOfPages(); page++) {
+			String pageText = extractor.getTextFromPage(page);
+			assertTrue("header missing on page " + page, pageText.contains("Model"));
+			text.append(pageText);
+		}
+
+		int position = 0;
+		for(int i = 0; i < 1201; i++) {
+			position = text.indexOf(row(i), position);
+			assertTrue(row(i) + " missing", position >= 0);
+		}
+		assertEquals(-1, text.indexOf(row(1201)));
+		assertEquals(text.indexOf(row(600)), text.lastIndexOf(row(600)));
+	}
+
+	private String row(int i) {
+		return "car" + String.format("%04d", i);
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.component.fileupload;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.primefaces.model.StreamingUploadedFile;
+import org.primefaces.model.UploadedFile;
+
+public class ChunkedUploadTest {
+
+	private static final long TTL = 60000L;
+
+	private File directory;
+
+	private File file;
+
+	@Before
+	public void setup() throws IOException {
+		directory = File.createTempFile("chunks", "");
+		directory.delete();
+		directory.mkdir();
+		file = new File(directory, "upload.pfchunk");
+	}
+
+	@After
+	public void teardown() {
+		for(File child : directory.listFiles()) {
+			child.delete();
+		}
+		directory.delete();
+	}
+
+	@Test
+	public void shouldParseRange() {
+		assertArrayEquals(new long[]{0, 99, 250}, ChunkedUpload.parseRange("bytes 0-99/250"));
+		assertArrayEquals(new long[]{200, 249, 250}, ChunkedUpload.parseRange("bytes 200-249/250"));
+	}
+
+	@Test
+	public void shouldRejectMalformedRange() {
+		assertNull(ChunkedUpload.parseRange(null));
+		assertNull(ChunkedUpload.parseRange("0-99/250"));
+		assertNull(ChunkedUpload.parseRange("bytes 0-99"));
+		assertNull(ChunkedUpload.parseRange("bytes a-99/250"));
+		assertNull(ChunkedUpload.parseRange("bytes 99-0/250"));
+		assertNull(ChunkedUpload.parseRange("bytes 0-250/250"));
+		assertNull(ChunkedUpload.parseRange("bytes -1-99/250"));
+	}
+
+	@Test
+	public void shouldAppendChunks() throws IOException {
+		assertEquals(3, ChunkedUpload.appendChunk(file, 0, chunk("abc"), TTL));
+		assertEquals(6, ChunkedUpload.appendChunk(file, 3, chunk("def"), TTL));
+
+		assertEquals("abcdef", read(file));
+	}
+
+	@Test
+	public void shouldRejectChunkAfterGap() throws IOException {
+		ChunkedUpload.appendChunk(file, 0, chunk("abc"), TTL);
+
+		assertEquals(-1, ChunkedUpload.appendChunk(file, 4, chunk("efg"), TTL));
+		assertEquals("abc", read(file));
+	}
+
+	@Test
+	public void shouldResumeFromReceivedOffset() throws IOException {
+		ChunkedUpload.appendChunk(file, 0, chunk("abc"), TTL);
+		ChunkedUpload.appendChunk(file, 3, chunk("dXX"), TTL);
+
+		//a resent chunk replaces the bytes after its offset
+		assertEquals(6, ChunkedUpload.appendChunk(file, 3, chunk("def"), TTL));
+		assertEquals("abcdef", read(file));
+	}
+
+	@Test
+	public void shouldReturnFileWithLastChunk() throws IOException {
+		UploadedFile first = chunk("abc");
+		assertNull(ChunkedUpload.complete(file, first, ChunkedUpload.appendChunk(file, 0, first, TTL), 6));
+
+		UploadedFile last = chunk("def");
+		UploadedFile upload = ChunkedUpload.complete(file, last, ChunkedUpload.appendChunk(file, 3, last, TTL), 6);
+
+		assertNotNull(upload);
+		assertEquals("test.txt", upload.getFileName());
+		assertEquals("text/plain", upload.getContentType());
+		assertEquals(6, upload.getSize());
+		assertEquals("abcdef", new String(upload.getContents(), "UTF-8"));
+	}
+
+	@Test
+	public void shouldPurgeExpiredUploadsOnFirstChunk() throws IOException {
+		File expired = new File(directory, "expired.pfchunk");
+		ChunkedUpload.appendChunk(expired, 0, chunk("abc"), TTL);
+		expired.setLastModified(System.currentTimeMillis() - 2 * TTL);
+
+		ChunkedUpload.appendChunk(file, 0, chunk("abc"), TTL);
+
+		assertEquals(false, expired.exists());
+		assertEquals(true, file.exists());
+	}
+
+	@Test
+	public void shouldRejectChunkNotMatchingItsRange() throws IOException {
+		assertTrue(ChunkedUpload.matchesRange(ChunkedUpload.parseRange("bytes 0-2/6"), chunk("abc")));
+		assertFalse(ChunkedUpload.matchesRange(ChunkedUpload.parseRange("bytes 0-0/1"), chunk("abcdef")));
+		assertFalse(ChunkedUpload.matchesRange(ChunkedUpload.parseRange("bytes 3-5/6"), chunk("de")));
+	}
+
+	@Test
+	public void shouldDeleteAssembledFileOnRelease() throws IOException {
+		UploadedFile last = chunk("abc");
+		UploadedFile upload = ChunkedUpload.complete(file, last, ChunkedUpload.appendChunk(file, 0, last, TTL), 3);
+
+		ChunkedUpload.release(upload);
+
+		assertFalse(file.exists());
+	}
+
+	@Test
+	public void shouldKeepFileWrittenToTargetOnRelease() throws IOException {
+		UploadedFile last = chunk("abc");
+		UploadedFile upload = ChunkedUpload.complete(file, last, ChunkedUpload.appendChunk(file, 0, last, TTL), 3);
+		File target = new File(directory, "target.txt");
+		((StreamingUploadedFile) upload).write(target);
+
+		ChunkedUpload.release(upload);
+
+		assertTrue(target.exists());
+		assertEquals("abc", read(target));
+	}
+
+	@Test
+	public void shouldNotDeleteOtherUploadsOnRelease() throws IOException {
+		File other = new File(directory, "upload.tmp");
+		ChunkedUpload.appendChunk(other, 0, chunk("abc"), TTL);
+
+		ChunkedUpload.release(new StreamingUploadedFile("test.txt", "text/plain", other, 3));
+
+		assertTrue(other.exists());
+	}
+
+	private UploadedFile chunk(String contents) throws IOException {
+		return new StreamingUploadedFile("test.txt", "text/plain", contents.getBytes("UTF-8"));
+	}
+
+	private String read(File file) throws IOException {
+		return new String(new StreamingUploadedFile("test.txt", "text/plain", file, file.length()).getContents(), "UTF-8");
+	}
+}
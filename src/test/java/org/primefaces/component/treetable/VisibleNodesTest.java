@@ -0,0 +1,95 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.component.treetable;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+import org.primefaces.model.DefaultTreeNode;
+import org.primefaces.model.TreeNode;
+import org.primefaces.model.TreeNodeChildren;
+
+public class VisibleNodesTest {
+
+	@Test
+	public void shouldFlattenExpandedNodes() {
+		TreeNode root = new DefaultTreeNode("root", null);
+		TreeNode a = new DefaultTreeNode("a", root);
+		TreeNode a1 = new DefaultTreeNode("a1", a);
+		new DefaultTreeNode("a2", a);
+		new DefaultTreeNode("a11", a1);
+		TreeNode b = new DefaultTreeNode("b", root);
+		a.setExpanded(true);
+		TreeNodeChildren.updateRowKeys(root);
+
+		VisibleNodes nodes = new VisibleNodes(root);
+
+		assertEquals(4, nodes.size());
+		assertEquals(a1.getRowKey(), nodes.get(1));
+		assertEquals(b.getRowKey(), nodes.get(3));
+		assertEquals(2, nodes.getWindow(2, 5).size());
+		assertEquals(0, nodes.getWindow(4, 5).size());
+	}
+
+	@Test
+	public void shouldPatchOnExpandAndCollapse() {
+		TreeNode root = new DefaultTreeNode("root", null);
+		TreeNode a = new DefaultTreeNode("a", root);
+		TreeNode a1 = new DefaultTreeNode("a1", a);
+		TreeNode a11 = new DefaultTreeNode("a11", a1);
+		TreeNode b = new DefaultTreeNode("b", root);
+		a1.setExpanded(true);
+		TreeNodeChildren.updateRowKeys(root);
+
+		VisibleNodes nodes = new VisibleNodes(root);
+		assertEquals(2, nodes.size());
+
+		a.setExpanded(true);
+		assertEquals(1, nodes.expand(a));
+		assertEquals(4, nodes.size());
+		assertEquals(a11.getRowKey(), nodes.get(2));
+		assertEquals(b.getRowKey(), nodes.get(3));
+
+		a.setExpanded(false);
+		nodes.collapse(a);
+		assertEquals(2, nodes.size());
+		assertEquals(b.getRowKey(), nodes.get(1));
+		assertEquals(-1, nodes.expand(a11));
+	}
+
+	@Test
+	public void shouldNotSerializeTree() throws Exception {
+		TreeNode root = new DefaultTreeNode("root", null);
+		new DefaultTreeNode("a", root);
+		TreeNodeChildren.updateRowKeys(root);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(new VisibleNodes(root));
+		out.close();
+
+		VisibleNodes restored = (VisibleNodes) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+		assertNull(restored.getRoot());
+		assertEquals("0", restored.get(0));
+		assertFalse(new String(bytes.toByteArray(), "ISO-8859-1").contains("DefaultTreeNode"));
+	}
+}
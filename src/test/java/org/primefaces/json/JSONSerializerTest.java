@@ -0,0 +1,105 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.json;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.primefaces.json.JSONObjectTest.Person;
+
+public class JSONSerializerTest {
+
+	@Test
+	public void shouldWriteBeanLikeJSONObject() throws JSONException {
+		Person person = new Person("Cagatay", "Civici");
+
+		assertEquals("{\"firstname\":\"Cagatay\",\"lastname\":\"Civici\"}", JSONSerializer.toString(person));
+
+		JSONObject expected = new JSONObject(new JSONObject(person).toString());
+		JSONObject actual = new JSONObject(JSONSerializer.toString(person));
+		assertEquals(expected.getString("firstname"), actual.getString("firstname"));
+		assertEquals(expected.getString("lastname"), actual.getString("lastname"));
+	}
+
+	@Test
+	public void shouldWriteNestedValues() throws JSONException {
+		Team team = new Team();
+		team.getMembers().add(new Person("Cagatay", "Civici"));
+		team.getScores().put("first", 1.50);
+		team.getScores().put("second", null);
+
+		String json = JSONSerializer.toString(team);
+
+		assertTrue(json.contains("\"members\":[{\"firstname\":\"Cagatay\",\"lastname\":\"Civici\"}]"));
+		assertTrue(json.contains("\"scores\":{\"first\":1.5,\"second\":null}"));
+		assertTrue(json.contains("\"tags\":[\"a\",\"b\"]"));
+		assertTrue(json.contains("\"lead\":null"));
+		assertTrue(json.contains("\"created\":\"" + team.getCreated().toString() + "\""));
+		assertTrue(json.contains("\"active\":true"));
+	}
+
+	@Test
+	public void shouldWriteCollectionsAndValues() throws JSONException {
+		assertEquals("[1,\"a\",true]", JSONSerializer.toString(Arrays.asList(1, "a", true)));
+		assertEquals("2.5", JSONSerializer.toString(2.50d));
+		assertEquals("null", JSONSerializer.toString(null));
+	}
+
+	@Test
+	public void shouldEscapeLikeJSONObject() throws JSONException {
+		String value = "a\"b\\c</script>\n\t\u0001\u2028\u00e9";
+
+		assertEquals(JSONObject.quote(value), JSONSerializer.toString(value));
+	}
+
+	public static class Team {
+
+		private List<Person> members = new ArrayList<Person>();
+		private Map<String,Double> scores = new LinkedHashMap<String,Double>();
+		private Date created = new Date();
+
+		public List<Person> getMembers() {
+			return members;
+		}
+
+		public Map<String,Double> getScores() {
+			return scores;
+		}
+
+		public String[] getTags() {
+			return new String[]{"a", "b"};
+		}
+
+		public Person getLead() {
+			return null;
+		}
+
+		public Date getCreated() {
+			return created;
+		}
+
+		public boolean isActive() {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+public class CachingLazyDataModelTest {
+
+	@Test
+	public void shouldServeCachedPages() {
+		CountingModel model = new CountingModel(100);
+		CachingLazyDataModel<Integer> cache = new CachingLazyDataModel<Integer>(model, 10);
+
+		List<Integer> page = cache.load(10, 10, "id", SortOrder.ASCENDING, filters("id", "1"));
+		cache.load(20, 10, "id", SortOrder.ASCENDING, filters("id", "1"));
+
+		assertSame(page, cache.load(10, 10, "id", SortOrder.ASCENDING, filters("id", "1")));
+		assertEquals(2, model.loads);
+		assertEquals(100, cache.getRowCount());
+
+		cache.load(10, 10, "id", SortOrder.DESCENDING, filters("id", "1"));
+		cache.load(10, 10, "id", SortOrder.ASCENDING, filters("id", "2"));
+		assertEquals(4, model.loads);
+
+		cache.clear();
+		cache.load(10, 10, "id", SortOrder.ASCENDING, filters("id", "1"));
+		assertEquals(5, model.loads);
+	}
+
+	@Test
+	public void shouldEvictLeastRecentlyUsedPages() {
+		CountingModel model = new CountingModel(100);
+		CachingLazyDataModel<Integer> cache = new CachingLazyDataModel<Integer>(model, 2);
+
+		cache.load(0, 10, null, SortOrder.ASCENDING, null);
+		cache.load(10, 10, null, SortOrder.ASCENDING, null);
+		cache.load(0, 10, null, SortOrder.ASCENDING, null);
+		cache.load(20, 10, null, SortOrder.ASCENDING, null);
+		assertEquals(3, model.loads);
+
+		cache.load(0, 10, null, SortOrder.ASCENDING, null);
+		assertEquals(3, model.loads);
+		cache.load(10, 10, null, SortOrder.ASCENDING, null);
+		assertEquals(4, model.loads);
+	}
+
+	@Test
+	public void shouldReadAheadNextPage() {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			CountingModel model = new CountingModel(25);
+			CachingLazyDataModel<Integer> cache = new CachingLazyDataModel<Integer>(model, 10, executor);
+
+			cache.load(0, 10, null, SortOrder.ASCENDING, null);
+			List<Integer> next = cache.load(10, 10, null, SortOrder.ASCENDING, null);
+			cache.load(20, 10, null, SortOrder.ASCENDING, null);
+
+			assertEquals(Integer.valueOf(10), next.get(0));
+			assertEquals(3, model.loads);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void shouldReadAheadNextPageWhenProbing() {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			CountingModel model = new CountingModel(25);
+			CachingLazyDataModel<Integer> cache = new CachingLazyDataModel<Integer>(model, 10, executor);
+			cache.setProbeNextPage(true);
+
+			List<Integer> page = cache.load(0, cache.getLoadSize(10), null, SortOrder.ASCENDING, null);
+			assertEquals(11, page.size());
+			assertTrue(cache.isHasMoreRows());
+
+			List<Integer> next = cache.load(10, cache.getLoadSize(10), null, SortOrder.ASCENDING, null);
+			assertEquals(Integer.valueOf(10), next.get(0));
+			assertEquals(11, next.size());
+
+			List<Integer> last = cache.load(20, cache.getLoadSize(10), null, SortOrder.ASCENDING, null);
+			assertEquals(5, last.size());
+			assertFalse(cache.isHasMoreRows());
+			assertEquals(3, model.loads);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void shouldNotLoadConcurrentlyFromDelegate() {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			CountingModel model = new CountingModel(1000);
+			model.delay = 5;
+			CachingLazyDataModel<Integer> cache = new CachingLazyDataModel<Integer>(model, 100, executor);
+
+			for(int first = 0; first < 500; first += 50) {
+				cache.load(first, 10, null, SortOrder.ASCENDING, null);
+			}
+
+			assertFalse(model.overlapped);
+			assertEquals(1000, cache.getRowCount());
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	private Map<String,String> filters(String field, String value) {
+		Map<String,String> filters = new HashMap<String,String>();
+		filters.put(field, value);
+
+		return filters;
+	}
+
+	private static class CountingModel extends LazyDataModel<Integer> {
+
+		private int size;
+		private volatile int loads;
+		private volatile int active;
+		private volatile boolean overlapped;
+		private long delay;
+
+		public CountingModel(int size) {
+			this.size = size;
+		}
+
+		@Override
+		public List<Integer> load(int first, int pageSize, String sortField, SortOrder sortOrder, Map<String,String> filters) {
+			loads++;
+			overlapped |= (++active > 1);
+			setRowCount(size);
+			if(delay > 0) {
+				try {
+					Thread.sleep(delay);
+				}
+				catch(InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			active--;
+
+			List<Integer> page = new ArrayList<Integer>();
+			for(int i = first; i < Math.min(first + pageSize, size); i++) {
+				page.add(i);
+			}
+
+			return page;
+		}
+	}
+}
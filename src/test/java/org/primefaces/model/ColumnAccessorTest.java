@@ -0,0 +1,75 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class ColumnAccessorTest {
+
+	@Test
+	public void shouldReadBeanProperty() {
+		ColumnAccessor accessor = new ColumnAccessor("car", "model");
+
+		assertTrue(accessor.isDirect());
+		assertEquals("Volvo", accessor.getValue(null, new Car("Volvo", null)));
+	}
+
+	@Test
+	public void shouldReadNestedProperty() {
+		ColumnAccessor accessor = new ColumnAccessor("car", "owner.model");
+
+		assertEquals("Owner", accessor.getValue(null, new Car("Volvo", new Car("Owner", null))));
+		assertNull(accessor.getValue(null, new Car("Volvo", null)));
+	}
+
+	@Test
+	public void shouldReadMapEntry() {
+		Map<String,Object> row = new HashMap<String,Object>();
+		row.put("model", "Audi");
+
+		assertEquals("Audi", new ColumnAccessor("car", "model").getValue(null, row));
+	}
+
+	@Test
+	public void shouldNotTreatExpressionsAsPropertyPath() {
+		assertFalse(new ColumnAccessor("car", "colors[0]").isDirect());
+		assertFalse(new ColumnAccessor("car", "owner..model").isDirect());
+	}
+
+	public static class Car {
+
+		private String model;
+		private Car owner;
+
+		public Car(String model, Car owner) {
+			this.model = model;
+			this.owner = owner;
+		}
+
+		public String getModel() {
+			return model;
+		}
+
+		public Car getOwner() {
+			return owner;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+public class KeyedListSorterTest {
+
+	@Test
+	public void shouldSortByMultipleKeys() {
+		List<Map<String,Object>> list = new ArrayList<Map<String,Object>>();
+		list.add(row(2, "b"));
+		list.add(row(1, null));
+		list.add(row(2, "a"));
+		list.add(row(1, "c"));
+
+		KeyedListSorter sorter = new KeyedListSorter();
+		sorter.addKey(new ColumnAccessor("row", "year"), SortOrder.DESCENDING, null);
+		sorter.addKey(new ColumnAccessor("row", "model"), SortOrder.ASCENDING, null);
+		sorter.sort(null, list);
+
+		assertEquals("a", list.get(0).get("model"));
+		assertEquals("b", list.get(1).get("model"));
+		assertEquals("c", list.get(2).get("model"));
+		assertNull(list.get(3).get("model"));
+	}
+
+	@Test
+	public void shouldSortInParallelAndKeepOrderOfEqualKeys() {
+		List<Map<String,Object>> list = new ArrayList<Map<String,Object>>();
+		for(int i = 0; i < 10000; i++) {
+			list.add(row(i % 7, String.valueOf(i)));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			KeyedListSorter sorter = new KeyedListSorter();
+			sorter.addKey(new ColumnAccessor("row", "year"), SortOrder.ASCENDING, null);
+			sorter.setParallelism(executor, 100);
+			sorter.sort(null, list);
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		for(int i = 1; i < list.size(); i++) {
+			Map<String,Object> previous = list.get(i - 1);
+			Map<String,Object> current = list.get(i);
+			int yearDiff = (Integer) previous.get("year") - (Integer) current.get("year");
+
+			assertTrue(yearDiff <= 0);
+			if(yearDiff == 0) {
+				assertTrue(Integer.parseInt((String) previous.get("model")) < Integer.parseInt((String) current.get("model")));
+			}
+		}
+	}
+
+	private Map<String,Object> row(int year, String model) {
+		Map<String,Object> row = new HashMap<String,Object>();
+		row.put("year", year);
+		row.put("model", model);
+
+		return row;
+	}
+}
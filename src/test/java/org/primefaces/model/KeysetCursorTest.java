@@ -0,0 +1,111 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class KeysetCursorTest {
+
+	@Test
+	public void shouldSeekFromBoundaryRows() {
+		RowModel model = new RowModel();
+		List<String> sortFields = Arrays.asList("name");
+
+		assertSame(KeysetCursor.NONE, KeysetCursor.create(model, 0, 10, sortFields, "name ASCENDING"));
+		model.show(0, 10);
+
+		KeysetCursor next = KeysetCursor.create(model, 10, 10, sortFields, "name ASCENDING");
+		assertEquals(KeysetCursor.Direction.NEXT, next.getDirection());
+		assertEquals("row9", next.getKeys().get("name"));
+		assertEquals(Integer.valueOf(9), next.getRowKey());
+		model.show(10, 10);
+
+		KeysetCursor previous = KeysetCursor.create(model, 0, 10, sortFields, "name ASCENDING");
+		assertEquals(KeysetCursor.Direction.PREVIOUS, previous.getDirection());
+		assertEquals("row10", previous.getKeys().get("name"));
+	}
+
+	@Test
+	public void shouldLoadByOffsetOtherwise() {
+		RowModel model = new RowModel();
+		List<String> sortFields = Arrays.asList("name");
+
+		KeysetCursor.create(model, 0, 10, sortFields, "name ASCENDING");
+		model.show(0, 10);
+
+		assertFalse(KeysetCursor.create(model, 50, 10, sortFields, "name ASCENDING").isSeek());
+		model.show(50, 10);
+		assertFalse(KeysetCursor.create(model, 60, 10, sortFields, "name DESCENDING").isSeek());
+		model.show(60, 10);
+		assertFalse(KeysetCursor.create(model, 70, 10, Arrays.asList("unknown"), "name DESCENDING").isSeek());
+	}
+
+	@Test
+	public void shouldDeriveUnknownRowCount() {
+		RowModel model = new RowModel();
+		model.setRowCount(LazyDataModel.UNKNOWN_ROW_COUNT);
+		model.show(20, 10);
+
+		model.setHasMoreRows(true);
+		assertFalse(model.isRowCountKnown());
+		assertEquals(31, model.getRowCount());
+
+		model.setHasMoreRows(false);
+		assertEquals(30, model.getRowCount());
+	}
+
+	public static class Row {
+
+		private int id;
+
+		public Row(int id) {
+			this.id = id;
+		}
+
+		public int getId() {
+			return id;
+		}
+
+		public String getName() {
+			return "row" + id;
+		}
+	}
+
+	private static class RowModel extends LazyDataModel<Row> {
+
+		public void show(int first, int pageSize) {
+			List<Row> rows = new ArrayList<Row>();
+			for(int i = first; i < first + pageSize; i++) {
+				rows.add(new Row(i));
+			}
+
+			setPageSize(pageSize);
+			setFirst(first);
+			setWrappedData(rows);
+		}
+
+		@Override
+		public Object getRowKey(Row row) {
+			return row.getId();
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+import org.junit.Test;
+
+public class LazyDataModelTest {
+
+	@Test
+	public void shouldProbeNextPage() {
+		IntegerModel model = new IntegerModel(25);
+		model.setProbeNextPage(true);
+
+		assertEquals(11, model.getLoadSize(10));
+		model.setLoadedPage(0, 10, model.load(0, model.getLoadSize(10), null, null, null));
+		assertEquals(10, ((List<?>) model.getWrappedData()).size());
+		assertFalse(model.isRowCountKnown());
+		assertEquals(11, model.getRowCount());
+
+		model.setLoadedPage(20, 10, model.load(20, model.getLoadSize(10), null, null, null));
+		assertEquals(5, ((List<?>) model.getWrappedData()).size());
+		assertEquals(25, model.getRowCount());
+	}
+
+	@Test
+	public void shouldRefineEstimatedRowCount() {
+		IntegerModel model = new IntegerModel(25);
+		FutureTask<Integer> count = new FutureTask<Integer>(new Callable<Integer>() {
+			public Integer call() {
+				return 25;
+			}
+		});
+
+		model.setRowCount(30, count);
+		assertTrue(model.isRowCountEstimated());
+		assertEquals(30, model.getRowCount());
+
+		count.run();
+		assertEquals(25, model.getRowCount());
+		assertFalse(model.isRowCountEstimated());
+	}
+
+	@Test
+	public void shouldRestorePendingExactRowCount() {
+		IntegerModel model = new IntegerModel(25);
+		FutureTask<Integer> count = new FutureTask<Integer>(new Callable<Integer>() {
+			public Integer call() {
+				return 25;
+			}
+		});
+
+		model.setRowCount(30, count);
+		assertSame(count, model.getExactRowCount());
+
+		//as an export does around its loads
+		model.setRowCount(10);
+		assertNull(model.getExactRowCount());
+		model.setRowCount(30, count);
+
+		count.run();
+		assertEquals(25, model.getRowCount());
+		assertNull(model.getExactRowCount());
+	}
+
+	private static class IntegerModel extends LazyDataModel<Integer> {
+
+		private int size;
+
+		public IntegerModel(int size) {
+			this.size = size;
+		}
+
+		@Override
+		public List<Integer> load(int first, int pageSize, String sortField, SortOrder sortOrder, Map<String,String> filters) {
+			List<Integer> rows = new ArrayList<Integer>();
+			for(int i = first; i < Math.min(first + pageSize, size); i++) {
+				rows.add(i);
+			}
+
+			return rows;
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class LazyTreeNodeTest {
+
+	@Test
+	public void shouldLoadChildrenOnExpand() {
+		CountingLoader loader = new CountingLoader(3);
+		LazyTreeNode root = new LazyTreeNode("root", loader);
+
+		assertEquals(3, root.getChildCount());
+		assertEquals("1", root.getChildren().get(1).getRowKey());
+
+		LazyTreeNode child = (LazyTreeNode) root.getChildren().get(1);
+		assertFalse(child.isLeaf());
+		assertFalse(child.isLoaded());
+		assertEquals(1, loader.loads);
+
+		child.setExpanded(true);
+		assertEquals(3, child.getChildCount());
+		assertEquals("1_2", child.getChildren().get(2).getRowKey());
+		assertSame(child, child.getChildren().get(0).getParent());
+		assertEquals(2, loader.loads);
+	}
+
+	@Test
+	public void shouldEvictCollapsedBranches() {
+		CountingLoader loader = new CountingLoader(3);
+		LazyTreeNode root = new LazyTreeNode("root", loader, 7);
+
+		LazyTreeNode first = (LazyTreeNode) root.getChildren().get(0);
+		first.setExpanded(true);
+		first.getChildren();
+		first.setExpanded(false);
+
+		LazyTreeNode second = (LazyTreeNode) root.getChildren().get(1);
+		second.setExpanded(true);
+		second.getChildren();
+
+		assertFalse(first.isLoaded());
+		assertTrue(second.isLoaded());
+		assertTrue(root.isLoaded());
+		assertEquals(0, first.getChildren().size());
+	}
+
+	private static class CountingLoader implements TreeNodeLoader {
+
+		private int childCount;
+		private int loads;
+
+		public CountingLoader(int childCount) {
+			this.childCount = childCount;
+		}
+
+		public List<TreeNode> load(LazyTreeNode parent) {
+			loads++;
+			List<TreeNode> nodes = new ArrayList<TreeNode>();
+			for(int i = 0; i < childCount; i++) {
+				nodes.add(new LazyTreeNode(parent.getData() + "." + i, true));
+			}
+
+			return nodes;
+		}
+	}
+}
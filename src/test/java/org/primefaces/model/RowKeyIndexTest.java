@@ -0,0 +1,114 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class RowKeyIndexTest {
+
+	private final static String KEY = "form:table_rowKeyIndex";
+
+	private List<String> rows;
+	private CountingResolver resolver;
+
+	@Before
+	public void setup() {
+		rows = new ArrayList<String>(Arrays.asList("volvo", "audi", "bmw"));
+		resolver = new CountingResolver();
+	}
+
+	@Test
+	public void shouldResolveKeysOncePerRequest() {
+		Map<Object,Object> request = new HashMap<Object,Object>();
+
+		assertEquals("audi", RowKeyIndex.get(request, KEY, rows, resolver).getRowData("AUDI"));
+		assertEquals("bmw", RowKeyIndex.get(request, KEY, rows, resolver).getRowData("BMW"));
+		assertNull(RowKeyIndex.get(request, KEY, rows, resolver).getRowData("FORD"));
+		assertEquals(3, resolver.count);
+	}
+
+	@Test
+	public void shouldRebuildIndexOnNextRequest() {
+		RowKeyIndex.get(new HashMap<Object,Object>(), KEY, rows, resolver);
+		rows.set(1, "ford");
+
+		RowKeyIndex index = RowKeyIndex.get(new HashMap<Object,Object>(), KEY, rows, resolver);
+		assertEquals("ford", index.getRowData("FORD"));
+		assertNull(index.getRowData("AUDI"));
+		assertEquals(6, resolver.count);
+	}
+
+	@Test
+	public void shouldRebuildIndexWhenSizeChanges() {
+		Map<Object,Object> request = new HashMap<Object,Object>();
+		RowKeyIndex.get(request, KEY, rows, resolver);
+		rows.add("ford");
+
+		assertEquals("ford", RowKeyIndex.get(request, KEY, rows, resolver).getRowData("FORD"));
+	}
+
+	@Test
+	public void shouldFindRowsAfterSortingInPlace() {
+		Map<Object,Object> request = new HashMap<Object,Object>();
+		RowKeyIndex.get(request, KEY, rows, resolver);
+		Collections.sort(rows);
+
+		RowKeyIndex index = RowKeyIndex.get(request, KEY, rows, resolver);
+		assertEquals("volvo", index.getRowData("VOLVO"));
+		assertEquals("audi", index.getRowData("AUDI"));
+		assertEquals(3, resolver.count);
+	}
+
+	@Test
+	public void shouldIndexFilteredRowsSeparately() {
+		Map<Object,Object> request = new HashMap<Object,Object>();
+		RowKeyIndex.get(request, KEY, rows, resolver);
+		List<String> filteredRows = new ArrayList<String>(rows.subList(0, 2));
+
+		RowKeyIndex filteredIndex = RowKeyIndex.get(request, KEY, filteredRows, resolver);
+		assertEquals("volvo", filteredIndex.getRowData("VOLVO"));
+		assertNull(filteredIndex.getRowData("BMW"));
+
+		assertEquals("bmw", RowKeyIndex.get(request, KEY, rows, resolver).getRowData("BMW"));
+	}
+
+	@Test
+	public void shouldReturnFirstRowOfDuplicateKey() {
+		rows.add("Audi");
+
+		assertEquals("audi", RowKeyIndex.get(new HashMap<Object,Object>(), KEY, rows, resolver).getRowData("AUDI"));
+	}
+
+	private static class CountingResolver implements RowKeyIndex.KeyResolver {
+
+		private int count;
+
+		public String getRowKey(Object row) {
+			count++;
+			return ((String) row).toUpperCase();
+		}
+	}
+}
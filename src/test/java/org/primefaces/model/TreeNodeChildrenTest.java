@@ -0,0 +1,95 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class TreeNodeChildrenTest {
+
+	@Test
+	public void shouldAssignRowKeysOnUpdate() {
+		TreeNode root = new DefaultTreeNode("root", null);
+		TreeNode documents = new DefaultTreeNode("Documents", root);
+		TreeNode pictures = new DefaultTreeNode("Pictures", root);
+		TreeNode work = new DefaultTreeNode("Work", documents);
+
+		assertNull(work.getRowKey());
+
+		TreeNodeChildren.updateRowKeys(root);
+
+		assertEquals("0", documents.getRowKey());
+		assertEquals("1", pictures.getRowKey());
+		assertEquals("0_0", work.getRowKey());
+	}
+
+	@Test
+	public void shouldUpdateRowKeysOfChangedSubtrees() {
+		TreeNode root = new DefaultTreeNode("root", null);
+		TreeNode documents = new DefaultTreeNode("Documents", root);
+		TreeNode pictures = new DefaultTreeNode("Pictures", root);
+		TreeNode work = new DefaultTreeNode("Work", documents);
+		TreeNode report = new DefaultTreeNode("Report", work);
+		TreeNodeChildren.updateRowKeys(root);
+
+		root.getChildren().add(0, new DefaultTreeNode("Music", null));
+		pictures.getChildren().add(work);
+		TreeNodeChildren.updateRowKeys(root);
+
+		assertEquals("1", documents.getRowKey());
+		assertEquals("2", pictures.getRowKey());
+		assertEquals("2_0", work.getRowKey());
+		assertEquals("2_0_0", report.getRowKey());
+		assertSame(pictures, work.getParent());
+		assertTrue(documents.getChildren().isEmpty());
+	}
+
+	@Test
+	public void shouldRemoveCheckboxNode() {
+		TreeNode root = new CheckboxTreeNode("root", null);
+		TreeNode first = new CheckboxTreeNode("first", root);
+		TreeNode second = new CheckboxTreeNode("second", root);
+
+		assertTrue(root.getChildren().remove(first));
+		TreeNodeChildren.updateRowKeys(root);
+
+		assertEquals(1, root.getChildCount());
+		assertNull(first.getParent());
+		assertEquals("0", second.getRowKey());
+	}
+
+	@Test
+	public void shouldBuildWideTreeInOnePass() {
+		DefaultTreeNode root = new DefaultTreeNode("root", null);
+		List<Integer> data = new ArrayList<Integer>();
+		for(int i = 0; i < 50000; i++) {
+			data.add(i);
+		}
+
+		List<TreeNode> children = root.addChildren(data);
+		((DefaultTreeNode) children.get(49999)).addChildren(Arrays.asList("a", "b"));
+		TreeNodeChildren.updateRowKeys(root);
+
+		assertEquals(50000, root.getChildCount());
+		assertSame(root, children.get(0).getParent());
+		assertEquals("49999_1", children.get(49999).getChildren().get(1).getRowKey());
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.util;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class CipherServiceTest {
+
+	@Test
+	public void shouldDecryptWhatItEncrypts() {
+		CipherService service = new CipherService("primefaces");
+		String encrypted = service.encrypt("#{bean.image}");
+
+		assertFalse(encrypted.contains("bean"));
+		assertEquals("#{bean.image}", service.decrypt(encrypted));
+		assertEquals("#{bean.image}", new CipherService("primefaces").decrypt(encrypted));
+	}
+
+	@Test
+	public void shouldEncryptResourceIdsStably() {
+		CipherService service = new CipherService("primefaces");
+		String encrypted = service.encrypt("#{bean.image}");
+
+		assertEquals(encrypted, service.encrypt("#{bean.image}"));
+		assertEquals(encrypted, new CipherService("primefaces").encrypt("#{bean.image}"));
+		assertFalse(encrypted.equals(service.encrypt("#{bean.other}")));
+	}
+
+	@Test
+	public void shouldRejectTamperedOrForeignValues() {
+		CipherService service = new CipherService("primefaces");
+		byte[] bytes = Base64.decode(service.encrypt("#{bean.image}"));
+		bytes[20] ^= 1;
+
+		assertNull(service.decrypt(Base64.encodeToString(bytes, false)));
+		assertNull(new CipherService("secret").decrypt(service.encrypt("#{bean.image}")));
+		assertNull(service.decrypt("invalid"));
+	}
+}
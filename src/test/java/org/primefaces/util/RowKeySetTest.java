@@ -0,0 +1,92 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.util;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class RowKeySetTest {
+
+	@Test
+	public void shouldContainNumericKeys() {
+		RowKeySet set = new RowKeySet();
+		for(long i = 0; i < 1000; i++) {
+			set.add(i * 7);
+		}
+		set.add(Long.MIN_VALUE);
+
+		assertEquals(1001, set.size());
+		assertTrue(set.contains(Long.valueOf(700)));
+		assertTrue(set.contains(Long.MIN_VALUE));
+		assertFalse(set.contains(Long.valueOf(701)));
+		assertFalse(set.add(Long.valueOf(7)));
+	}
+
+	@Test
+	public void shouldSwitchToObjectKeys() {
+		RowKeySet set = new RowKeySet();
+		set.add(1L);
+		set.add(2L);
+		set.add("a");
+
+		assertEquals(3, set.size());
+		assertTrue(set.contains(Long.valueOf(2)));
+		assertTrue(set.contains("a"));
+	}
+
+	@Test
+	public void shouldKeepInsertionOrderInStringForm() {
+		RowKeySet set = new RowKeySet();
+		set.add(3L);
+		set.add(1L);
+		set.add(3L);
+		set.add(2L);
+
+		assertEquals("3,1,2", set.getKeysAsString());
+	}
+
+	@Test
+	public void shouldFindIntegralKeysOfAnyTypeAfterSwitch() {
+		RowKeySet set = new RowKeySet();
+		set.add(1);
+		set.add(2L);
+		set.add("a");
+		set.add(3);
+
+		assertTrue(set.contains(1));
+		assertTrue(set.contains(1L));
+		assertTrue(set.contains(Short.valueOf((short) 2)));
+		assertTrue(set.contains(3L));
+		assertFalse(set.add(3L));
+		assertEquals(4, set.size());
+		assertEquals("1,2,a,3", set.getKeysAsString());
+	}
+
+	@Test
+	public void shouldNotRemoveKeys() {
+		RowKeySet set = new RowKeySet();
+		set.add(1L);
+
+		try {
+			set.clear();
+			fail();
+		}
+		catch(UnsupportedOperationException e) {
+			assertTrue(set.contains(1L));
+		}
+	}
+}
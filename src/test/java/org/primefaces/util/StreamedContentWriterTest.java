@@ -0,0 +1,91 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.util;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class StreamedContentWriterTest {
+
+	@Test
+	public void shouldIgnoreMissingOrInvalidRange() {
+		assertNull(StreamedContentWriter.parseRanges(null, 100));
+		assertNull(StreamedContentWriter.parseRanges("items=0-10", 100));
+		assertNull(StreamedContentWriter.parseRanges("bytes=abc", 100));
+		assertNull(StreamedContentWriter.parseRanges("bytes=50-10", 100));
+	}
+
+	@Test
+	public void shouldParseSingleRanges() {
+		assertRange(StreamedContentWriter.parseRanges("bytes=0-9", 100), 0, 9);
+		assertRange(StreamedContentWriter.parseRanges("bytes=90-", 100), 90, 99);
+		assertRange(StreamedContentWriter.parseRanges("bytes=-20", 100), 80, 99);
+		assertRange(StreamedContentWriter.parseRanges("bytes=95-200", 100), 95, 99);
+	}
+
+	@Test
+	public void shouldParseMultipleRanges() {
+		List<long[]> ranges = StreamedContentWriter.parseRanges("bytes=0-9, 20-29, 200-300", 100);
+
+		assertEquals(2, ranges.size());
+		assertArrayEquals(new long[]{0, 9}, ranges.get(0));
+		assertArrayEquals(new long[]{20, 29}, ranges.get(1));
+	}
+
+	@Test
+	public void shouldRejectUnsatisfiableRanges() {
+		assertTrue(StreamedContentWriter.parseRanges("bytes=100-200", 100).isEmpty());
+		assertTrue(StreamedContentWriter.parseRanges("bytes=-0", 100).isEmpty());
+	}
+
+	@Test
+	public void shouldMergeOverlappingAndAdjacentRanges() {
+		List<long[]> ranges = StreamedContentWriter.parseRanges("bytes=50-59, 0-9, 5-19, 20-29, 55-", 100);
+
+		assertEquals(2, ranges.size());
+		assertArrayEquals(new long[]{0, 29}, ranges.get(0));
+		assertArrayEquals(new long[]{50, 99}, ranges.get(1));
+	}
+
+	@Test
+	public void shouldSendRepeatedRangesOnce() {
+		StringBuilder header = new StringBuilder("bytes=0-");
+		for(int i = 0; i < 1000; i++) {
+			header.append(",0-");
+		}
+
+		assertRange(StreamedContentWriter.parseRanges(header.toString(), 100), 0, 99);
+	}
+
+	@Test
+	public void shouldSendWholeContentForTooManyRanges() {
+		StringBuilder header = new StringBuilder("bytes=0-0");
+		for(int i = 1; i < 17; i++) {
+			header.append(",").append(i * 2).append("-").append(i * 2);
+		}
+
+		assertNull(StreamedContentWriter.parseRanges(header.toString(), 100));
+		assertEquals(16, StreamedContentWriter.parseRanges(header.substring(0, header.lastIndexOf(",")), 100).size());
+	}
+
+	private void assertRange(List<long[]> ranges, long start, long end) {
+		assertEquals(1, ranges.size());
+		assertArrayEquals(new long[]{start, end}, ranges.get(0));
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.webapp;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+import org.apache.commons.fileupload.disk.DiskFileItemFactory;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.primefaces.model.StreamingUploadedFile;
+import org.primefaces.model.UploadedFile;
+import org.primefaces.model.WritableUploadedFile;
+
+public class MultipartRequestTest {
+
+	private final static String BOUNDARY = "----primefacesboundary";
+
+	private File repository;
+
+	@Before
+	public void createRepository() throws IOException {
+		repository = File.createTempFile("uploads", "");
+		repository.delete();
+		repository.mkdir();
+	}
+
+	@After
+	public void deleteRepository() {
+		for(File file : repository.listFiles()) {
+			file.delete();
+		}
+		repository.delete();
+	}
+
+	@Test
+	public void shouldStreamFormFieldsAndFiles() throws IOException {
+		String body = field("name", "value") + file("small", "a.txt", "text/plain", "0123") + file("large", "b.txt", "text/plain", "0123456789") + end();
+		MultipartRequest request = parse(body, null, 5);
+
+		assertEquals("value", request.getParameter("name"));
+
+		UploadedFile small = request.getUploadedFile("small");
+		assertEquals("a.txt", small.getFileName());
+		assertEquals(4, small.getSize());
+		assertNull(((StreamingUploadedFile) small).getFile());
+
+		UploadedFile large = request.getUploadedFile("large");
+		assertEquals(10, large.getSize());
+		assertEquals("0123456789", new String(large.getContents(), "UTF-8"));
+		assertEquals(repository, ((StreamingUploadedFile) large).getFile().getParentFile());
+	}
+
+	@Test
+	public void shouldRejectFileExceedingSizeLimit() throws IOException {
+		String body = file("upload", "a.txt", "text/plain", "0123456789") + field("name", "value") + end();
+		MultipartRequest request = parse(body, new UploadLimit(8, null), 5);
+
+		assertNull(request.getUploadedFile("upload"));
+		assertEquals(UploadLimit.INVALID_SIZE, request.getUploadError("upload"));
+		assertEquals("value", request.getParameter("name"));
+		assertEquals(0, repository.listFiles().length);
+	}
+
+	@Test
+	public void shouldRejectFileOfDisallowedType() throws IOException {
+		String body = file("upload", "notes.txt", "text/plain", "0123") + end();
+		MultipartRequest request = parse(body, new UploadLimit(Long.MAX_VALUE, "/(\\.|\\/)(gif|png)$/"), 1024);
+
+		assertNull(request.getUploadedFile("upload"));
+		assertEquals(UploadLimit.INVALID_TYPE, request.getUploadError("upload"));
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void shouldKeepFileItemsOfDeprecatedParser() throws IOException {
+		String body = field("name", "value") + file("upload", "a.txt", "text/plain", "0123") + end();
+		MultipartRequest request = new MultipartRequest(createRequest(body, null), new ServletFileUpload(new DiskFileItemFactory(1024, repository)));
+
+		assertEquals("value", request.getParameter("name"));
+		assertEquals("a.txt", request.getFileItem("upload").getName());
+		assertEquals("0123", new String(request.getUploadedFile("upload").getContents(), "UTF-8"));
+		assertTrue(request.getUploadedFile("upload") instanceof WritableUploadedFile);
+		assertNull(request.getFileItem("name"));
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void shouldHaveNoFileItemsWhenStreaming() throws IOException {
+		MultipartRequest request = parse(file("upload", "a.txt", "text/plain", "0123") + end(), null, 1024);
+
+		assertNotNull(request.getUploadedFile("upload"));
+		assertNull(request.getFileItem("upload"));
+	}
+
+	private MultipartRequest parse(String body, UploadLimit limit, int thresholdSize) throws IOException {
+		return new MultipartRequest(createRequest(body, limit), new ServletFileUpload(), repository, thresholdSize, null);
+	}
+
+	private HttpServletRequest createRequest(String body, UploadLimit limit) throws IOException {
+		final ByteArrayInputStream in = new ByteArrayInputStream(body.getBytes("UTF-8"));
+		Map<String,UploadLimit> limits = new HashMap<String,UploadLimit>();
+		if(limit != null) {
+			limits.put("upload", limit);
+		}
+
+		HttpSession session = createNiceMock(HttpSession.class);
+		expect(session.getAttribute(UploadLimit.SESSION_KEY)).andReturn(limits).anyTimes();
+
+		HttpServletRequest request = createNiceMock(HttpServletRequest.class);
+		expect(request.getMethod()).andReturn("POST").anyTimes();
+		expect(request.getContentType()).andReturn("multipart/form-data; boundary=" + BOUNDARY).anyTimes();
+		expect(request.getContentLength()).andReturn(body.getBytes("UTF-8").length).anyTimes();
+		expect(request.getCharacterEncoding()).andReturn("UTF-8").anyTimes();
+		expect(request.getSession(false)).andReturn(session).anyTimes();
+		expect(request.getInputStream()).andReturn(new ServletInputStream() {
+
+			@Override
+			public int read() throws IOException {
+				return in.read();
+			}
+		}).anyTimes();
+		replay(session, request);
+
+		return request;
+	}
+
+	private String field(String name, String value) {
+		return "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value + "\r\n";
+	}
+
+	private String file(String name, String fileName, String contentType, String content) {
+		return "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"; filename=\"" + fileName + "\"\r\n"
+				+ "Content-Type: " + contentType + "\r\n\r\n" + content + "\r\n";
+	}
+
+	private String end() {
+		return "--" + BOUNDARY + "--\r\n";
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2009-2013 PrimeTek.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.primefaces.webapp;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class UploadLimitTest {
+
+	@Test
+	public void shouldMatchJavascriptRegex() {
+		UploadLimit limit = new UploadLimit(Long.MAX_VALUE, "/(\\.|\\/)(gif|jpe?g|png)$/");
+
+		assertTrue(limit.isAllowed("photo.jpeg", null));
+		assertTrue(limit.isAllowed("photo", "image/png"));
+		assertFalse(limit.isAllowed("photo.PNG", null));
+		assertFalse(limit.isAllowed("notes.txt", "text/plain"));
+	}
+
+	@Test
+	public void shouldHonorIgnoreCaseFlag() {
+		UploadLimit limit = new UploadLimit(Long.MAX_VALUE, "/(\\.|\\/)(gif|png)$/i");
+
+		assertTrue(limit.isAllowed("photo.PNG", null));
+	}
+
+	@Test
+	public void shouldAllowAnyTypeWithoutAllowTypes() {
+		UploadLimit limit = new UploadLimit(1024, null);
+
+		assertTrue(limit.isAllowed("notes.txt", "text/plain"));
+	}
+}